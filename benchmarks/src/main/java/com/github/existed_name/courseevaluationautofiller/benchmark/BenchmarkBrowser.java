@@ -0,0 +1,69 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 基准测试用浏览器
+ * JVM 内的 HtmlUnit（启用 JavaScript），外层包一层命令计数装饰器
+ *
+ * 被测代码的控制台输出在基准期间被丢弃，避免打印耗时干扰测量结果
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class BenchmarkBrowser implements AutoCloseable {
+
+    private final WebDriver raw;
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    public BenchmarkBrowser(CommandRecorder recorder) {
+        this.raw = new HtmlUnitDriver(true);
+        this.raw.manage().timeouts().implicitlyWait(IMPLICIT_WAIT_TIMEOUT);
+        this.driver = new EventFiringDecorator<>(recorder).decorate(raw);
+        this.wait = new WebDriverWait(driver, EXPLICIT_WAIT_TIMEOUT);
+
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        System.setErr(discard);
+    }
+
+    /** 带命令计数的 driver（交给被测代码） */
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public WebDriverWait waiter() {
+        return wait;
+    }
+
+    /** 基准结束后用于打印结果的原始标准输出 */
+    public PrintStream console() {
+        return originalOut;
+    }
+
+    /**
+     * 加载夹具页面（走未装饰的 driver，不计入命令数）
+     */
+    public void load(URI page) {
+        raw.get(page.toString());
+    }
+
+    @Override
+    public void close() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        raw.quit();
+    }
+}
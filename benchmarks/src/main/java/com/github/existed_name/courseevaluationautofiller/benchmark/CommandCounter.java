@@ -0,0 +1,27 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH 辅助计数器：commands 以"次/时间单位"与基准吞吐量并列输出，二者相除即每次操作的命令数
+ * 只能注入 @Benchmark 方法；命令由 CommandRecorder 统计，基准方法在每次操作后累加
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class CommandCounter {
+
+    /** 本轮迭代发出的 WebDriver 命令数 */
+    public long commands;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        commands = 0;
+    }
+}
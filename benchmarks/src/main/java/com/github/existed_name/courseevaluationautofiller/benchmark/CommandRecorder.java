@@ -0,0 +1,62 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+
+/**
+ * WebDriver 命令记录器
+ * 作为 EventFiringDecorator 的监听器统计 driver / 元素上的每次调用（对真实浏览器即一次协议往返）
+ *
+ * <pre>
+ * 由基准状态类持有（创建浏览器、打印汇总都在 @Setup / @TearDown 中进行）
+ * 每次被测操作的命令数由 end() 返回，基准方法再把它累加到辅助计数器 CommandCounter
+ * （JMH 要求 @AuxCounters 状态只注入 @Benchmark 方法）
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class CommandRecorder implements WebDriverListener {
+
+    private long operationCommands;
+    private long totalCommands;
+    private long totalOperations;
+    private boolean inOperation;
+
+    /**
+     * 包裹一次被测操作：只统计操作内部发出的命令（重新加载页面等准备工作不计入）
+     */
+    public void begin() {
+        operationCommands = 0;
+        inOperation = true;
+    }
+
+    /**
+     * @return 本次操作发出的命令数
+     */
+    public long end() {
+        inOperation = false;
+        totalOperations++;
+        totalCommands += operationCommands;
+        return operationCommands;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (inOperation) {
+            operationCommands++;
+        }
+    }
+
+    /**
+     * 打印本次试验每次操作的平均命令数
+     */
+    public void report(PrintStream out, String label) {
+        if (totalOperations > 0) {
+            out.printf("%n[命令统计] %s: %.1f 次 WebDriver 命令 / 操作（共 %d 次操作）%n",
+                    label, (double) totalCommands / totalOperations, totalOperations);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import com.github.existed_name.courseevaluationautofiller.config.ExtractionMode;
+import com.github.existed_name.courseevaluationautofiller.core.DataExtractor;
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 评价列表提取基准：DataExtractor.extractPendingCourses 在不同表格规模与提取方式下的吞吐量
+ * 列表页只读不改，整个试验只加载一次
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Dautofiller.dataDir=target/benchmark-data")
+public class ExtractionBenchmark {
+
+    @Param({"5", "25", "100"})
+    public int rows;
+
+    @Param({"ELEMENT", "SCRIPT", "PAGE_SOURCE"})
+    public ExtractionMode mode;
+
+    private final CommandRecorder recorder = new CommandRecorder();
+    private BenchmarkBrowser browser;
+    private DataExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        browser = new BenchmarkBrowser(recorder);
+        browser.load(FixturePages.list(rows));
+        extractor = new DataExtractor(browser.driver(), browser.waiter());
+    }
+
+    @Benchmark
+    public List<CourseEvaluation> extractPendingCourses(CommandCounter counter) {
+        recorder.begin();
+        try {
+            return extractor.extractPendingCourses(mode);
+        } finally {
+            counter.commands += recorder.end();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        browser.close();
+        recorder.report(browser.console(), "列表提取 rows=" + rows + " mode=" + mode);
+    }
+}
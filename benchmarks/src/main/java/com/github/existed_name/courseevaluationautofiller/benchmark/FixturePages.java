@@ -0,0 +1,54 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import com.github.existed_name.courseevaluationautofiller.portal.PortalPages;
+import com.github.existed_name.courseevaluationautofiller.portal.StubCourse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 基准测试夹具页面
+ * 用模拟教务系统的页面生成器写出与真实页面结构一致的列表页和问卷页（同一规模的页面只生成一次）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class FixturePages {
+
+    private static final Path DIR = Path.of("target", "fixtures");
+
+    private FixturePages() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 含指定行数待评价课程的列表页
+     */
+    public static URI list(int rows) {
+        return write("list-" + rows + ".html", PortalPages.list(StubCourse.generate(rows)));
+    }
+
+    /**
+     * 含指定题目数量的问卷页
+     */
+    public static URI questionnaire(int questions) {
+        StubCourse course = StubCourse.generate(1).get(0);
+        return write("questionnaire-" + questions + ".html",
+                PortalPages.questionnaire(course, questions, "benchmark-token"));
+    }
+
+    private static URI write(String name, String html) {
+        try {
+            Files.createDirectories(DIR);
+            Path file = DIR.resolve(name);
+            Files.writeString(file, html, StandardCharsets.UTF_8);
+            return file.toAbsolutePath().toUri();
+        } catch (IOException e) {
+            throw new UncheckedIOException("夹具页面写入失败: " + name, e);
+        }
+    }
+}
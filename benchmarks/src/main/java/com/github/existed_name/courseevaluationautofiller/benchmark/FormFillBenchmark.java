@@ -0,0 +1,76 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import com.github.existed_name.courseevaluationautofiller.core.FormFiller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 问卷填写基准：FormFiller.fill 逐题点击与脚本填写在不同题目数量下的吞吐量
+ * 填写会改变页面状态，每次操作前重新加载问卷（加载不计入命令数，但计入耗时）
+ *
+ * 逐题点击模式包含每题之后的交互就绪等待，单次操作可达数秒，因此迭代时间较长
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Dautofiller.dataDir=target/benchmark-data")
+public class FormFillBenchmark {
+
+    @Param({"5", "25", "100"})
+    public int questions;
+
+    @Param({"true", "false"})
+    public boolean scriptFill;
+
+    private final CommandRecorder recorder = new CommandRecorder();
+    private BenchmarkBrowser browser;
+    private FormFiller filler;
+    private URI page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        browser = new BenchmarkBrowser(recorder);
+        page = FixturePages.questionnaire(questions);
+        filler = new FormFiller(browser.driver(), browser.waiter());
+    }
+
+    @Setup(Level.Invocation)
+    public void reload() {
+        browser.load(page);
+    }
+
+    @Benchmark
+    public void fill(CommandCounter counter) {
+        recorder.begin();
+        try {
+            filler.fill(scriptFill);
+        } finally {
+            counter.commands += recorder.end();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        browser.close();
+        recorder.report(browser.console(), "问卷填写 questions=" + questions + " scriptFill=" + scriptFill);
+    }
+}
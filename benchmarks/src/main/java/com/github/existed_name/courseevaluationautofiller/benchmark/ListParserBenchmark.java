@@ -0,0 +1,57 @@
+package com.github.existed_name.courseevaluationautofiller.benchmark;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.parser.EvaluationListParser;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表页源码解析基准：PAGE_SOURCE 模式在 JVM 内的 CPU 开销（不含浏览器传输）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListParserBenchmark {
+
+    @Param({"5", "25", "100"})
+    public int rows;
+
+    private String html;
+    private String baseUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path page = Path.of(FixturePages.list(rows));
+        html = Files.readString(page, StandardCharsets.UTF_8);
+        baseUri = page.toUri().toString();
+    }
+
+    @Benchmark
+    public List<CourseEvaluation> parsePendingCourses() {
+        return EvaluationListParser.parsePendingCourses(Jsoup.parse(html, baseUri));
+    }
+}
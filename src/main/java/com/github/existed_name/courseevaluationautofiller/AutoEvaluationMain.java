@@ -2,18 +2,22 @@ package com.github.existed_name.courseevaluationautofiller;
 
 import com.github.existed_name.courseevaluationautofiller.config.SystemConfig;
 import com.github.existed_name.courseevaluationautofiller.core.BrowserManager;
-import com.github.existed_name.courseevaluationautofiller.core.DataExtractor;
-import com.github.existed_name.courseevaluationautofiller.core.FormFiller;
-import com.github.existed_name.courseevaluationautofiller.core.NavigationService;
-import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import com.github.existed_name.courseevaluationautofiller.core.ElementLookup;
+import com.github.existed_name.courseevaluationautofiller.core.LocatorRegistry;
+import com.github.existed_name.courseevaluationautofiller.core.NetworkInterceptor;
+import com.github.existed_name.courseevaluationautofiller.core.PageReadiness;
+import com.github.existed_name.courseevaluationautofiller.log.Log;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.github.existed_name.courseevaluationautofiller.policy.AnswerPolicy;
+import com.github.existed_name.courseevaluationautofiller.portal.ReplayPortalServer;
+import com.github.existed_name.courseevaluationautofiller.runner.DaemonServer;
+import com.github.existed_name.courseevaluationautofiller.runner.EvaluationSession;
+import com.github.existed_name.courseevaluationautofiller.runner.FleetRunner;
 
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -26,6 +30,17 @@ import java.util.List;
  * 3. 提取所有待评价课程
  * 4. 循环填写每门课程的问卷
  * 5. 全部完成后关闭浏览器
+ *
+ * 多账号模式：java -jar app.jar --fleet accounts.txt
+ *   按清单并发运行多个账号（见 FleetRunner），结束后直接退出
+ * 常驻模式：java -jar app.jar --daemon [accounts.txt]
+ *   预热浏览器并保持登录，通过本机 HTTP 接口接收评价任务（见 DaemonServer）
+ * 录制：java -Dautofiller.capture=录制目录 -jar app.jar
+ *   正常评价的同时保存各页面（见 PageCapture）
+ * 回放：java -jar app.jar --replay 录制目录
+ *   在本机回放录制的页面，离线运行完整的浏览器流程（见 ReplayPortalServer）
+ * 作答策略：java -Dautofiller.answerPolicy=规则文件 -jar app.jar
+ *   按题号、教师、课程指定选项与评语（见 AnswerPolicy）
  * </pre>
  *
  * v1.0 - 优化代码结构，增加空列表处理
@@ -38,29 +53,42 @@ import java.util.List;
  */
 public class AutoEvaluationMain {
 
-    private static BrowserManager browserManager;
-    private static WebDriver driver;
-    private static WebDriverWait wait;
-    private static NavigationService navigationService;
-    private static DataExtractor dataExtractor;
-    private static FormFiller formFiller;
+    private static EvaluationSession session;
+    private static ReplayPortalServer replay;
 
     public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--replay")) {
+            if (!startReplay(Path.of(args[1]))) {
+                return;
+            }
+        }
+        if (args.length == 2 && args[0].equals("--fleet")) {
+            runFleet(Path.of(args[1]));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("--daemon")) {
+            runDaemon(args.length == 2 ? Path.of(args[1]) : null);
+            return;
+        }
+
         try {
             setEncoding();
+            Log.install();
             printBanner();
 
-            // 阶段1：环境初始化
-            initializeEnvironment();
+            // 启动时编译作答策略（规则文件有误时不启动浏览器）
+            AnswerPolicy.getInstance();
 
-            // 阶段2：导航到评价页面
-            navigateToEvaluationPage();
+            // 阶段1+2：环境初始化、登录验证、导航到评价页面
+            session = new EvaluationSession(SystemConfig.EDGE_PROFILE, new BrowserManager());
+            session.open();
 
-            // 阶段3：批量评价
-            int[] results = batchEvaluate();
+            // 阶段3：批量评价（直连 HTTP 模式下浏览器只负责登录与进入列表页）
+            List<EvaluationResult> results = session.evaluate();
 
             // 阶段4：任务总结
-            printSummary(results[0], results[1]);
+            int successCount = EvaluationSession.countSuccess(results);
+            printSummary(successCount, results.size() - successCount);
 
         } catch (Exception e) {
             System.err.println("\n❌ 程序执行异常: " + e.getMessage());
@@ -72,189 +100,115 @@ public class AutoEvaluationMain {
     }
 
     /**
-     * 设置命令行字符编码为 UTF-8
+     * 多账号模式：按清单运行后以退出码结束进程（0 表示全部成功），不等待回车
      */
-    private static void setEncoding(){
-        if (System.getProperty("os.name").toLowerCase().contains("windows")) {
-            try {
-                // 1、强制将当前控制台输出代码页改为 65001 (UTF-8)
-                new ProcessBuilder("cmd", "/c" , "chcp 65001" // " > nul" 不展示 "Active code page: 65001"
-                ).inheritIO().start().waitFor();
+    private static void runFleet(Path manifest) {
+        int exitCode;
+        try {
+            setEncoding();
+            Log.install();
+            printBanner();
 
-                // 2. 关键：强制重置 Java 的标准输出/错误流为 UTF-8
-                // 这样即便 JVM 启动时抓取的是 GBK，我们也会在运行中把它改掉
-                System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
-                System.setErr(new PrintStream(System.err, true, StandardCharsets.UTF_8));
-            } catch (Exception ignored) {}
+            // 启动时编译作答策略（规则文件有误时不启动浏览器）
+            AnswerPolicy.getInstance();
+            exitCode = FleetRunner.runManifest(manifest);
+            PageReadiness.printStats();
+            ElementLookup.printStats();
+            NetworkInterceptor.printStats();
+            PhaseMetrics.summaryLines().forEach(line -> System.out.println("   " + line));
+        } catch (Exception e) {
+            System.err.println("\n❌ 多账号运行异常: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
         }
+        LocatorRegistry.getInstance().save();
+        PhaseMetrics.export();
+        Log.shutdown();
+        System.exit(exitCode);
     }
 
     /**
-     * 打印程序标题
-     */
-    private static void printBanner() {
-        System.out.println("╔═══════════════════════════════════════════════╗");
-        System.out.println("║                 课程评价收割机                ║");
-        System.out.println("║         https://github.com/existed-name       ║");
-        System.out.println("╚═══════════════════════════════════════════════╝\n");
-    }
-
-    /**
-     * 阶段1：环境初始化
+     * 常驻模式：预热浏览器后阻塞，直到收到 /shutdown
+     *
+     * @param manifest 账号清单（null 表示使用默认浏览器配置的单个账号）
      */
-    private static void initializeEnvironment() throws Exception {
-        browserManager = new BrowserManager();
-        browserManager.initEnvironment();
-        browserManager.navigateToTarget();
+    private static void runDaemon(Path manifest) {
+        DaemonServer daemon = null;
+        int exitCode = 0;
+        try {
+            setEncoding();
+            Log.install();
+            printBanner();
 
-        if (!browserManager.verifyLoginStatus()) {
-            throw new RuntimeException("登录验证失败，请手动登录后重新运行");
+            // 启动时编译作答策略（规则文件有误时不启动浏览器）
+            AnswerPolicy.getInstance();
+            List<FleetRunner.Account> accounts = manifest == null ? List.of() : FleetRunner.loadManifest(manifest);
+            daemon = new DaemonServer(SystemConfig.DAEMON_PORT, accounts);
+            daemon.start();
+            daemon.awaitShutdown();
+        } catch (Exception e) {
+            System.err.println("\n❌ 常驻模式异常: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
+            if (daemon != null) {
+                daemon.stop();
+            }
         }
-
-        driver = browserManager.getDriver();
-        wait = browserManager.getWait();
-        navigationService = new NavigationService(driver, wait);
-        dataExtractor = new DataExtractor(driver, wait);
-        formFiller = new FormFiller(driver, wait);
+        LocatorRegistry.getInstance().save();
+        PhaseMetrics.export();
+        Log.shutdown();
+        System.exit(exitCode);
     }
 
     /**
-     * 阶段2：导航到评价列表页
-     */
-    private static void navigateToEvaluationPage() {
-        navigationService.navigateToEvaluationPage();
-    }
-
-    /**
-     * 阶段3：批量评价所有课程
+     * 回放模式：启动回放服务器，把 TARGET_URL 指向它，之后按单账号模式运行
+     * 必须在首次访问 SystemConfig 之前调用（TARGET_URL 等在类初始化时读取系统属性）；
+     * 未指定数据目录时改用录制目录下的 replay-data，回放不会改动真实的进度日志与定位排名
      *
-     * @return int数组 [成功数量, 失败数量]
+     * @return 回放服务器是否已启动
      */
-    private static int[] batchEvaluate() {
-        System.out.println("╔═══════════════════════════════════════════════╗");
-        System.out.println("║                   开始批量评价                ║");
-        System.out.println("╚═══════════════════════════════════════════════╝\n");
-
-        int successCount = 0;
-        int failedCount = 0;
-        int totalAttempts = 0;
-        final int MAX_ATTEMPTS = 100;
-
-        while (totalAttempts < MAX_ATTEMPTS) {
-            totalAttempts++;
-
-            // 重新检查待评价列表
-            System.out.println(">>> 重新检查待评价列表...");
-            List<CourseEvaluation> courses = dataExtractor.extractPendingCourses();
-
-            // 🔑 如果列表为空，说明全部完成
-            if (courses.isEmpty()) {
-                System.out.println("✅ 所有课程已评价完成！\n");
-                break;
-            }
-
-            // 只处理第一门课程
-            CourseEvaluation course = courses.get(0);
-
-            System.out.printf("【进度: 已完成 %d 门】正在处理: %s%n",
-                    successCount, course.getFullInfo());
-
-            try {
-                // 重新获取按钮元素（避免 stale element）
-                WebElement freshButton = refindEvalButton(course);
-
-                if (freshButton == null) {
-                    System.err.println("   ✗ 无法定位评价按钮，跳过此课程");
-                    failedCount++;
-                    continue;
-                }
-
-                // 填写问卷
-                evaluateSingleCourse(freshButton, course);
-
-                successCount++;
-                System.out.println("✅ 完成\n");
-
-                // 短暂等待，让列表刷新完成
-                Thread.sleep(1000);
-
-            } catch (Exception e) {
-                failedCount++;
-                System.err.printf("❌ 失败: %s%n", e.getMessage());
-                System.err.println("   继续处理下一门课程...\n");
-
-                // 尝试恢复
-                recoverFromError();
-            }
+    private static boolean startReplay(Path captureDir) {
+        try {
+            replay = new ReplayPortalServer(captureDir, 0);
+            replay.start();
+        } catch (Exception e) {
+            System.err.println("❌ 回放服务器启动失败: " + e.getMessage());
+            return false;
         }
-
-        if (totalAttempts >= MAX_ATTEMPTS) {
-            System.err.println("⚠️ 达到最大尝试次数，终止任务");
+        System.setProperty("autofiller.targetUrl", replay.targetUrl());
+        if (System.getProperty("autofiller.dataDir") == null) {
+            System.setProperty("autofiller.dataDir", captureDir.resolve("replay-data").toString());
         }
-
-        return new int[]{successCount, failedCount};
+        System.out.println("🎞️ 回放模式: " + replay.targetUrl());
+        return true;
     }
 
     /**
-     * 评价单门课程
-     */
-    private static void evaluateSingleCourse(WebElement evalButton, CourseEvaluation course)
-            throws Exception {
-        // 点击"网上评价"按钮，进入问卷
-        navigationService.navigateToQuestionnaire(evalButton, course.getFullInfo());
-
-        // 填写并提交问卷
-        formFiller.fillAndSubmitQuestionnaire(course.getFullInfo());
-    }
-
-    /**
-     * 重新查找评价按钮（避免 stale element 问题）
+     * 设置命令行字符编码为 UTF-8
      */
-    private static WebElement refindEvalButton( CourseEvaluation course) {
-        try {
-            // 根据课程名称和教师名称定位所在行
-            String rowXPath = String.format(
-                    "//tr[contains(., '%s') and contains(., '%s')]",
-                    course.courseName(),
-                    course.teacherName()
-            );
-
-            WebElement row = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.xpath(rowXPath))
-            );
-
-            // 在行内查找评价按钮
-            for (String buttonXPath : SystemConfig.XPATH_EVAL_BUTTON) {
-                try {
-                    return row.findElement(By.xpath(buttonXPath));
-                } catch (Exception e) {
-                    continue;
-                }
-            }
-
-            return null;
+    private static void setEncoding(){
+        if (System.getProperty("os.name").toLowerCase().contains("windows")) {
+            try {
+                // 1、强制将当前控制台输出代码页改为 65001 (UTF-8)
+                new ProcessBuilder("cmd", "/c" , "chcp 65001" // " > nul" 不展示 "Active code page: 65001"
+                ).inheritIO().start().waitFor();
 
-        } catch (Exception e) {
-            System.err.println("   ⚠ 重新定位按钮失败: " + e.getMessage());
-            return null;
+                // 2. 关键：强制重置 Java 的标准输出/错误流为 UTF-8
+                // 这样即便 JVM 启动时抓取的是 GBK，我们也会在运行中把它改掉
+                System.setOut(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+                System.setErr(new PrintStream(System.err, true, StandardCharsets.UTF_8));
+            } catch (Exception ignored) {}
         }
     }
 
     /**
-     * 错误恢复机制
+     * 打印程序标题
      */
-    private static void recoverFromError() {
-        try {
-            driver.navigate().back();
-            Thread.sleep(2000);
-        } catch (Exception backError) {
-            System.err.println("   ⚠ 无法返回列表页，尝试重新导航...");
-            try {
-                navigationService.navigateToEvaluationPage();
-            } catch (Exception navError) {
-                System.err.println("   ✗ 重新导航失败");
-            }
-        }
+    private static void printBanner() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║                 课程评价收割机                ║");
+        System.out.println("║         https://github.com/existed-name       ║");
+        System.out.println("╚═══════════════════════════════════════════════╝\n");
     }
 
     /**
@@ -267,8 +221,20 @@ public class AutoEvaluationMain {
         System.out.printf ("║   成功: %d 门                                  ║%n", successCount);
         System.out.printf ("║   失败: %d 门                                  ║%n", failedCount);
         System.out.printf ("║   总计: %d 门                                  ║%n", successCount + failedCount);
+        List<String> phaseLines = PhaseMetrics.summaryLines();
+        if (!phaseLines.isEmpty()) {
+            System.out.println("╠═══════════════════════════════════════════════╣");
+            System.out.println("║   阶段耗时（p50 / p95）");
+            for (String line : phaseLines) {
+                System.out.println("║   " + line);
+            }
+        }
         System.out.println("╚═══════════════════════════════════════════════╝\n");
 
+        PageReadiness.printStats();
+        ElementLookup.printStats();
+        NetworkInterceptor.printStats();
+
         if (failedCount > 0) {
             System.out.println("⚠️ 部分课程评价失败，请手动检查");
         } else {
@@ -280,13 +246,21 @@ public class AutoEvaluationMain {
      * 资源清理
      */
     private static void cleanup() {
-        if (browserManager != null) {
+        LocatorRegistry.getInstance().save();
+        PhaseMetrics.export();
+
+        if (session != null) {
             System.out.println("\n按回车键关闭程序...");
+            Log.flush(2000);
             try {
                 System.in.read();
             } catch (Exception ignored) {}
 
-            browserManager.cleanup();
+            session.close();
+        }
+        if (replay != null) {
+            replay.printStats();
+            replay.stop();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.github.existed_name.courseevaluationautofiller.config;
+
+/**
+ * 评价列表提取方式
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum ExtractionMode {
+
+    /** 逐行逐列 findElement（每行 6~10 次 WebDriver 往返） */
+    ELEMENT,
+
+    /** 一次 JavascriptExecutor 调用取回整张表格的结构化快照 */
+    SCRIPT,
+
+    /** 一次 getPageSource 取回整页 HTML，在 JVM 内用预编译选择器解析（快照只带按钮链接，不带页面元素） */
+    PAGE_SOURCE
+}
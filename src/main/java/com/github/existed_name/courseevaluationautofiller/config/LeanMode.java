@@ -0,0 +1,36 @@
+package com.github.existed_name.courseevaluationautofiller.config;
+
+import java.util.Locale;
+
+/**
+ * 精简模式（DevTools 资源拦截）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum LeanMode {
+
+    /** 不连接 DevTools，按常规方式加载页面 */
+    OFF,
+
+    /** 只统计各页面加载的请求数与字节数，不拦截（用于与 BLOCK 对比节省的流量） */
+    MEASURE,
+
+    /** 拦截配置的资源类型与 URL 模式，并统计 */
+    BLOCK;
+
+    /**
+     * 解析模式名（大小写不敏感），无法识别时打印警告并使用默认值
+     */
+    public static LeanMode parse(String name, LeanMode defaultMode) {
+        if (name == null || name.isBlank()) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠ 无法识别的精简模式 " + name + "，使用 " + defaultMode + "（可选 off / measure / block）");
+            return defaultMode;
+        }
+    }
+}
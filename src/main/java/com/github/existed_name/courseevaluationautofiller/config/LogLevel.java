@@ -0,0 +1,45 @@
+package com.github.existed_name.courseevaluationautofiller.config;
+
+import java.util.Locale;
+
+/**
+ * 日志级别（从低到高）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum LogLevel {
+
+    /** 逐行、逐题等细节，以及结构化事件（阶段耗时、课程结果） */
+    DEBUG,
+
+    /** 常规进度输出（原 System.out） */
+    INFO,
+
+    /** 警告与错误（原 System.err） */
+    WARN,
+
+    /** 关闭该输出 */
+    OFF;
+
+    /**
+     * 本级别的输出在阈值 threshold 下是否保留
+     */
+    public boolean passes(LogLevel threshold) {
+        return this != OFF && compareTo(threshold) >= 0;
+    }
+
+    /**
+     * 解析级别名（大小写不敏感），无法识别时使用默认值
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null || name.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
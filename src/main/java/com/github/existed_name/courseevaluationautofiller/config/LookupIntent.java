@@ -0,0 +1,33 @@
+package com.github.existed_name.courseevaluationautofiller.config;
+
+import java.time.Duration;
+
+/**
+ * 元素查找意图
+ * 每次查找声明自己对结果的预期，按预期分配等待时长，代替全局隐式等待
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum LookupIntent {
+
+    /** 必须存在：等待至显式超时，仍找不到则抛出 NoSuchElementException */
+    REQUIRED(SystemConfig.EXPLICIT_WAIT_TIMEOUT),
+
+    /** 可能存在：短暂等待页面渲染，找不到返回空 */
+    OPTIONAL(SystemConfig.OPTIONAL_LOOKUP_TIMEOUT),
+
+    /** 探测：只查一次立即返回（用于备用方案、默认值等预期内会落空的查找） */
+    PROBE(Duration.ZERO);
+
+    private final Duration budget;
+
+    LookupIntent(Duration budget) {
+        this.budget = budget;
+    }
+
+    /** 该意图的等待上限 */
+    public Duration budget() {
+        return budget;
+    }
+}
@@ -1,6 +1,10 @@
 package com.github.existed_name.courseevaluationautofiller.config;
 
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Locale;
 
 /**
  * 系统配置常量
@@ -19,31 +23,75 @@ public final class SystemConfig {
         throw new UnsupportedOperationException("Utility class");
     }
 
+    private static Path resolveAppDataDir() {
+        String override = System.getProperty("autofiller.dataDir");
+        if (override != null && !override.isBlank()) {
+            return Path.of(override);
+        }
+        String localAppData = System.getenv("LOCALAPPDATA");
+        if (localAppData != null && !localAppData.isBlank()) {
+            return Path.of(localAppData, "CourseEvaluationAutoFiller");
+        }
+        return Path.of(System.getProperty("user.home"), ".course-evaluation-autofiller");
+    }
+
     // ==================== 系统路径配置 ====================
 
     /** Edge 配置文件名 */
     public static final String EDGE_PROFILE = "Default";
 
+    /**
+     * 程序数据目录（驱动缓存等）
+     * Windows 下位于 %LOCALAPPDATA%\CourseEvaluationAutoFiller，其他系统位于 ~/.course-evaluation-autofiller
+     * 也可通过 -Dautofiller.dataDir=... 指定（例如基准测试时避免改动真实的定位排名）
+     */
+    public static final Path APP_DATA_DIR = resolveAppDataDir();
+
+    /** 内置驱动在 JAR 中的资源路径 */
+    public static final String EDGE_DRIVER_RESOURCE = "/msedgedriver.exe";
+
     // ==================== 业务 URL 配置 ====================
 
     /**
      * 教务系统目标地址
      * 👈【修改】改成你的教务系统首页URL
+     * 也可通过 -Dautofiller.targetUrl=... 临时覆盖（例如指向本地模拟教务系统）
      */
-    public static final String TARGET_URL =
-            "https://matrix.dean.swust.edu.cn/acadmicManager/index.cfm?event=studentPortal:DEFAULT_EVENT";
+    public static final String TARGET_URL = System.getProperty("autofiller.targetUrl",
+            "https://matrix.dean.swust.edu.cn/acadmicManager/index.cfm?event=studentPortal:DEFAULT_EVENT");
 
     // ==================== 等待时间配置 ====================
 
     /** 显式等待超时（秒） */
     public static final Duration EXPLICIT_WAIT_TIMEOUT = Duration.ofSeconds(10);
 
-    /** 隐式等待全局超时（秒） */
-    public static final Duration IMPLICIT_WAIT_TIMEOUT = Duration.ofSeconds(5);
+    /**
+     * 隐式等待全局超时
+     * 保持为 0：否则每次预期内的"找不到"都要等满超时，等待时长改由 LookupIntent 按查找意图分配
+     */
+    public static final Duration IMPLICIT_WAIT_TIMEOUT = Duration.ZERO;
 
-    /** 页面初始加载等待（毫秒）- 仅用于浏览器启动后 */
+    /** 可选元素（可能存在）的查找等待上限 */
+    public static final Duration OPTIONAL_LOOKUP_TIMEOUT = Duration.ofMillis(500);
+
+    /**
+     * 页面初始加载等待（毫秒）- 旧版启动后的固定等待
+     * 现已改为就绪检测，此值仅作为统计节省时间的基准
+     */
     public static final long INITIAL_LOAD_DELAY = 3000;
 
+    /** 就绪检测的最长等待时间 */
+    public static final Duration READINESS_TIMEOUT = Duration.ofSeconds(10);
+
+    /** 就绪检测轮询间隔 */
+    public static final Duration READINESS_POLL_INTERVAL = Duration.ofMillis(50);
+
+    /** 网络静默窗口：进行中的 XHR/fetch 为 0 后需持续的时间 */
+    public static final Duration NETWORK_QUIET_WINDOW = Duration.ofMillis(300);
+
+    /** DOM 静默窗口：页面结构不再变化需持续的时间 */
+    public static final Duration DOM_QUIET_WINDOW = Duration.ofMillis(150);
+
     // ==================== 登录状态检测配置 ====================
 
     /** 登录成功标识元素列表（任一匹配即认为成功） */
@@ -76,6 +124,12 @@ public final class SystemConfig {
             "//a[contains(@href, 'evaluateOnline')]"              // href特征
     };
 
+    /**
+     * 备用方案连续失败多少次后降到最后尝试
+     * 各方案的命中排名保存在 APP_DATA_DIR/locators.properties
+     */
+    public static final int LOCATOR_DEMOTE_THRESHOLD = 3;
+
     /**
      * 评价页面特征（用于验证导航成功）
      */
@@ -119,6 +173,13 @@ public final class SystemConfig {
             "//*[@id='Questionnaire']//h3[contains(text(), '太棒了')]"                // ID+标题组合
     };
 
+    /**
+     * 列表提取方式
+     * SCRIPT：一次脚本调用取回整表（推荐）；ELEMENT：逐个单元格查找（兼容旧版）
+     * PAGE_SOURCE：取回整页源码在 JVM 内解析（不判断按钮的样式可见性）
+     */
+    public static final ExtractionMode EXTRACTION_MODE = ExtractionMode.SCRIPT;
+
     /**
      * 表格行（排除表头）
      */
@@ -174,12 +235,6 @@ public final class SystemConfig {
     public static final String XPATH_ALL_OPTION_CELLS =
             "//td[@class='quota ltr']";
 
-    /**
-     * 单元格内的"非常满意"选项（data-opt="1"）
-     */
-    public static final String XPATH_OPTION_VERY_SATISFIED =
-            ".//a[@data-opt='1']";
-
     /**
      * 评语文本框
      */
@@ -190,6 +245,125 @@ public final class SystemConfig {
      */
     public static final String XPATH_SUBMIT_BUTTON = "//*[@id='postTrigger']";
 
+    // ==================== 直连 HTTP 模式（CSS 选择器，与上方 XPath 一一对应） ====================
+
+    /** 评价列表表格（与 XPATH_EVALUATION_TABLE 对应） */
+    public static final String[] CSS_EVALUATION_TABLE = {
+            "#Questionnaire > table",
+            "#Questionnaire table",
+            "#contentArea table",
+            "table:has(th:contains(课程))"
+    };
+
+    /** 所有评价完成的提示元素（与 XPATH_ALL_COMPLETED_INDICATORS 对应） */
+    public static final String[] CSS_ALL_COMPLETED_INDICATORS = {
+            "#Questionnaire div.systemNotice",
+            "div.systemNotice h3:contains(太棒了)",
+            "div.systemNotice p:contains(完成了目前所有的问卷)",
+            "h3:contains(太棒了)"
+    };
+
+    /** "网上评价"按钮（与 XPATH_EVAL_BUTTON 对应） */
+    public static final String[] CSS_EVAL_BUTTON = {
+            "a.stat.info[title=网上评价]",
+            "a[title*=网上评价]",
+            "a[href*=evaluateResponse]",
+            "a:contains(网上评价)"
+    };
+
+    /** 问卷选项单元格（与 XPATH_ALL_OPTION_CELLS 对应，class 需完全等于 "quota ltr"） */
+    public static final String CSS_ALL_OPTION_CELLS = "td[class=\"quota ltr\"]";
+
+    /** 单元格内的选项（带 data-opt 属性） */
+    public static final String CSS_OPTION = "a[data-opt]";
+
+    /** 默认选中的选项值（未配置作答策略时所有题目选这一项，见 AnswerPolicy） */
+    public static final String OPTION_VERY_SATISFIED = "1";
+
+    /** 评价列表容器 ID（与 XPATH_EVALUATION_TABLE 等定位中的 Questionnaire 对应） */
+    public static final String ID_EVALUATION_LIST = "Questionnaire";
+
+    /** 问卷表格 ID */
+    public static final String ID_QUESTIONNAIRE_TABLE = "sheetTable";
+
+    /** 评语文本框 ID */
+    public static final String ID_COMMENT_TEXTAREA = "CourseComment";
+
+    /** 提交按钮 ID */
+    public static final String ID_SUBMIT_BUTTON = "postTrigger";
+
+    /**
+     * 选项单元格上可能携带题目字段名的属性（单元格/同行内没有隐藏输入框时依次尝试）
+     */
+    public static final String[] QUESTION_FIELD_ATTRIBUTES = {
+            "data-name",
+            "data-field",
+            "data-qid",
+            "data-id"
+    };
+
+    /** 直连模式下同时进行的 HTTP 请求上限 */
+    public static final int HTTP_MAX_IN_FLIGHT = 8;
+
+    /** 直连模式单个请求超时 */
+    public static final Duration HTTP_REQUEST_TIMEOUT = Duration.ofSeconds(15);
+
+    /** 直连模式列表与问卷的 GET 请求遇到 5xx 或网络错误时的重试次数（提交请求不重试，由列表复核与下一轮扫描兜底） */
+    public static final int HTTP_MAX_RETRIES = 2;
+
+    /** 直连模式首次重试前的等待时间（之后每次翻倍） */
+    public static final Duration HTTP_RETRY_BACKOFF = Duration.ofMillis(200);
+
+    // ==================== 页面加载策略 ====================
+
+    /**
+     * 页面加载策略
+     * NORMAL（默认）：driver.get 与导航点击等待所有子资源加载完；EAGER：DOM 解析完即返回；NONE：立即返回
+     * EAGER / NONE 需通过 -Dautofiller.pageLoad=eager|none 显式开启，此时每次导航由 PageExpectation 声明的 DOM 条件决定何时继续
+     * 无法识别的值按 NORMAL 处理并打印警告
+     */
+    public static final PageLoadStrategy PAGE_LOAD_STRATEGY = parsePageLoadStrategy(System.getProperty("autofiller.pageLoad"));
+
+    private static PageLoadStrategy parsePageLoadStrategy(String name) {
+        if (name == null || name.isBlank()) {
+            return PageLoadStrategy.NORMAL;
+        }
+        try {
+            return PageLoadStrategy.valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠ 无法识别的页面加载策略 -Dautofiller.pageLoad=" + name + "，使用 NORMAL（可选 normal / eager / none）");
+            return PageLoadStrategy.NORMAL;
+        }
+    }
+
+    // ==================== 精简模式配置 ====================
+
+    /**
+     * 精简模式：登录验证通过后通过 DevTools 拦截评价流程用不到的资源，减少慢速校园网下的页面加载时间
+     * OFF（默认）关闭，MEASURE 只统计，BLOCK 拦截并统计；需通过 -Dautofiller.lean=measure|block 显式开启
+     */
+    public static final LeanMode LEAN_MODE = LeanMode.parse(System.getProperty("autofiller.lean"), LeanMode.OFF);
+
+    /**
+     * 拦截的资源类型（CDP Network.ResourceType）
+     * 不要加入 Stylesheet：评价按钮的可见性判断依赖页面样式
+     */
+    public static final String[] LEAN_BLOCKED_RESOURCE_TYPES = {
+            "Image",
+            "Font",
+            "Media"
+    };
+
+    /**
+     * 额外拦截的 URL 模式（* 通配任意字符），用于统计分析等第三方脚本
+     */
+    public static final String[] LEAN_BLOCKED_URL_PATTERNS = {
+            "*google-analytics.com/*",
+            "*googletagmanager.com/*",
+            "*hm.baidu.com/*",
+            "*cnzz.com/*"
+    };
+
     // ==================== 行为控制开关 ====================
 
     /** 是否自动关闭浏览器（调试时建议设为false） */
@@ -198,9 +372,120 @@ public final class SystemConfig {
     /** 强制清理 Edge 进程 */
     public static final boolean FORCE_KILL_EDGE_PROCESS = true;
 
-    /** 评语内容 */
+    /** 默认评语（未配置作答策略时使用，见 AnswerPolicy） */
     public static final String DEFAULT_COMMENT = "无";
 
-    /** 每次操作后的短暂等待（毫秒）- 让页面有时间响应 */
+    /**
+     * 每次操作后的短暂等待（毫秒）- 旧版逐题点击后的固定等待
+     * 现已改为就绪检测，此值仅作为统计节省时间的基准
+     */
     public static final long SHORT_DELAY = 500;
+
+    /**
+     * 是否用一次注入脚本填写整份问卷（所有选项 + 评语）
+     * 关闭后退回逐题查找、点击的方式
+     */
+    public static final boolean USE_SCRIPT_FILL = true;
+
+    /**
+     * 是否启用直连 HTTP 模式
+     * 浏览器只负责登录与进入评价列表页，之后复制会话 Cookie，用 HttpClient 并发完成列表扫描与问卷提交
+     */
+    public static final boolean USE_DIRECT_HTTP = false;
+
+    // ==================== 控制台与日志文件配置 ====================
+
+    /**
+     * 控制台输出级别：DEBUG 额外显示逐行明细与结构化事件，WARN 只显示警告
+     * 可通过 -Dautofiller.log.level=... 指定
+     */
+    public static final LogLevel LOG_CONSOLE_LEVEL =
+            LogLevel.parse(System.getProperty("autofiller.log.level"), LogLevel.INFO);
+
+    /**
+     * 日志文件（APP_DATA_DIR/logs/autofiller-日期.log）记录级别，OFF 表示不写文件
+     * 可通过 -Dautofiller.log.fileLevel=... 指定
+     */
+    public static final LogLevel LOG_FILE_LEVEL =
+            LogLevel.parse(System.getProperty("autofiller.log.fileLevel"), LogLevel.DEBUG);
+
+    /** 日志队列容量（2 的幂）；后台写出跟不上时丢弃新输出并计数，而不是阻塞自动化线程 */
+    public static final int LOG_QUEUE_CAPACITY = 8192;
+
+    // ==================== 进度日志配置 ====================
+
+    /** 非关键记录攒够多少条后落盘（SUBMITTED 总是立即落盘） */
+    public static final int JOURNAL_SYNC_BATCH = 16;
+
+    /** 距上次落盘超过该时长，下一条记录写入后立即落盘 */
+    public static final Duration JOURNAL_SYNC_INTERVAL = Duration.ofSeconds(1);
+
+    /** 进度日志超过该大小（字节）时在打开时压缩 */
+    public static final long JOURNAL_COMPACT_BYTES = 64 * 1024;
+
+    /** 已确认课程在日志中的保留时长（压缩时丢弃更早的记录） */
+    public static final Duration JOURNAL_RETENTION = Duration.ofDays(180);
+
+    // ==================== 并发评价配置 ====================
+
+    /**
+     * 是否启用多标签页并发评价
+     * 开启后同一浏览器会话内同时打开多份问卷，页面加载与提交的等待相互重叠
+     */
+    public static final boolean ENABLE_PARALLEL_TABS = false;
+
+    /** 同时打开的问卷标签页上限（建议 2~6，过大可能触发教务系统限流） */
+    public static final int MAX_PARALLEL_TABS = 4;
+
+    // ==================== 多账号模式配置 ====================
+
+    /**
+     * 同时运行的浏览器数量上限
+     * 0 表示按本机 CPU 核数与内存自动计算；也可通过 -Dautofiller.fleet.browsers=... 指定
+     */
+    public static final int FLEET_MAX_BROWSERS = Integer.getInteger("autofiller.fleet.browsers", 0);
+
+    /** 自动计算浏览器数量时，每个 Edge 实例预留的内存（MB） */
+    public static final long FLEET_BROWSER_MEMORY_MB = 600;
+
+    /** Ctrl+C 取消多账号运行时，等待各会话关闭浏览器的最长时间 */
+    public static final Duration FLEET_CANCEL_TIMEOUT = Duration.ofSeconds(15);
+
+    /**
+     * 多账号模式下提供 Prometheus 阶段耗时接口（GET /metrics）的本机端口
+     * 0 表示不开启；可通过 -Dautofiller.metrics.port=... 指定（常驻模式直接使用 DAEMON_PORT 上的 /metrics）
+     */
+    public static final int METRICS_PORT = Integer.getInteger("autofiller.metrics.port", 0);
+
+    // ==================== 常驻模式配置 ====================
+
+    /** 常驻模式本机接口端口（可通过 -Dautofiller.daemon.port=... 指定） */
+    public static final int DAEMON_PORT = Integer.getInteger("autofiller.daemon.port", 17890);
+
+    /** 常驻模式下空闲浏览器的保活间隔（重新加载首页，防止登录过期） */
+    public static final Duration DAEMON_KEEPALIVE_INTERVAL = Duration.ofMinutes(10);
+
+    /** 常驻模式退出时，取消进行中的任务后等待其结束的最长时间 */
+    public static final Duration DAEMON_STOP_TIMEOUT = Duration.ofSeconds(15);
+
+    // ==================== 录制回放配置 ====================
+
+    /**
+     * 页面录制目录（null 表示不录制）
+     * 指定后单账号运行时把首页、评价列表、每份问卷、完成页以及问卷提交内容保存到该目录，
+     * 之后可用 --replay 目录 离线回放（见 ReplayPortalServer）；可通过 -Dautofiller.capture=... 指定
+     * 录制内容包含姓名、课程等个人信息，请勿公开
+     */
+    public static final Path CAPTURE_DIR = System.getProperty("autofiller.capture") == null
+            ? null : Path.of(System.getProperty("autofiller.capture"));
+
+    // ==================== 作答策略配置 ====================
+
+    /**
+     * 作答策略规则文件（null 表示所有题目选 OPTION_VERY_SATISFIED、评语为 DEFAULT_COMMENT）
+     * 可按题号、按教师 / 课程 / 单位指定选项、比例分布与轮换评语，格式见 AnswerPolicy；
+     * 可通过 -Dautofiller.answerPolicy=... 指定，启动时编译，格式错误时程序直接退出
+     */
+    public static final Path ANSWER_POLICY_FILE = System.getProperty("autofiller.answerPolicy") == null
+            ? null : Path.of(System.getProperty("autofiller.answerPolicy"));
 }
\ No newline at end of file
@@ -1,19 +1,14 @@
 package com.github.existed_name.courseevaluationautofiller.core;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
 
@@ -30,19 +25,55 @@ import static com.github.existed_name.courseevaluationautofiller.config.SystemCo
  */
 public class BrowserManager {
     
-    private WebDriver driver;
+    /** volatile：会话被取消时由其他线程调用 quit() */
+    private volatile WebDriver driver;
     private WebDriverWait wait;
+    private PageReadiness readiness;
+    private RacingLocator racer;
+    /** 精简模式的资源拦截器（未开启时为 null） */
+    private NetworkInterceptor interceptor;
+    
+    /** Edge 用户数据目录（null 表示当前系统用户的默认目录） */
+    private final String userDataDir;
+    /** Edge 配置文件名 */
+    private final String profileDirectory;
+    /** 是否独占本机 Edge（独占时启动前可强制结束所有 Edge 进程） */
+    private final boolean exclusive;
+    
+    /**
+     * 单账号模式：使用当前系统用户的 Edge 数据目录与 EDGE_PROFILE
+     */
+    public BrowserManager() {
+        this(null, EDGE_PROFILE, true);
+    }
+    
+    /**
+     * 多账号模式：使用指定的数据目录与配置文件，不结束其他 Edge 进程（避免影响同时运行的其他账号）
+     * 
+     * @param userDataDir Edge 用户数据目录（每个账号须独立，Edge 不允许多个进程同时使用同一目录）
+     * @param profileDirectory 配置文件名，如 Default、Profile 1
+     */
+    public BrowserManager(String userDataDir, String profileDirectory) {
+        this(userDataDir, profileDirectory, false);
+    }
+    
+    private BrowserManager(String userDataDir, String profileDirectory, boolean exclusive) {
+        this.userDataDir = userDataDir;
+        this.profileDirectory = profileDirectory;
+        this.exclusive = exclusive;
+    }
     
     /**
      * 初始化环境
      * 包含：进程清理 → 驱动配置 → 浏览器启动
      */
-    public void initEnvironment() throws IOException, InterruptedException {
+    public void initEnvironment() throws IOException {
         System.out.println("🚀 开始初始化自动化环境...");
         
-        if (FORCE_KILL_EDGE_PROCESS) {
+        if (FORCE_KILL_EDGE_PROCESS && exclusive) {
             killEdgeProcesses();
-            Thread.sleep(2000); // 等待进程完全释放
+            // 等待进程完全释放（原固定等待 2 秒）
+            PageReadiness.awaitProcessesExit("Edge进程退出", 2000, "msedge.exe", "msedgedriver.exe");
         }
         
         setupDriver();
@@ -57,11 +88,15 @@ public class BrowserManager {
     private void killEdgeProcesses() throws IOException {
         System.out.println("   [系统] 正在清理 Edge 进程...");
         try {
-            Runtime.getRuntime().exec("taskkill /F /IM msedge.exe");
-            Runtime.getRuntime().exec("taskkill /F /IM msedgedriver.exe");
+            Process edge = Runtime.getRuntime().exec("taskkill /F /IM msedge.exe");
+            Process edgeDriver = Runtime.getRuntime().exec("taskkill /F /IM msedgedriver.exe");
+            edge.waitFor();
+            edgeDriver.waitFor();
             System.out.println("   [系统] 进程清理完成");
         } catch (IOException e) {
             System.err.println("   [警告] 进程清理失败: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -75,22 +110,12 @@ public class BrowserManager {
     }
 
     /**
-     * 从 resources 读取 msedgedriver.exe 临时拿出来
+     * 从 resources 读取 msedgedriver.exe，解压到持久缓存目录（按内容指纹复用，不再每次写临时文件）
      *
-     * @return 临时创建的 EdgeDriver 的绝对路径
+     * @return 缓存中 EdgeDriver 的绝对路径
      */
     private String loadEdgeDriverPath() throws IOException{
-        // 1. 获取 JAR 内部的资源流
-        InputStream inputStream = BrowserManager.class.getResourceAsStream( "/msedgedriver.exe" );
-
-        // 2. 在系统临时目录下创建一个临时文件
-        File tempDriver = File.createTempFile("msedgedriver", ".exe");
-        tempDriver.deleteOnExit(); // 程序退出时自动删除
-
-        // 3. 将资源流拷贝到临时文件
-        Files.copy(inputStream, tempDriver.toPath(), StandardCopyOption.REPLACE_EXISTING);
-
-        return tempDriver.getAbsolutePath();
+        return DriverCache.resolve( EDGE_DRIVER_RESOURCE ).toAbsolutePath().toString();
     }
     
     /**
@@ -109,20 +134,25 @@ public class BrowserManager {
         options.addArguments("--remote-allow-origins=*");
         
         // 复用用户配置（Cookie、缓存、登录状态）
-        options.addArguments("user-data-dir=" + loadUserDataDir());
-        options.addArguments("profile-directory=" + EDGE_PROFILE);
+        options.addArguments("user-data-dir=" + (userDataDir != null ? userDataDir : loadUserDataDir()));
+        options.addArguments("profile-directory=" + profileDirectory);
         
         // 稳定性配置
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         
+        // 页面加载策略（EAGER / NONE 时由各导航的 PageExpectation 决定何时继续）
+        options.setPageLoadStrategy(PAGE_LOAD_STRATEGY);
+        
         this.driver = new EdgeDriver(options);
+        this.readiness = new PageReadiness(driver);
+        this.racer = new RacingLocator(driver);
         
         // 设置等待策略
         driver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT_TIMEOUT);
         this.wait = new WebDriverWait(driver, EXPLICIT_WAIT_TIMEOUT);
 
-        System.out.println("   [配置] 浏览器已启动(配置: " + EDGE_PROFILE + ")");
+        System.out.println("   [配置] 浏览器已启动(配置: " + profileDirectory + "，页面加载策略: " + PAGE_LOAD_STRATEGY + ")");
     }
 
     /**
@@ -143,11 +173,12 @@ public class BrowserManager {
     /**
      * 导航至目标页面
      */
-    public void navigateToTarget() throws InterruptedException {
+    public void navigateToTarget() {
         System.out.println("🌐 正在访问目标页面...");
         driver.get(TARGET_URL);
         
-        Thread.sleep(INITIAL_LOAD_DELAY); // 仅在启动时使用一次
+        // 等待登录标识或登录页特征出现（原固定等待 INITIAL_LOAD_DELAY，之后为等待网络与 DOM 静默）
+        readiness.awaitPage(PageExpectation.HOME);
         
         System.out.println("   [信息] 当前页面: " + driver.getTitle());
         System.out.println("   [信息] URL: " + driver.getCurrentUrl());
@@ -160,32 +191,29 @@ public class BrowserManager {
     public boolean verifyLoginStatus() {
         System.out.println("🔍 正在验证登录状态...");
         
+        // 登录标识与登录页特征放在同一组并行等待，共用一个超时：
+        // 已登录时任一登录标识出现即返回，未登录时登录页特征出现即返回，不再逐个方案等满超时
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        List<String> successXPaths = registry.order(LocatorRegistry.LOGIN_SUCCESS, LOGIN_SUCCESS_INDICATORS);
+        List<String> candidates = new ArrayList<>(successXPaths);
+        candidates.addAll(List.of(LOGIN_PAGE_INDICATORS));
+
+        Optional<RacingLocator.Match> match = racer.first(candidates, EXPLICIT_WAIT_TIMEOUT, true);
+        boolean isLoggedIn = match.isPresent() && match.get().index() < successXPaths.size();
+
         // 策略1：检查登录成功标识
-        for (String xpath : LOGIN_SUCCESS_INDICATORS) {
-            try {
-                WebElement element = wait.until(
-                    ExpectedConditions.presenceOfElementLocated(By.xpath(xpath))
-                );
-                if (element.isDisplayed()) {
-                    System.out.println("   [成功] 检测到登录标识: " + xpath);
-                    System.out.println("✅ 登录状态验证通过\n");
-                    return true;
-                }
-            } catch (Exception e) {
-                continue;
-            }
+        if (isLoggedIn) {
+            String xpath = match.get().xpath();
+            registry.recordSuccess(LocatorRegistry.LOGIN_SUCCESS, xpath);
+            System.out.println("   [成功] 检测到登录标识: " + xpath);
+            System.out.println("✅ 登录状态验证通过\n");
+            return true;
         }
-        
+        successXPaths.forEach(xpath -> registry.recordFailure(LocatorRegistry.LOGIN_SUCCESS, xpath));
+
         // 策略2：检查是否在登录页
-        boolean isOnLoginPage = Arrays.stream(LOGIN_PAGE_INDICATORS)
-                .anyMatch(xpath -> {
-                    try {
-                        return driver.findElement(By.xpath(xpath)).isDisplayed();
-                    } catch (Exception e) {
-                        return false;
-                    }
-                });
-        
+        boolean isOnLoginPage = match.isPresent();
+
         if (isOnLoginPage) {
             System.err.println("   [失败] 检测到登录页面，Cookie可能已过期");
         } else {
@@ -207,6 +235,25 @@ public class BrowserManager {
         System.err.println("═══════════════════════════════════════\n");
     }
     
+    /**
+     * 开启精简模式（按 LEAN_MODE；登录验证通过后调用，登录页的验证码等图片不受影响）
+     */
+    public void enableLeanMode() {
+        if (interceptor == null) {
+            interceptor = NetworkInterceptor.attach(getDriver(), LEAN_MODE);
+        }
+    }
+    
+    /**
+     * 关闭精简模式（需要用户在浏览器中手动重新登录时调用）
+     */
+    public void disableLeanMode() {
+        if (interceptor != null) {
+            interceptor.detach();
+            interceptor = null;
+        }
+    }
+    
     /**
      * 资源清理
      */
@@ -214,18 +261,30 @@ public class BrowserManager {
         if (driver == null) return;
         
         if (AUTO_CLOSE_BROWSER) {
-            System.out.println("🔒 正在关闭浏览器...");
-            try {
-                driver.quit();
-                System.out.println("✅ 浏览器已关闭");
-            } catch (Exception e) {
-                System.err.println("⚠️ 关闭失败: " + e.getMessage());
-            }
+            quit();
         } else {
             System.out.println("🔓 浏览器保持开启（手动关闭或设置 AUTO_CLOSE_BROWSER=true）");
         }
     }
     
+    /**
+     * 关闭浏览器（不受 AUTO_CLOSE_BROWSER 影响，多账号模式下每个账号结束后调用）
+     */
+    public void quit() {
+        // 取消会话时可能由其他线程先关闭，只关闭一次
+        WebDriver current = driver;
+        if (current == null) return;
+        driver = null;
+        
+        System.out.println("🔒 正在关闭浏览器...");
+        try {
+            current.quit();
+            System.out.println("✅ 浏览器已关闭");
+        } catch (Exception e) {
+            System.err.println("⚠️ 关闭失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取 WebDriver 实例
      */
@@ -1,16 +1,26 @@
 package com.github.existed_name.courseevaluationautofiller.core;
 
+import com.github.existed_name.courseevaluationautofiller.config.ExtractionMode;
+import com.github.existed_name.courseevaluationautofiller.config.LookupIntent;
 import com.github.existed_name.courseevaluationautofiller.config.SystemConfig;
+import com.github.existed_name.courseevaluationautofiller.log.Log;
 import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.parser.EvaluationListParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 
 /**
@@ -26,12 +36,72 @@ import java.util.List;
  */
 public class DataExtractor {
 
+    /**
+     * 整表快照脚本
+     * arguments: [表格元素, 行XPath, 6个单元格XPath, 按钮XPath备用数组]
+     * 返回每行 {index, department, courseTeacher, credits, weeks, button, href, buttonRule, visible}
+     */
+    private static final String SNAPSHOT_SCRIPT = """
+            var table = arguments[0], rowXPath = arguments[1], cellXPaths = arguments[2], buttonXPaths = arguments[3];
+            function all(xpath, context) {
+                var result = document.evaluate(xpath, context, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                var nodes = [];
+                for (var i = 0; i < result.snapshotLength; i++) nodes.push(result.snapshotItem(i));
+                return nodes;
+            }
+            function first(xpath, context) {
+                return document.evaluate(xpath, context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+            }
+            function text(node) {
+                return node ? (node.innerText || node.textContent || '').trim() : null;
+            }
+            function visible(el) {
+                if (!el) return false;
+                var style = window.getComputedStyle(el);
+                return style.display !== 'none' && style.visibility !== 'hidden'
+                    && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);
+            }
+            return all(rowXPath, table).map(function (row) {
+                var cells = cellXPaths.map(function (xpath) { return first(xpath, row); });
+                var button = null, rule = null;
+                for (var i = 0; cells[5] && !button && i < buttonXPaths.length; i++) {
+                    button = first(buttonXPaths[i], cells[5]);
+                    if (button) rule = i;
+                }
+                return {
+                    index: text(cells[0]),
+                    department: text(cells[1]),
+                    courseTeacher: text(cells[2]),
+                    credits: text(cells[3]),
+                    weeks: text(cells[4]),
+                    button: button,
+                    href: button ? (button.href || button.getAttribute('href')) : null,
+                    buttonRule: rule,
+                    visible: visible(button)
+                };
+            });
+            """;
+
+    /**
+     * 页面中是否还有指向该问卷的链接
+     * arguments: [问卷链接（绝对地址，与快照脚本中 button.href 一致）]
+     */
+    private static final String HAS_LINK_SCRIPT = """
+            var href = arguments[0], links = document.links;
+            for (var i = 0; i < links.length; i++) {
+                if (links[i].href === href) return true;
+            }
+            return false;
+            """;
+
     private final WebDriver driver;
     private final WebDriverWait wait;
+    private final RacingLocator racer;
 
     public DataExtractor(WebDriver driver, WebDriverWait wait) {
         this.driver = driver;
         this.wait = wait;
+        this.racer = new RacingLocator(driver);
     }
 
     /**
@@ -40,8 +110,31 @@ public class DataExtractor {
      * @return 待评价课程列表（如果全部完成则返回空列表）
      */
     public List< CourseEvaluation > extractPendingCourses() {
+        return extractPendingCourses(SystemConfig.EXTRACTION_MODE);
+    }
+
+    /**
+     * 按指定提取方式提取所有待评价的课程（供基准测试对比各提取方式）
+     *
+     * @param mode 提取方式
+     * @return 待评价课程列表（如果全部完成则返回空列表）
+     */
+    public List< CourseEvaluation > extractPendingCourses(ExtractionMode mode) {
         System.out.println("=== 开始解析评价列表 ===");
 
+        if (mode == ExtractionMode.PAGE_SOURCE) {
+            try {
+                // 整页一次取回，完成提示与表格都在 JVM 内判断
+                List<CourseEvaluation> courses = extractByPageSource();
+                printExtractionSummary(courses);
+                return courses;
+            } catch (Exception e) {
+                System.err.println("✗ 页面源码解析失败: " + e.getMessage());
+                printDebugInfo();
+                throw new RuntimeException("无法提取课程列表", e);
+            }
+        }
+
         try {
             // 🔑 新增：先检查是否已完成所有评价
             if (isAllCompleted()) {
@@ -53,31 +146,10 @@ public class DataExtractor {
             WebElement table = locateEvaluationTable();
             System.out.println("✓ 成功定位到评价表格");
 
-            // 步骤2：提取所有行
-            List<WebElement> rows = table.findElements(By.xpath( SystemConfig.XPATH_TABLE_ROWS));
-            System.out.printf("✓ 表格共有 %d 行数据%n", rows.size());
-
-            // 🔑 新增：如果表格存在但无数据行，也认为是完成状态
-            if (rows.isEmpty()) {
-                System.out.println("✓ 表格为空，所有课程已评价完成");
-                return new ArrayList<>();
-            }
-
-            // 步骤3：解析每一行
-            List<CourseEvaluation> courses = new ArrayList<>();
-
-            for (int i = 0; i < rows.size(); i++) {
-                WebElement row = rows.get(i);
-                try {
-                    CourseEvaluation course = parseRow(row, i + 1);
-                    if (course.needsEvaluation()) {
-                        courses.add(course);
-                        System.out.printf("  [%d] %s%n", i + 1, course.getFullInfo());
-                    }
-                } catch (Exception e) {
-                    System.err.printf("⚠ 第 %d 行解析失败: %s%n", i + 1, e.getMessage());
-                }
-            }
+            // 步骤2~3：提取并解析所有行
+            List<CourseEvaluation> courses = mode == ExtractionMode.SCRIPT
+                    ? extractByScript(table)
+                    : extractByElements(table);
 
             // 步骤4：输出统计信息
             printExtractionSummary(courses);
@@ -98,24 +170,187 @@ public class DataExtractor {
         }
     }
 
+    /**
+     * 逐行逐列查找元素提取课程（每行 6~10 次 WebDriver 往返）
+     */
+    private List<CourseEvaluation> extractByElements(WebElement table) {
+        List<WebElement> rows = ElementLookup.findAll(table, By.xpath(SystemConfig.XPATH_TABLE_ROWS), LookupIntent.PROBE);
+        System.out.printf("✓ 表格共有 %d 行数据%n", rows.size());
+
+        // 🔑 新增：如果表格存在但无数据行，也认为是完成状态
+        if (rows.isEmpty()) {
+            System.out.println("✓ 表格为空，所有课程已评价完成");
+            return new ArrayList<>();
+        }
+
+        List<CourseEvaluation> courses = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            WebElement row = rows.get(i);
+            try {
+                CourseEvaluation course = parseRow(row, i + 1);
+                if (course.needsEvaluation()) {
+                    courses.add(course);
+                    Log.debug("  [%d] %s", i + 1, course.getFullInfo());
+                }
+            } catch (Exception e) {
+                System.err.printf("⚠ 第 %d 行解析失败: %s%n", i + 1, e.getMessage());
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * 一次脚本调用取回整张表格的快照，在 JVM 内构建课程记录
+     * 单元格与按钮的 XPath 与逐元素模式完全相同，按钮可见性也在浏览器端一并判断
+     */
+    @SuppressWarnings("unchecked")
+    private List<CourseEvaluation> extractByScript(WebElement table) {
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        List<String> buttonXPaths = registry.order(LocatorRegistry.EVAL_BUTTON, SystemConfig.XPATH_EVAL_BUTTON);
+        Object payload = ((JavascriptExecutor) driver).executeScript(
+                SNAPSHOT_SCRIPT,
+                table,
+                SystemConfig.XPATH_TABLE_ROWS,
+                List.of(SystemConfig.XPATH_CELL_INDEX,
+                        SystemConfig.XPATH_CELL_DEPARTMENT,
+                        SystemConfig.XPATH_CELL_COURSE_TEACHER,
+                        SystemConfig.XPATH_CELL_CREDITS,
+                        SystemConfig.XPATH_CELL_WEEKS,
+                        SystemConfig.XPATH_CELL_BUTTON),
+                buttonXPaths
+        );
+
+        List<Map<String, Object>> rows = payload instanceof List
+                ? (List<Map<String, Object>>) payload
+                : List.of();
+        System.out.printf("✓ 表格共有 %d 行数据%n", rows.size());
+
+        if (rows.isEmpty()) {
+            System.out.println("✓ 表格为空，所有课程已评价完成");
+            return new ArrayList<>();
+        }
+
+        // 按首个找到按钮的行记录命中的方案（整表通常使用同一种按钮）
+        rows.stream()
+                .map(row -> row.get("buttonRule"))
+                .filter(Number.class::isInstance)
+                .findFirst()
+                .ifPresent(rule -> registry.recordSuccess(
+                        LocatorRegistry.EVAL_BUTTON, buttonXPaths.get(((Number) rule).intValue())));
+
+        List<CourseEvaluation> courses = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            if (!Boolean.TRUE.equals(row.get("visible"))) {
+                continue;
+            }
+            CourseEvaluation course = buildCourse(
+                    textOrDefault(row.get("index"), String.valueOf(i + 1)),
+                    textOrDefault(row.get("department"), "未知单位"),
+                    textOrDefault(row.get("courseTeacher"), ""),
+                    textOrDefault(row.get("credits"), "0.00"),
+                    textOrDefault(row.get("weeks"), "未知"),
+                    (WebElement) row.get("button"),
+                    (String) row.get("href")
+            );
+            courses.add(course);
+            Log.debug("  [%d] %s", i + 1, course.getFullInfo());
+        }
+        return courses;
+    }
+
+    /**
+     * 一次 getPageSource 取回整页 HTML，在 JVM 内解析
+     * 快照只带按钮链接（evalHref），不带页面元素；无法判断样式可见性，有链接即视为待评价
+     */
+    private List<CourseEvaluation> extractByPageSource() {
+        Document document = Jsoup.parse(driver.getPageSource(), driver.getCurrentUrl());
+
+        if (EvaluationListParser.isAllCompleted(document)) {
+            System.out.println("✓ 检测到完成提示，所有课程已评价完成");
+            return new ArrayList<>();
+        }
+
+        List<CourseEvaluation> courses = EvaluationListParser.parsePendingCourses(document);
+        System.out.printf("✓ 页面源码解析完成，待评价 %d 门%n", courses.size());
+        for (CourseEvaluation course : courses) {
+            Log.debug("  [%s] %s", course.index(), course.getFullInfo());
+        }
+        return courses;
+    }
+
+    /**
+     * 快照值为空（单元格不存在）时使用默认值
+     */
+    private String textOrDefault(Object value, String defaultValue) {
+        return value == null ? defaultValue : value.toString().trim();
+    }
+
+    /**
+     * 提交后的轻量核对：列表页重新出现后，只探测这一门课程的评价按钮是否还在
+     * 一次脚本调用等待列表页（表格或完成提示）出现，再一次脚本调用探测该课程的问卷链接（无链接时探测该行按钮），不重新解析整张表格
+     *
+     * @param course 刚提交的课程
+     * @return 列表页已显示且该课程已无评价按钮（或出现全部完成提示）时返回 true；
+     *         列表页未能在显式等待内出现、或按钮仍在时返回 false
+     */
+    public boolean isRowGone(CourseEvaluation course) {
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        List<String> completed = registry.order(LocatorRegistry.ALL_COMPLETED, SystemConfig.XPATH_ALL_COMPLETED_INDICATORS);
+        List<String> listPage = new ArrayList<>(completed);
+        listPage.addAll(registry.order(LocatorRegistry.EVALUATION_TABLE, SystemConfig.XPATH_EVALUATION_TABLE));
+
+        Optional<RacingLocator.Match> page = racer.first(listPage, SystemConfig.EXPLICIT_WAIT_TIMEOUT, false);
+        if (page.isEmpty()) {
+            return false;
+        }
+        if (page.get().index() < completed.size()) {
+            return true;
+        }
+
+        // 有问卷链接时按链接查找（document.links 直接比较，不按文本扫描整页）
+        String href = course.directHref();
+        if (href != null) {
+            try {
+                return !Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(HAS_LINK_SCRIPT, href));
+            } catch (WebDriverException e) {
+                // 脚本执行失败时退回按行定位
+            }
+        }
+
+        // 行内按钮 XPath 以 "." 开头（相对按钮列），拼接到该行的按钮列之后变为整页 XPath
+        String buttonCell = rowXPath(course) + SystemConfig.XPATH_CELL_BUTTON.substring(1);
+        List<String> buttons = registry.order(LocatorRegistry.EVAL_BUTTON, SystemConfig.XPATH_EVAL_BUTTON).stream()
+                .map(xpath -> buttonCell + xpath.substring(1))
+                .toList();
+        return racer.first(buttons, Duration.ZERO, true).isEmpty();
+    }
+
+    /**
+     * 按课程名与教师名定位所在行的 XPath（序号会随列表变化，不参与定位）
+     */
+    public static String rowXPath(CourseEvaluation course) {
+        return String.format("//tr[contains(., '%s') and contains(., '%s')]",
+                course.courseName(), course.teacherName());
+    }
+
     /**
      * 🔑 新增方法：检查是否已完成所有评价
      * 检测特征：出现"太棒了"提示框
      */
     private boolean isAllCompleted() {
         try {
-            // 检查完成提示元素是否存在
-            for (String xpath : SystemConfig.XPATH_ALL_COMPLETED_INDICATORS) {
-                try {
-                    WebElement completionNotice = driver.findElement(By.xpath(xpath));
-                    if (completionNotice.isDisplayed()) {
+            // 一次脚本调用检查所有完成提示方案（不受隐式等待影响；未完成时都不命中属于正常情况，只记录命中）
+            LocatorRegistry registry = LocatorRegistry.getInstance();
+            List<String> xpaths = registry.order(LocatorRegistry.ALL_COMPLETED, SystemConfig.XPATH_ALL_COMPLETED_INDICATORS);
+            return racer.first(xpaths, Duration.ZERO, true)
+                    .map(match -> {
+                        registry.recordSuccess(LocatorRegistry.ALL_COMPLETED, match.xpath());
                         return true;
-                    }
-                } catch (NoSuchElementException e) {
-                    continue;
-                }
-            }
-            return false;
+                    })
+                    .orElse(false);
         } catch (Exception e) {
             return false;
         }
@@ -128,14 +363,17 @@ public class DataExtractor {
     private WebElement locateEvaluationTable() {
         System.out.println("正在定位评价表格...");
 
-        for (String xpath : SystemConfig.XPATH_EVALUATION_TABLE) {
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        for (String xpath : registry.order(LocatorRegistry.EVALUATION_TABLE, SystemConfig.XPATH_EVALUATION_TABLE)) {
             try {
                 WebElement table = wait.until(
                         ExpectedConditions.presenceOfElementLocated(By.xpath(xpath))
                 );
+                registry.recordSuccess(LocatorRegistry.EVALUATION_TABLE, xpath);
                 System.out.println("   [成功] 使用XPath: " + xpath);
                 return table;
             } catch (Exception e) {
+                registry.recordFailure(LocatorRegistry.EVALUATION_TABLE, xpath);
                 System.out.println("   [跳过] XPath无效: " + xpath);
             }
         }
@@ -157,9 +395,6 @@ public class DataExtractor {
 
             // 提取课程和教师（第3列，格式："课程 - 教师"）
             String courseTeacherText = extractCellText(row, SystemConfig.XPATH_CELL_COURSE_TEACHER, "");
-            String[] parts = courseTeacherText.split(" - ");
-            String courseName = parts.length > 0 ? parts[0].trim() : "未知课程";
-            String teacherName = parts.length > 1 ? parts[1].trim() : "未知教师";
 
             // 提取学分（第4列）
             String credits = extractCellText(row, SystemConfig.XPATH_CELL_CREDITS, "0.00");
@@ -170,25 +405,36 @@ public class DataExtractor {
             // 提取评价按钮（第6列）
             WebElement evalButton = extractEvalButton(row);
 
-            return new CourseEvaluation(
-                    index, department, courseName, teacherName,
-                    credits, weeks, evalButton
-            );
+            return buildCourse(index, department, courseTeacherText, credits, weeks, evalButton, null);
 
         } catch (Exception e) {
             throw new RuntimeException("行解析失败: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 由各列文本构建课程记录
+     * 第3列格式为"课程 - 教师"，在此拆分
+     */
+    private CourseEvaluation buildCourse(String index, String department, String courseTeacherText,
+                                         String credits, String weeks, WebElement evalButton, String evalHref) {
+        String[] parts = courseTeacherText.split(" - ");
+        String courseName = parts.length > 0 ? parts[0].trim() : "未知课程";
+        String teacherName = parts.length > 1 ? parts[1].trim() : "未知教师";
+
+        return new CourseEvaluation(
+                index, department, courseName, teacherName,
+                credits, weeks, evalButton, evalHref
+        );
+    }
+
     /**
      * 提取单元格文本
      */
     private String extractCellText(WebElement row, String xpath, String defaultValue) {
-        try {
-            return row.findElement(By.xpath(xpath)).getText().trim();
-        } catch (NoSuchElementException e) {
-            return defaultValue;
-        }
+        return ElementLookup.find(row, By.xpath(xpath), LookupIntent.PROBE)
+                .map(cell -> cell.getText().trim())
+                .orElse(defaultValue);
     }
 
     /**
@@ -196,26 +442,26 @@ public class DataExtractor {
      * 先定位按钮列，再在列内查找按钮
      */
     private WebElement extractEvalButton(WebElement row) {
-        try {
-            // 先定位第6列（按钮列）
-            WebElement buttonCell = row.findElement(By.xpath(SystemConfig.XPATH_CELL_BUTTON));
-
-            // 在按钮列内尝试多种XPath
-            for (String xpath : SystemConfig.XPATH_EVAL_BUTTON) {
-                try {
-                    return buttonCell.findElement(By.xpath(xpath));
-                } catch (NoSuchElementException e) {
-                    continue;
-                }
-            }
-
-            System.err.println("⚠ 未找到评价按钮");
-            return null;
-
-        } catch (NoSuchElementException e) {
+        // 先定位第6列（按钮列）
+        Optional<WebElement> buttonCell = ElementLookup.find(row, By.xpath(SystemConfig.XPATH_CELL_BUTTON), LookupIntent.PROBE);
+        if (buttonCell.isEmpty()) {
             System.err.println("⚠ 未找到按钮列");
             return null;
         }
+
+        // 在按钮列内尝试多种XPath（已完成的课程没有按钮，落空属于正常情况，只探测不等待）
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        for (String xpath : registry.order(LocatorRegistry.EVAL_BUTTON, SystemConfig.XPATH_EVAL_BUTTON)) {
+            Optional<WebElement> button = ElementLookup.find(buttonCell.get(), By.xpath(xpath), LookupIntent.PROBE);
+            if (button.isPresent()) {
+                registry.recordSuccess(LocatorRegistry.EVAL_BUTTON, xpath);
+                return button.get();
+            }
+            registry.recordFailure(LocatorRegistry.EVAL_BUTTON, xpath);
+        }
+
+        System.err.println("⚠ 未找到评价按钮");
+        return null;
     }
 
     /**
@@ -0,0 +1,204 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 内置驱动缓存
+ * 把 JAR 中的 msedgedriver.exe 解压到 APP_DATA_DIR/driver 下持久保存，多次运行复用同一份文件
+ *
+ * <pre>
+ * 1. 缓存键 = JAR 条目记录的大小 + CRC32（读取 JAR 目录即可得到，无需读取 15MB 内容）
+ * 2. 缓存文件存在且大小一致 → 直接使用
+ * 3. 否则加文件锁 → 写入临时文件 → 原子重命名为正式文件（多个进程同时启动也只有一个负责写入）
+ * 4. 清理旧版本驱动和崩溃遗留的临时文件
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class DriverCache {
+
+    /** 临时文件超过该时长仍未被重命名，视为崩溃遗留 */
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+
+    private DriverCache() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 获取缓存中的驱动路径，必要时从 JAR 中解压
+     *
+     * 同一进程内多个浏览器同时启动时串行执行（文件锁只在进程之间互斥，进程内重复加锁会抛异常）
+     *
+     * @param resourceName 资源路径，如 /msedgedriver.exe
+     * @return 驱动可执行文件的绝对路径
+     */
+    public static synchronized Path resolve(String resourceName) throws IOException {
+        URL resource = DriverCache.class.getResource(resourceName);
+        if (resource == null) {
+            throw new IOException("未找到内置驱动资源: " + resourceName);
+        }
+
+        Fingerprint fingerprint = fingerprint(resource);
+        Path cacheDir = APP_DATA_DIR.resolve("driver");
+        String baseName = baseName(resourceName);
+        Path target = cacheDir.resolve(baseName + "-" + fingerprint.key() + extension(resourceName));
+
+        // 快速路径：无需加锁，只比较文件大小
+        if (isValid(target, fingerprint.size())) {
+            System.out.println("   [缓存] 复用已缓存驱动");
+            return target;
+        }
+
+        Files.createDirectories(cacheDir);
+        try (FileChannel lockChannel = FileChannel.open(cacheDir.resolve(".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = lockChannel.lock();
+            try {
+                // 等锁期间可能已有其他进程写好
+                if (!isValid(target, fingerprint.size())) {
+                    System.out.println("   [缓存] 首次运行或驱动已更新，正在解压驱动...");
+                    extract(resource, target, fingerprint.size());
+                }
+                cleanup(cacheDir, baseName, target);
+            } finally {
+                lock.release();
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 写入临时文件后原子重命名，保证其他进程看到的要么是完整文件，要么不存在
+     */
+    private static void extract(URL resource, Path target, long expectedSize) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), baseName(target.getFileName().toString()) + "-", ".tmp");
+        try {
+            try (InputStream in = openStream(resource)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Files.size(temp) != expectedSize) {
+                throw new IOException("驱动解压不完整: " + Files.size(temp) + " / " + expectedSize);
+            }
+            temp.toFile().setExecutable(true);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 删除旧版本驱动与过期临时文件（正在被其他进程使用的文件删除失败时忽略）
+     */
+    private static void cleanup(Path cacheDir, String baseName, Path current) {
+        Instant staleBefore = Instant.now().minus(STALE_TEMP_AGE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, baseName + "-*")) {
+            for (Path file : files) {
+                if (file.equals(current)) {
+                    continue;
+                }
+                try {
+                    boolean isTemp = file.getFileName().toString().endsWith(".tmp");
+                    if (!isTemp || Files.getLastModifiedTime(file).toInstant().isBefore(staleBefore)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException ignored) {}
+            }
+        } catch (IOException ignored) {}
+    }
+
+    private static boolean isValid(Path target, long expectedSize) {
+        try {
+            return Files.isRegularFile(target) && Files.size(target) == expectedSize;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 计算资源指纹
+     * JAR 内：使用条目自带的大小与 CRC32；开发环境（classes 目录）：使用文件大小与修改时间
+     */
+    private static Fingerprint fingerprint(URL resource) throws IOException {
+        if ("jar".equals(resource.getProtocol())) {
+            JarURLConnection connection = (JarURLConnection) resource.openConnection();
+            JarEntry entry = connection.getJarEntry();
+            if (entry.getSize() >= 0 && entry.getCrc() >= 0) {
+                return new Fingerprint(entry.getSize(),
+                        Long.toHexString(entry.getSize()) + "-" + Long.toHexString(entry.getCrc()));
+            }
+        } else if ("file".equals(resource.getProtocol())) {
+            try {
+                Path file = Path.of(resource.toURI());
+                long size = Files.size(file);
+                return new Fingerprint(size,
+                        Long.toHexString(size) + "-" + Long.toHexString(Files.getLastModifiedTime(file).toMillis()));
+            } catch (URISyntaxException e) {
+                throw new IOException("无法解析驱动路径: " + resource, e);
+            }
+        }
+        // 无法获取元数据时退回按内容计算 CRC（仅在非常规打包方式下发生）
+        try (InputStream in = openStream(resource)) {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[64 * 1024];
+            long size = 0;
+            for (int n; (n = in.read(buffer)) > 0; size += n) {
+                crc.update(buffer, 0, n);
+            }
+            return new Fingerprint(size, Long.toHexString(size) + "-" + Long.toHexString(crc.getValue()));
+        }
+    }
+
+    /**
+     * 打开资源流，不使用 URLConnection 缓存（避免 JAR 文件句柄常驻）
+     */
+    private static InputStream openStream(URL resource) throws IOException {
+        URLConnection connection = resource.openConnection();
+        connection.setUseCaches(false);
+        return connection.getInputStream();
+    }
+
+    private static String baseName(String name) {
+        String file = name.substring(name.lastIndexOf('/') + 1);
+        int dot = file.lastIndexOf('.');
+        int dash = file.indexOf('-');
+        int end = dash > 0 ? dash : dot > 0 ? dot : file.length();
+        return file.substring(0, end);
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > name.lastIndexOf('/') ? name.substring(dot) : "";
+    }
+
+    /**
+     * 资源指纹
+     *
+     * @param size 资源大小（字节）
+     * @param key 缓存键
+     */
+    private record Fingerprint(long size, String key) {}
+}
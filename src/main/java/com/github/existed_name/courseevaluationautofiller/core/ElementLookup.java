@@ -0,0 +1,133 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import com.github.existed_name.courseevaluationautofiller.config.LookupIntent;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 按意图分配等待时长的元素查找
+ * 全局隐式等待关闭后，所有 findElement / findElements 都经由此类，按 LookupIntent 决定等多久
+ *
+ * 每种意图累计查找次数、落空次数和落空耗时，运行结束时打印（落空耗时即"找不到"所花的时间）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class ElementLookup {
+
+    private static final Map<LookupIntent, LookupStats> STATS = new EnumMap<>(LookupIntent.class);
+
+    static {
+        for (LookupIntent intent : LookupIntent.values()) {
+            STATS.put(intent, new LookupStats());
+        }
+    }
+
+    private ElementLookup() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 查找单个元素
+     *
+     * @param context 查找范围（driver 或元素）
+     * @param by 定位方式
+     * @param intent 查找意图
+     * @return 找到的元素；REQUIRED 以外的意图找不到时返回 empty
+     * @throws NoSuchElementException REQUIRED 意图超时仍未找到
+     */
+    public static Optional<WebElement> find(SearchContext context, By by, LookupIntent intent) {
+        List<WebElement> elements = findAll(context, by, intent);
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.get(0));
+    }
+
+    /**
+     * 查找必须存在的元素
+     */
+    public static WebElement require(SearchContext context, By by) {
+        return find(context, by, LookupIntent.REQUIRED).orElseThrow();
+    }
+
+    /**
+     * 查找所有匹配元素，至少出现一个或等待上限到达时返回
+     *
+     * @throws NoSuchElementException REQUIRED 意图超时仍一个都没找到
+     */
+    public static List<WebElement> findAll(SearchContext context, By by, LookupIntent intent) {
+        long start = System.nanoTime();
+        List<WebElement> elements = context.findElements(by);
+        if (elements.isEmpty() && !intent.budget().isZero()) {
+            try {
+                elements = new FluentWait<>(context)
+                        .withTimeout(intent.budget())
+                        .pollingEvery(READINESS_POLL_INTERVAL)
+                        .until(c -> {
+                            List<WebElement> found = c.findElements(by);
+                            return found.isEmpty() ? null : found;
+                        });
+            } catch (TimeoutException e) {
+                elements = List.of();
+            }
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        STATS.get(intent).add(elements.isEmpty(), elapsed);
+
+        if (elements.isEmpty() && intent == LookupIntent.REQUIRED) {
+            throw new NoSuchElementException("等待 " + intent.budget().toMillis() + " ms 后仍未找到: " + by);
+        }
+        return elements;
+    }
+
+    /**
+     * 打印各查找意图的次数与落空耗时
+     */
+    public static void printStats() {
+        long total = STATS.values().stream().mapToLong(stats -> stats.count.sum()).sum();
+        if (total == 0) {
+            return;
+        }
+        long missMillis = 0;
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 元素查找统计（查找 / 落空 / 落空耗时）");
+        for (Map.Entry<LookupIntent, LookupStats> entry : STATS.entrySet()) {
+            LookupStats stats = entry.getValue();
+            if (stats.count.sum() == 0) {
+                continue;
+            }
+            missMillis += stats.missMillis.sum();
+            System.out.printf("│ %s: %d 次 / %d 次 / %d ms%n",
+                    entry.getKey(), stats.count.sum(), stats.misses.sum(), stats.missMillis.sum());
+        }
+        System.out.printf("│ 落空查找合计耗时: %.1f 秒%n", missMillis / 1000.0);
+        System.out.println("└─────────────────────────────────");
+    }
+
+    /**
+     * 单个查找意图的累计统计
+     */
+    private static final class LookupStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder missMillis = new LongAdder();
+
+        private void add(boolean miss, long elapsed) {
+            count.increment();
+            if (miss) {
+                misses.increment();
+                missMillis.add(elapsed);
+            }
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.github.existed_name.courseevaluationautofiller.core;
 
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics.Phase;
+import com.github.existed_name.courseevaluationautofiller.model.CourseState;
+import com.github.existed_name.courseevaluationautofiller.policy.AnswerPolicy;
+import com.github.existed_name.courseevaluationautofiller.policy.CourseAnswers;
+import com.github.existed_name.courseevaluationautofiller.portal.PageCapture;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
 
@@ -23,39 +32,118 @@ import static com.github.existed_name.courseevaluationautofiller.config.SystemCo
  */
 public class FormFiller {
     
+    /**
+     * 定位每道题要点击的选项（以下两个脚本共用的开头）
+     * arguments: [选项单元格XPath, 选项CSS, 逐题指定的选项值, 轮换选项序列, ...]
+     * 第 i 题选择的 data-opt 值与 CourseAnswers.option(i) 相同（逐题指定优先，其余按轮换序列），找不到时为 null
+     */
+    private static final String FIND_TARGETS_JS = """
+            var cellXPath = arguments[0], optionCss = arguments[1], explicit = arguments[2], cycle = arguments[3];
+            var cells = document.evaluate(cellXPath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+            var targets = [];
+            for (var i = 0; i < cells.snapshotLength; i++) {
+                var want = i < explicit.length ? explicit[i] : cycle[i % cycle.length];
+                targets.push(Array.prototype.find.call(cells.snapshotItem(i).querySelectorAll(optionCss),
+                    function (o) { return o.getAttribute('data-opt') === want; }) || null);
+            }
+            """;
+    
+    /**
+     * 逐题点击前一次取回所有目标选项（每道题一个元素或 null），省去逐题查找的往返
+     */
+    private static final String RESOLVE_OPTIONS_SCRIPT = FIND_TARGETS_JS + "return targets;";
+    
+    /**
+     * 整份问卷填写脚本
+     * arguments: [选项单元格XPath, 选项CSS, 逐题指定的选项值, 轮换选项序列, 评语框XPath, 评语内容]
+     * 返回 {selected: 每道题是否选中, comment: 评语是否已填写}
+     */
+    private static final String BATCH_FILL_SCRIPT = FIND_TARGETS_JS + """
+            var commentXPath = arguments[4], comment = arguments[5];
+            function first(xpath, context) {
+                return document.evaluate(xpath, context, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+            }
+            function fire(el, type, Ctor) {
+                el.dispatchEvent(new Ctor(type, { bubbles: true, cancelable: true, view: window }));
+            }
+            var selected = [];
+            targets.forEach(function (option) {
+                if (!option) { selected.push(false); return; }
+                try {
+                    ['mouseover', 'mousedown', 'mouseup'].forEach(function (t) { fire(option, t, MouseEvent); });
+                    option.click();
+                    selected.push(true);
+                } catch (e) {
+                    selected.push(false);
+                }
+            });
+            var box = first(commentXPath, document);
+            if (box) {
+                fire(box, 'focus', FocusEvent);
+                box.value = comment;
+                ['keydown', 'keypress', 'input', 'keyup', 'change'].forEach(function (t) { fire(box, t, Event); });
+                fire(box, 'blur', FocusEvent);
+            }
+            return { selected: selected, comment: !!box };
+            """;
+    
     private final WebDriver driver;
     private final WebDriverWait wait;
+    private final PageReadiness readiness;
     
     public FormFiller(WebDriver driver, WebDriverWait wait) {
         this.driver = driver;
         this.wait = wait;
+        this.readiness = new PageReadiness(driver);
     }
     
     /**
-     * 填写问卷并提交
+     * 按默认作答策略填写问卷并提交
      * 
      * @param courseInfo 课程信息（用于日志）
      */
     public void fillAndSubmitQuestionnaire(String courseInfo) {
+        fillAndSubmitQuestionnaire(courseInfo, AnswerPolicy.getInstance().defaults(), state -> {});
+    }
+    
+    /**
+     * 填写问卷并提交，每完成一步回调一次进度（FILLED、SUBMITTED）
+     * 
+     * @param courseInfo 课程信息（用于日志）
+     * @param answers 该课程的作答内容（AnswerPolicy.forCourse）
+     * @param progress 进度回调（用于写入进度日志）
+     */
+    public void fillAndSubmitQuestionnaire(String courseInfo, CourseAnswers answers, Consumer<CourseState> progress) {
+        fillAndSubmit(courseInfo, answers, progress);
+        
+        // 步骤5：等待返回列表页
+        PhaseMetrics.time(Phase.WAIT_FOR_RETURN_TO_LIST, this::waitForReturnToList);
+        
+        System.out.println("   ✓ 问卷提交成功，已返回列表页\n");
+    }
+    
+    /**
+     * 填写问卷并点击提交，但不等待页面返回列表
+     * 供多标签页并发评价使用：提交后立即切换到下一个标签页
+     * 
+     * @param courseInfo 课程信息（用于日志）
+     * @param answers 该课程的作答内容（AnswerPolicy.forCourse）
+     */
+    public void fillAndSubmit(String courseInfo, CourseAnswers answers) {
+        fillAndSubmit(courseInfo, answers, state -> {});
+    }
+    
+    private void fillAndSubmit(String courseInfo, CourseAnswers answers, Consumer<CourseState> progress) {
         System.out.println(">>> 开始填写问卷: " + courseInfo);
         
         try {
-            // 步骤1：等待问卷表格加载
-            waitForQuestionnaireTable();
-            
-            // 步骤2：填写所有单选题（选择"非常满意"）
-            fillAllQuestions();
-            
-            // 步骤3：填写评语
-            fillComment();
+            // 步骤1~3：等待表格、填写单选题和评语
+            fill(USE_SCRIPT_FILL, answers);
+            progress.accept(CourseState.FILLED);
             
             // 步骤4：提交问卷
-            submitQuestionnaire();
-            
-            // 步骤5：等待返回列表页
-            waitForReturnToList();
-            
-            System.out.println("   ✓ 问卷提交成功，已返回列表页\n");
+            PhaseMetrics.time(Phase.SUBMIT_QUESTIONNAIRE, this::submitQuestionnaire);
+            progress.accept(CourseState.SUBMITTED);
             
         } catch (Exception e) {
             System.err.println("   ✗ 问卷填写失败: " + e.getMessage());
@@ -63,6 +151,38 @@ public class FormFiller {
         }
     }
     
+    /**
+     * 按默认作答策略填写问卷但不提交（步骤1~3）
+     * 供基准测试在同一份问卷上对比逐题点击与脚本填写
+     * 
+     * @param scriptFill true 时一次脚本填写全部题目，false 时逐题点击
+     */
+    public void fill(boolean scriptFill) {
+        fill(scriptFill, AnswerPolicy.getInstance().defaults());
+    }
+    
+    /**
+     * 填写问卷但不提交（步骤1~3）
+     * 
+     * @param scriptFill true 时一次脚本填写全部题目，false 时逐题点击
+     * @param answers 该课程的作答内容
+     */
+    public void fill(boolean scriptFill, CourseAnswers answers) {
+        // 步骤1：等待问卷表格加载
+        PhaseMetrics.time(Phase.WAIT_FOR_QUESTIONNAIRE_TABLE, this::waitForQuestionnaireTable);
+        
+        if (scriptFill) {
+            // 步骤2+3：一次脚本填写所有单选题和评语
+            PhaseMetrics.time(Phase.FILL_BY_SCRIPT, () -> fillAllByScript(answers));
+        } else {
+            // 步骤2：按作答策略填写所有单选题
+            PhaseMetrics.time(Phase.FILL_ALL_QUESTIONS, () -> fillAllQuestions(answers));
+            
+            // 步骤3：填写评语
+            PhaseMetrics.time(Phase.FILL_COMMENT, () -> fillComment(answers.comment()));
+        }
+    }
+    
     /**
      * 等待问卷表格加载
      */
@@ -80,51 +200,113 @@ public class FormFiller {
     
     /**
      * 填写所有单选题
-     * 策略：找到所有 class="quota ltr" 的单元格，点击其中的 data-opt="1"
+     * 策略：一次脚本取回所有 class="quota ltr" 单元格中作答策略为第 i 题指定的 data-opt 选项，再逐个点击
      */
-    private void fillAllQuestions() {
+    @SuppressWarnings("unchecked")
+    private void fillAllQuestions(CourseAnswers answers) {
         System.out.println("   [2/4] 开始填写选择题...");
         
         try {
-            // 查找所有选项单元格
-            List<WebElement> optionCells = driver.findElements(
-                By.xpath(XPATH_ALL_OPTION_CELLS)
+            // 一次往返定位所有题目的目标选项（未找到的题目为 null）
+            List<WebElement> options = (List<WebElement>) ((JavascriptExecutor) driver).executeScript(
+                RESOLVE_OPTIONS_SCRIPT,
+                XPATH_ALL_OPTION_CELLS,
+                CSS_OPTION,
+                answers.explicitOptions(),
+                answers.cycleOptions()
             );
             
-            System.out.printf("   发现 %d 道题目%n", optionCells.size());
+            System.out.printf("   发现 %d 道题目%n", options.size());
             
             int successCount = 0;
-            for (int i = 0; i < optionCells.size(); i++) {
-                WebElement cell = optionCells.get(i);
+            for (int i = 0; i < options.size(); i++) {
+                WebElement option = options.get(i);
                 try {
-                    // 在单元格内查找 data-opt="1" 的选项
-                    WebElement option = cell.findElement(
-                        By.xpath(XPATH_OPTION_VERY_SATISFIED)
-                    );
+                    if (option == null) {
+                        throw new NoSuchElementException("未找到选项 " + answers.option(i));
+                    }
                     
                     // 点击选项
                     clickElement(option);
                     successCount++;
                     
-                    // 短暂延迟，让页面响应
-                    Thread.sleep(SHORT_DELAY);
+                    // 等待页面对点击的响应完成（原固定等待 SHORT_DELAY）
+                    readiness.awaitInteractionSettled("选项点击响应", SHORT_DELAY);
                     
                 } catch (Exception e) {
                     System.err.printf("   ⚠ 第 %d 题填写失败: %s%n", i + 1, e.getMessage());
                 }
             }
             
-            System.out.printf("   ✓ 已填写 %d/%d 道题目%n", successCount, optionCells.size());
+            System.out.printf("   ✓ 已填写 %d/%d 道题目%n", successCount, options.size());
             
         } catch (Exception e) {
             throw new RuntimeException("选择题填写失败", e);
         }
     }
     
+    /**
+     * 一次注入脚本填写所有单选题和评语
+     * 选项与评语的事件序列与真实用户操作一致，页面自身的处理函数（高亮选项、启用提交按钮等）照常触发
+     */
+    @SuppressWarnings("unchecked")
+    private void fillAllByScript(CourseAnswers answers) {
+        System.out.println("   [2/4] 脚本填写选择题与评语...");
+        
+        Map<String, Object> result;
+        try {
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                BATCH_FILL_SCRIPT,
+                XPATH_ALL_OPTION_CELLS,
+                CSS_OPTION,
+                answers.explicitOptions(),
+                answers.cycleOptions(),
+                XPATH_COMMENT_TEXTAREA,
+                answers.comment()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("脚本填写失败", e);
+        }
+        
+        boolean[] filled = toBitmap((List<Object>) result.get("selected"));
+        System.out.printf("   发现 %d 道题目%n", filled.length);
+        
+        int successCount = 0;
+        for (int i = 0; i < filled.length; i++) {
+            if (filled[i]) {
+                successCount++;
+            } else {
+                System.err.printf("   ⚠ 第 %d 题填写失败: 未找到选项%n", i + 1);
+            }
+        }
+        System.out.printf("   ✓ 已填写 %d/%d 道题目%n", successCount, filled.length);
+        
+        // 评语框未找到时退回常规填写（带显式等待）
+        if (Boolean.TRUE.equals(result.get("comment"))) {
+            System.out.println("   [3/4] ✓ 评语已填写: \"" + answers.comment() + "\"");
+        } else {
+            fillComment(answers.comment());
+        }
+    }
+    
+    /**
+     * 脚本返回的布尔数组转为逐题成功位图
+     */
+    private boolean[] toBitmap(List<Object> values) {
+        if (values == null) {
+            return new boolean[0];
+        }
+        boolean[] bitmap = new boolean[values.size()];
+        for (int i = 0; i < bitmap.length; i++) {
+            bitmap[i] = Boolean.TRUE.equals(values.get(i));
+        }
+        return bitmap;
+    }
+    
     /**
      * 填写评语文本框
      */
-    private void fillComment() {
+    private void fillComment(String comment) {
         System.out.println("   [3/4] 填写评语...");
         
         try {
@@ -135,9 +317,9 @@ public class FormFiller {
             );
             
             commentBox.clear();
-            commentBox.sendKeys(DEFAULT_COMMENT);
+            commentBox.sendKeys(comment);
             
-            System.out.println("   ✓ 评语已填写: \"" + DEFAULT_COMMENT + "\"");
+            System.out.println("   ✓ 评语已填写: \"" + comment + "\"");
             
         } catch (Exception e) {
             throw new RuntimeException("评语填写失败", e);
@@ -166,6 +348,9 @@ public class FormFiller {
                 );
             }
             
+            // 录制模式下保存提交前的表单内容（供离线回放校验）
+            PageCapture.submission(driver, submitButton);
+            
             // 点击提交按钮
             clickElement(submitButton);
             
@@ -182,24 +367,36 @@ public class FormFiller {
     private void waitForReturnToList() {
         System.out.println("   等待返回列表页...");
         
+        // 列表页 URL，且评价表格或"全部完成"提示出现（最后一门提交后页面只有完成提示）
+        if (!readiness.awaitPage(PageExpectation.EVALUATION_LIST)) {
+            System.err.println("   ⚠ 等待返回列表页超时，继续执行");
+        }
+    }
+    
+    /**
+     * 等待提交被服务器接受（当前标签页离开问卷页，回到列表页URL）
+     * 与 waitForReturnToList 不同，不要求列表表格存在：最后一门提交后页面显示的是完成提示
+     * 
+     * @return 是否在超时前离开了问卷页
+     */
+    public boolean waitForSubmissionAccepted() {
         try {
-            // 等待URL变化（从 evaluateResponse 返回到 evaluate）
-            wait.until(driver -> {
-                String currentUrl = driver.getCurrentUrl().toLowerCase();
-                return currentUrl.contains("evaluate") && 
-                       !currentUrl.contains("evaluateresponse");
-            });
-            
-            // 等待列表表格出现
-            wait.until(ExpectedConditions.presenceOfElementLocated(
-                By.xpath(XPATH_EVALUATION_TABLE[0])
-            ));
-            
+            wait.until(driver -> isBackOnListUrl());
+            return true;
         } catch (Exception e) {
-            System.err.println("   ⚠ 等待返回列表页超时，继续执行");
+            return false;
         }
     }
     
+    /**
+     * 当前URL是否为列表页（包含 evaluate 且不是 evaluateResponse）
+     */
+    private boolean isBackOnListUrl() {
+        String currentUrl = driver.getCurrentUrl().toLowerCase();
+        return currentUrl.contains("evaluate") && 
+               !currentUrl.contains("evaluateresponse");
+    }
+    
     /**
      * 点击元素（带异常处理和JavaScript备用方案）
      */
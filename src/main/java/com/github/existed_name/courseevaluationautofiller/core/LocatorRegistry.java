@@ -0,0 +1,193 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 定位策略注册表
+ * 记录每个逻辑元素（评价菜单、评价表格……）的各个备用 XPath 的命中情况，下次优先尝试上次命中的方案
+ *
+ * <pre>
+ * 排序规则：
+ * 1. 连续失败达到 LOCATOR_DEMOTE_THRESHOLD 次的方案排到最后
+ * 2. 最近一次命中的方案优先
+ * 3. 累计命中次数多的优先
+ * 4. 其余保持 SystemConfig 中的原始顺序
+ * </pre>
+ *
+ * 排名保存在 APP_DATA_DIR/locators.properties，程序退出时写回
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class LocatorRegistry {
+
+    /** 逻辑元素名称 */
+    public static final String EVALUATION_MENU = "evaluationMenu";
+    public static final String EVALUATION_TABLE = "evaluationTable";
+    public static final String EVAL_BUTTON = "evalButton";
+    public static final String LOGIN_SUCCESS = "loginSuccess";
+    public static final String ALL_COMPLETED = "allCompleted";
+
+    private static final Path STORE = APP_DATA_DIR.resolve("locators.properties");
+
+    private static volatile LocatorRegistry instance;
+
+    /** 键：逻辑元素名称 + "|" + XPath */
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private LocatorRegistry() {}
+
+    /**
+     * 获取全局注册表（首次调用时从磁盘加载，并注册退出时保存）
+     */
+    public static LocatorRegistry getInstance() {
+        if (instance == null) {
+            synchronized (LocatorRegistry.class) {
+                if (instance == null) {
+                    LocatorRegistry registry = new LocatorRegistry();
+                    registry.load();
+                    Runtime.getRuntime().addShutdownHook(new Thread(registry::save, "locator-registry-save"));
+                    instance = registry;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 按学习到的排名返回备用方案的尝试顺序
+     *
+     * @param element 逻辑元素名称
+     * @param candidates SystemConfig 中的备用 XPath 数组
+     */
+    public List<String> order(String element, String[] candidates) {
+        List<String> ordered = new ArrayList<>(List.of(candidates));
+        long now = System.currentTimeMillis();
+        ordered.sort(Comparator
+                .comparing((String xpath) -> statsOf(element, xpath).consecutiveFailures >= LOCATOR_DEMOTE_THRESHOLD)
+                .thenComparing(xpath -> now - statsOf(element, xpath).lastHit)
+                .thenComparing(xpath -> -statsOf(element, xpath).hits));
+        return ordered;
+    }
+
+    /**
+     * 记录命中
+     */
+    public void recordSuccess(String element, String xpath) {
+        Stats s = stats.computeIfAbsent(key(element, xpath), k -> new Stats());
+        synchronized (s) {
+            s.hits++;
+            s.consecutiveFailures = 0;
+            s.lastHit = System.currentTimeMillis();
+        }
+        dirty = true;
+    }
+
+    /**
+     * 记录未命中
+     */
+    public void recordFailure(String element, String xpath) {
+        Stats s = stats.computeIfAbsent(key(element, xpath), k -> new Stats());
+        synchronized (s) {
+            s.failures++;
+            s.consecutiveFailures++;
+        }
+        dirty = true;
+    }
+
+    /**
+     * 写回磁盘（无变化时跳过）
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            synchronized (s) {
+                properties.setProperty(entry.getKey(),
+                        s.hits + "," + s.failures + "," + s.consecutiveFailures + "," + s.lastHit);
+            }
+        }
+        try {
+            Files.createDirectories(STORE.getParent());
+            Path temp = Files.createTempFile(STORE.getParent(), "locators-", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Course-Evaluation-AutoFiller locator ranking");
+            }
+            try {
+                Files.move(temp, STORE, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, STORE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("   ⚠ 定位排名保存失败: " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(STORE)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(STORE, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            System.err.println("   ⚠ 定位排名读取失败，使用默认顺序: " + e.getMessage());
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String[] values = properties.getProperty(key).split(",");
+            if (values.length != 4) {
+                continue;
+            }
+            try {
+                Stats s = new Stats();
+                s.hits = Long.parseLong(values[0]);
+                s.failures = Long.parseLong(values[1]);
+                s.consecutiveFailures = Integer.parseInt(values[2]);
+                s.lastHit = Long.parseLong(values[3]);
+                stats.put(key, s);
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    private Stats statsOf(String element, String xpath) {
+        return stats.getOrDefault(key(element, xpath), Stats.EMPTY);
+    }
+
+    private static String key(String element, String xpath) {
+        return element + "|" + xpath;
+    }
+
+    /**
+     * 单个备用方案的命中统计
+     */
+    private static final class Stats {
+        private static final Stats EMPTY = new Stats();
+
+        private long hits;
+        private long failures;
+        private int consecutiveFailures;
+        /** 最近一次命中时间（毫秒时间戳，0 表示从未命中） */
+        private long lastHit;
+    }
+}
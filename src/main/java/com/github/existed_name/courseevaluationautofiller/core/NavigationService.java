@@ -1,5 +1,6 @@
 package com.github.existed_name.courseevaluationautofiller.core;
 
+import com.github.existed_name.courseevaluationautofiller.config.LookupIntent;
 import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -7,7 +8,6 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
-import java.util.Arrays;
 
 import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
 
@@ -25,10 +25,15 @@ public class NavigationService {
     
     private final WebDriver driver;
     private final WebDriverWait wait;
+    private final PageReadiness readiness;
+    
+    /** 评价列表页地址（进入列表后记录，用于直接返回列表；未进入过时为 null） */
+    private String evaluationListUrl;
     
     public NavigationService(WebDriver driver, WebDriverWait wait) {
         this.driver = driver;
         this.wait = wait;
+        this.readiness = new PageReadiness(driver);
     }
     
     /**
@@ -48,6 +53,7 @@ public class NavigationService {
             
             // 步骤2：等待页面跳转
             waitForEvaluationPageLoad();
+            evaluationListUrl = driver.getCurrentUrl();
             
             printCurrentPageInfo();
             System.out.println("=== 导航成功完成 ===\n");
@@ -66,14 +72,17 @@ public class NavigationService {
     private WebElement findEvaluationMenu() {
         System.out.println("正在定位评价菜单...");
         
-        for (String xpath : XPATH_EVALUATION_MENU) {
+        LocatorRegistry registry = LocatorRegistry.getInstance();
+        for (String xpath : registry.order(LocatorRegistry.EVALUATION_MENU, XPATH_EVALUATION_MENU)) {
             try {
                 WebElement element = wait.until(
                     ExpectedConditions.elementToBeClickable(By.xpath(xpath))
                 );
+                registry.recordSuccess(LocatorRegistry.EVALUATION_MENU, xpath);
                 System.out.println("   [成功] 使用XPath: " + xpath);
                 return element;
             } catch (TimeoutException e) {
+                registry.recordFailure(LocatorRegistry.EVALUATION_MENU, xpath);
                 System.out.println("   [跳过] XPath无效: " + xpath);
             }
         }
@@ -82,51 +91,21 @@ public class NavigationService {
     }
     
     /**
-     * 等待评价页面加载完成
+     * 等待评价页面加载完成：列表页 URL，且评价表格或"全部完成"提示出现（后续列表解析所需）
      */
     private void waitForEvaluationPageLoad() {
         System.out.println("正在等待页面跳转...");
         
-        // 方式1：检查URL特征
-        boolean urlMatched = tryWaitForUrl();
-        
-        // 方式2：检查页面特征元素
-        if (!urlMatched) {
-            System.out.println("⚠ URL未包含预期关键字，尝试检测DOM元素...");
-            tryWaitForPageElements();
-        }
-    }
-    
-    /**
-     * 尝试通过URL判断页面跳转
-     */
-    private boolean tryWaitForUrl() {
-        try {
-            wait.until(driver -> {
-                String currentUrl = driver.getCurrentUrl().toLowerCase();
-                return Arrays.stream(EVALUATION_URL_KEYWORDS)
-                        .anyMatch(currentUrl::contains);
-            });
-            System.out.println("✓ 检测到URL变化");
-            return true;
-        } catch (TimeoutException e) {
-            return false;
+        if (readiness.awaitPage(PageExpectation.EVALUATION_LIST)) {
+            System.out.println("✓ 评价列表已就绪");
+            return;
         }
-    }
-    
-    /**
-     * 尝试通过页面元素判断页面跳转
-     */
-    private void tryWaitForPageElements() {
+        
+        // 兜底：表格与完成提示都未出现时，只要页面特征元素存在就交给列表解析处理（其自带等待与调试输出）
         for (String xpath : EVALUATION_PAGE_INDICATORS) {
-            try {
-                wait.until(ExpectedConditions.presenceOfElementLocated(
-                    By.xpath(xpath)
-                ));
-                System.out.println("✓ 检测到页面特征元素");
+            if (ElementLookup.find(driver, By.xpath(xpath), LookupIntent.PROBE).isPresent()) {
+                System.out.println("⚠ 未检测到评价表格，但已进入评价页面");
                 return;
-            } catch (TimeoutException e) {
-                continue;
             }
         }
         throw new TimeoutException("页面加载超时，未检测到预期元素");
@@ -157,34 +136,44 @@ public class NavigationService {
     }
     
     /**
-     * 等待问卷页面加载完成
+     * 按"网上评价"按钮的链接直接打开问卷（不需要列表页中的按钮元素）
+     * 
+     * @param href 问卷链接（CourseEvaluation.directHref()）
+     * @param courseInfo 课程信息（用于日志）
      */
-    private void waitForQuestionnairePageLoad() {
-        // 方式1：检查URL特征
-        boolean urlMatched = false;
+    public void openQuestionnaire(String href, String courseInfo) {
+        System.out.println(">>> 准备进入问卷: " + courseInfo);
+        
         try {
-            wait.until(driver -> {
-                String currentUrl = driver.getCurrentUrl().toLowerCase();
-                return Arrays.stream(QUESTIONNAIRE_URL_KEYWORDS)
-                        .anyMatch(currentUrl::contains);
-            });
-            urlMatched = true;
-        } catch (TimeoutException e) {
-            // URL检查失败，继续尝试元素检查
+            driver.get(href);
+            waitForQuestionnairePageLoad();
+            System.out.println("   ✓ 问卷页面加载完成\n");
+            
+        } catch (Exception e) {
+            System.err.println("   ✗ 进入问卷失败: " + e.getMessage());
+            throw new RuntimeException("无法打开问卷页面", e);
         }
-        
-        // 方式2：检查页面特征元素
-        if (!urlMatched) {
-            for (String xpath : QUESTIONNAIRE_PAGE_INDICATORS) {
-                try {
-                    wait.until(ExpectedConditions.presenceOfElementLocated(
-                        By.xpath(xpath)
-                    ));
-                    return;
-                } catch (TimeoutException e) {
-                    continue;
-                }
-            }
+    }
+    
+    /**
+     * 直接打开评价列表页（代替后退；尚未进入过列表页时从首页菜单重新导航）
+     */
+    public void returnToEvaluationList() {
+        if (evaluationListUrl == null) {
+            navigateToEvaluationPage();
+            return;
+        }
+        driver.get(evaluationListUrl);
+        if (!readiness.awaitPage(PageExpectation.EVALUATION_LIST)) {
+            throw new TimeoutException("评价列表页加载超时");
+        }
+    }
+    
+    /**
+     * 等待问卷页面加载完成：问卷表格 #sheetTable 出现（后续填写所需）
+     */
+    public void waitForQuestionnairePageLoad() {
+        if (!readiness.awaitPage(PageExpectation.QUESTIONNAIRE)) {
             throw new TimeoutException("问卷页面加载超时");
         }
     }
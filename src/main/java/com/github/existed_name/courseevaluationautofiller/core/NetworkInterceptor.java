@@ -0,0 +1,211 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import com.github.existed_name.courseevaluationautofiller.config.LeanMode;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 精简模式：通过 DevTools（CDP）拦截评价流程用不到的资源
+ *
+ * <pre>
+ * BLOCK：Fetch.enable 只暂停匹配的请求（LEAN_BLOCKED_RESOURCE_TYPES 中的资源类型、LEAN_BLOCKED_URL_PATTERNS 中的 URL），
+ * 收到 Fetch.requestPaused 后立即 failRequest；其余请求不经过 Java，照常加载
+ * 页面文档本身永不拦截（URL 模式误配时放行）
+ * MEASURE：只统计，不拦截
+ * 统计：按页面（文档 URL 路径）记录实际加载的请求数与传输字节数（Network.loadingFinished）、被拦截的请求数与类型
+ *       被拦截的请求从未发出，其大小无从得知；节省的字节可用 -Dautofiller.lean=measure 运行一次对比"加载字节"
+ * </pre>
+ *
+ * 只使用不分版本的 Command / Event，不依赖具体 CDP 版本的生成类；浏览器不支持 DevTools 时不开启
+ * 拦截只作用于开启时所在的标签页
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class NetworkInterceptor {
+
+    private static final Map<String, PageStats> STATS = new ConcurrentSkipListMap<>();
+
+    private final DevTools devTools;
+
+    /** 当前页面（最近一次文档请求的 URL 路径），事件线程写、事件线程读 */
+    private volatile String currentPage = "(首页)";
+
+    private NetworkInterceptor(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * 为浏览器当前标签页开启统计与资源拦截
+     *
+     * @param mode MEASURE 只统计，BLOCK 统计并拦截
+     * @return 拦截器；OFF、浏览器不支持 DevTools 或开启失败时返回 null（不影响评价流程）
+     */
+    public static NetworkInterceptor attach(WebDriver driver, LeanMode mode) {
+        if (mode == LeanMode.OFF || !(driver instanceof HasDevTools hasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            NetworkInterceptor interceptor = new NetworkInterceptor(devTools);
+            interceptor.enable(mode == LeanMode.BLOCK);
+            System.out.println(mode == LeanMode.BLOCK
+                    ? "   [精简] 已开启资源拦截: " + String.join(", ", LEAN_BLOCKED_RESOURCE_TYPES)
+                    : "   [精简] 已开启网络统计（不拦截）");
+            return interceptor;
+        } catch (Exception e) {
+            System.err.println("   ⚠ 精简模式开启失败，按常规方式加载页面: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 停止拦截（如需用户在浏览器中手动登录，验证码等图片需要正常显示）
+     */
+    public void detach() {
+        try {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+            devTools.send(new Command<>("Network.disable", Map.of()));
+            devTools.clearListeners();
+        } catch (Exception e) {
+            System.err.println("   ⚠ 关闭资源拦截失败: " + e.getMessage());
+        }
+    }
+
+    private void enable(boolean block) {
+        devTools.addListener(new Event<>("Network.requestWillBeSent", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                this::onRequestWillBeSent);
+        devTools.addListener(new Event<>("Network.loadingFinished", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                this::onLoadingFinished);
+        devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                this::onRequestPaused);
+
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        if (block) {
+            devTools.send(new Command<>("Fetch.enable", Map.of("patterns", blockPatterns())));
+        }
+    }
+
+    /**
+     * Fetch.enable 的拦截规则：每种资源类型、每个 URL 模式各一条，都在请求发出前暂停
+     */
+    private static List<Map<String, Object>> blockPatterns() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : LEAN_BLOCKED_RESOURCE_TYPES) {
+            patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+        }
+        for (String urlPattern : LEAN_BLOCKED_URL_PATTERNS) {
+            patterns.add(Map.of("urlPattern", urlPattern, "requestStage", "Request"));
+        }
+        return patterns;
+    }
+
+    // ==================== 事件处理（DevTools 事件线程） ====================
+
+    private void onRequestWillBeSent(Map<String, Object> params) {
+        if ("Document".equals(params.get("type")) && params.get("request") instanceof Map<?, ?> request) {
+            currentPage = pageOf(String.valueOf(request.get("url")));
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        long bytes = params.get("encodedDataLength") instanceof Number number ? number.longValue() : 0;
+        stats(currentPage).recordLoaded(bytes);
+    }
+
+    private void onRequestPaused(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        String type = String.valueOf(params.get("resourceType"));
+        try {
+            if ("Document".equals(type)) {
+                devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+                return;
+            }
+            devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+            stats(currentPage).recordBlocked(type);
+        } catch (Exception e) {
+            // 页面已跳转导致请求失效时 CDP 返回错误，忽略即可
+        }
+    }
+
+    /**
+     * 页面标识：URL 路径（去掉查询参数，避免每门课程的问卷各占一行）
+     */
+    private static String pageOf(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path == null || path.isEmpty() ? url : path;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    // ==================== 统计 ====================
+
+    private static PageStats stats(String page) {
+        return STATS.computeIfAbsent(page, k -> new PageStats());
+    }
+
+    /**
+     * 打印各页面实际加载与被拦截的请求
+     */
+    public static void printStats() {
+        if (STATS.isEmpty()) {
+            return;
+        }
+        long totalBlocked = 0;
+        long totalBytes = 0;
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 精简模式网络统计（加载请求 / 字节，拦截请求）");
+        for (Map.Entry<String, PageStats> entry : STATS.entrySet()) {
+            PageStats stats = entry.getValue();
+            totalBlocked += stats.blockedRequests.sum();
+            totalBytes += stats.loadedBytes.sum();
+            String byType = stats.blockedByType.entrySet().stream()
+                    .map(type -> type.getKey() + " " + type.getValue().sum())
+                    .collect(Collectors.joining("，"));
+            System.out.printf("│ %s: 加载 %d 个 / %.1f KB，拦截 %d 个%s%n",
+                    entry.getKey(), stats.loadedRequests.sum(), stats.loadedBytes.sum() / 1024.0,
+                    stats.blockedRequests.sum(), byType.isEmpty() ? "" : "（" + byType + "）");
+        }
+        System.out.printf("│ 合计: 加载 %.1f KB，拦截 %d 个请求%n", totalBytes / 1024.0, totalBlocked);
+        System.out.println("└─────────────────────────────────");
+    }
+
+    /**
+     * 单个页面的累计统计
+     */
+    private static final class PageStats {
+        private final LongAdder loadedRequests = new LongAdder();
+        private final LongAdder loadedBytes = new LongAdder();
+        private final LongAdder blockedRequests = new LongAdder();
+        private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+
+        private void recordLoaded(long bytes) {
+            loadedRequests.increment();
+            loadedBytes.add(bytes);
+        }
+
+        private void recordBlocked(String type) {
+            blockedRequests.increment();
+            blockedByType.computeIfAbsent(type, k -> new LongAdder()).increment();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 导航目标页面的就绪条件
+ * 每次导航声明后续步骤真正需要的 DOM 条件，满足即继续，不必等图片、样式等子资源全部加载完
+ *
+ * <pre>
+ * HOME             首页：登录标识或登录页特征出现（后续为登录验证）
+ * EVALUATION_LIST  评价列表：URL 为列表页，且评价表格或"全部完成"提示出现（后续为列表解析）
+ * QUESTIONNAIRE    问卷：#sheetTable 出现（后续为填写）
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum PageExpectation {
+
+    HOME("首页",
+            url -> true,
+            concat(LOGIN_SUCCESS_INDICATORS, LOGIN_PAGE_INDICATORS)),
+
+    EVALUATION_LIST("评价列表",
+            url -> Arrays.stream(EVALUATION_URL_KEYWORDS).anyMatch(url::contains) && !url.contains("evaluateresponse"),
+            concat(XPATH_EVALUATION_TABLE, XPATH_ALL_COMPLETED_INDICATORS)),
+
+    QUESTIONNAIRE("问卷",
+            url -> true,
+            List.of(XPATH_QUESTIONNAIRE_TABLE));
+
+    private final String label;
+    private final Predicate<String> urlCondition;
+    private final List<String> xpaths;
+
+    PageExpectation(String label, Predicate<String> urlCondition, List<String> xpaths) {
+        this.label = label;
+        this.urlCondition = urlCondition;
+        this.xpaths = xpaths;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /** 任一出现即视为就绪的特征元素 */
+    public List<String> xpaths() {
+        return xpaths;
+    }
+
+    /**
+     * 当前 URL 是否属于该页面（大小写不敏感）
+     */
+    public boolean matchesUrl(String url) {
+        return url != null && urlCondition.test(url.toLowerCase(Locale.ROOT));
+    }
+
+    private static List<String> concat(String[] first, String[] second) {
+        List<String> all = new ArrayList<>(Arrays.asList(first));
+        all.addAll(Arrays.asList(second));
+        return List.copyOf(all);
+    }
+}
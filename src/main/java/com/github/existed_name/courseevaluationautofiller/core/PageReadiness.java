@@ -0,0 +1,300 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 页面就绪检测服务
+ * 用事件驱动的就绪条件代替固定的 Thread.sleep，条件满足立即返回
+ *
+ * <pre>
+ * 支持的就绪条件：
+ * 1. document.readyState == 'complete'
+ * 2. 网络空闲：页面内进行中的 XHR / fetch 数量为 0，且持续一个静默窗口
+ * 3. DOM 静默：MutationObserver 在一个静默窗口内未观察到变化
+ * 4. 进程退出：指定名称的系统进程全部结束（用于清理 Edge 进程后）
+ * 5. 导航目标就绪：页面声明的 DOM 条件成立（见 PageExpectation，配合 EAGER / NONE 页面加载策略）
+ * </pre>
+ *
+ * 每次等待都按名称记录实际耗时以及被替换的固定等待时长，运行结束时可打印节省的时间
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class PageReadiness {
+
+    /**
+     * 就绪探测脚本（幂等）
+     * 首次执行时在页面内挂载 XHR/fetch 计数器和 MutationObserver，之后每次只读取状态
+     * 返回 {ready, inflight, sinceNetwork, sinceMutation}
+     */
+    private static final String PROBE_SCRIPT = """
+            var w = window;
+            if (!w.__ceaReadiness) {
+                var state = w.__ceaReadiness = { inflight: 0, lastNetwork: Date.now(), lastMutation: Date.now() };
+                function begin() { state.inflight++; state.lastNetwork = Date.now(); }
+                function end() { state.inflight = Math.max(0, state.inflight - 1); state.lastNetwork = Date.now(); }
+                var send = XMLHttpRequest.prototype.send;
+                XMLHttpRequest.prototype.send = function () {
+                    begin();
+                    this.addEventListener('loadend', end);
+                    return send.apply(this, arguments);
+                };
+                if (w.fetch) {
+                    var fetch = w.fetch;
+                    w.fetch = function () {
+                        begin();
+                        return fetch.apply(this, arguments).finally(end);
+                    };
+                }
+                if (w.MutationObserver && document.documentElement) {
+                    new MutationObserver(function () { state.lastMutation = Date.now(); })
+                        .observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });
+                }
+            }
+            var s = w.__ceaReadiness, now = Date.now();
+            return { ready: document.readyState, inflight: s.inflight,
+                     sinceNetwork: now - s.lastNetwork, sinceMutation: now - s.lastMutation };
+            """;
+
+    /** 按等待名称汇总的统计（跨所有实例共享） */
+    private static final Map<String, WaitStats> STATS = new ConcurrentSkipListMap<>();
+
+    /** 按"页面加载策略 · 页面"汇总的导航就绪统计 */
+    private static final Map<String, NavigationStats> NAVIGATION_STATS = new ConcurrentSkipListMap<>();
+
+    private final WebDriver driver;
+    private final RacingLocator racer;
+
+    public PageReadiness(WebDriver driver) {
+        this.driver = driver;
+        this.racer = new RacingLocator(driver);
+    }
+
+    /**
+     * 等待页面完全稳定：文档加载完成 + 网络空闲 + DOM 静默
+     *
+     * @param label 等待名称（用于统计）
+     * @param replacedDelayMillis 该调用点原先的固定等待时长（毫秒），用于计算节省时间
+     * @return 实际等待时长（毫秒）
+     */
+    public long awaitPageSettled(String label, long replacedDelayMillis) {
+        return await(label, replacedDelayMillis, probe -> "complete".equals(probe.ready())
+                && probe.inflight() == 0
+                && probe.sinceNetwork() >= NETWORK_QUIET_WINDOW.toMillis()
+                && probe.sinceMutation() >= DOM_QUIET_WINDOW.toMillis());
+    }
+
+    /**
+     * 等待 document.readyState 为 complete
+     */
+    public long awaitDocumentReady(String label, long replacedDelayMillis) {
+        return await(label, replacedDelayMillis, probe -> "complete".equals(probe.ready()));
+    }
+
+    /**
+     * 等待页面内异步请求结束且 DOM 不再变化（用于点击选项等局部交互之后）
+     */
+    public long awaitInteractionSettled(String label, long replacedDelayMillis) {
+        return await(label, replacedDelayMillis, probe -> probe.inflight() == 0
+                && probe.sinceNetwork() >= NETWORK_QUIET_WINDOW.toMillis()
+                && probe.sinceMutation() >= DOM_QUIET_WINDOW.toMillis());
+    }
+
+    /**
+     * 等待导航目标页面就绪：URL 属于该页面且任一特征元素出现即返回
+     * 页面加载策略为 EAGER / NONE 时，driver.get 或点击返回时页面通常尚未加载完，由本方法决定何时继续；
+     * 每次等待按"加载策略 + 页面"记录成功率与耗时，用于比较各策略
+     *
+     * @return 是否在显式等待超时前就绪
+     */
+    public boolean awaitPage(PageExpectation expectation) {
+        long start = System.nanoTime();
+        boolean reached;
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(EXPLICIT_WAIT_TIMEOUT)
+                    .pollingEvery(READINESS_POLL_INTERVAL)
+                    .ignoring(WebDriverException.class)
+                    .until(d -> expectation.matchesUrl(d.getCurrentUrl())
+                            && racer.first(expectation.xpaths(), Duration.ZERO, false).isPresent() ? Boolean.TRUE : null);
+            reached = true;
+        } catch (TimeoutException e) {
+            reached = false;
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        NAVIGATION_STATS.computeIfAbsent(PAGE_LOAD_STRATEGY + " · " + expectation.label(), k -> new NavigationStats())
+                .add(reached, elapsed);
+        return reached;
+    }
+
+    /**
+     * 轮询探测脚本直到条件满足或超时
+     * 超时不抛异常：就绪检测只是替代固定等待，后续步骤仍有各自的显式等待兜底
+     */
+    private long await(String label, long replacedDelayMillis, Predicate<Probe> condition) {
+        long start = System.nanoTime();
+        try {
+            new FluentWait<>(driver)
+                    .withTimeout(READINESS_TIMEOUT)
+                    .pollingEvery(READINESS_POLL_INTERVAL)
+                    .ignoring(WebDriverException.class)
+                    .until(d -> condition.test(probe()) ? Boolean.TRUE : null);
+        } catch (WebDriverException e) {
+            System.err.printf("   ⚠ [就绪] %s 等待超时，继续执行%n", label);
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        record(label, elapsed, replacedDelayMillis);
+        return elapsed;
+    }
+
+    /**
+     * 执行一次探测脚本
+     */
+    @SuppressWarnings("unchecked")
+    private Probe probe() {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT);
+        return new Probe(
+                String.valueOf(raw.get("ready")),
+                ((Number) raw.get("inflight")).longValue(),
+                ((Number) raw.get("sinceNetwork")).longValue(),
+                ((Number) raw.get("sinceMutation")).longValue()
+        );
+    }
+
+    /**
+     * 等待指定名称的进程全部退出（不依赖浏览器）
+     *
+     * @param label 等待名称（用于统计）
+     * @param replacedDelayMillis 原先的固定等待时长（毫秒）
+     * @param imageNames 进程映像名，如 msedge.exe
+     * @return 实际等待时长（毫秒）
+     */
+    public static long awaitProcessesExit(String label, long replacedDelayMillis, String... imageNames) {
+        long start = System.nanoTime();
+        long deadline = start + READINESS_TIMEOUT.toNanos();
+        try {
+            while (isAnyProcessAlive(imageNames) && System.nanoTime() < deadline) {
+                Thread.sleep(READINESS_POLL_INTERVAL.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        record(label, elapsed, replacedDelayMillis);
+        return elapsed;
+    }
+
+    private static boolean isAnyProcessAlive(String... imageNames) {
+        return ProcessHandle.allProcesses().anyMatch(process -> process.info().command()
+                .map(command -> command.toLowerCase(Locale.ROOT))
+                .filter(command -> Arrays.stream(imageNames)
+                        .anyMatch(name -> command.endsWith(name.toLowerCase(Locale.ROOT))))
+                .isPresent());
+    }
+
+    private static void record(String label, long elapsedMillis, long replacedDelayMillis) {
+        STATS.computeIfAbsent(label, k -> new WaitStats()).add(elapsedMillis, replacedDelayMillis);
+    }
+
+    /**
+     * 打印各就绪等待的实际耗时与节省时间，以及导航就绪统计
+     */
+    public static void printStats() {
+        printWaitStats();
+        printNavigationStats();
+    }
+
+    /**
+     * 打印各就绪等待的实际耗时与节省时间
+     */
+    private static void printWaitStats() {
+        if (STATS.isEmpty()) {
+            return;
+        }
+        long totalSaved = 0;
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 就绪等待统计（实际耗时 / 原固定等待）");
+        for (Map.Entry<String, WaitStats> entry : STATS.entrySet()) {
+            WaitStats stats = entry.getValue();
+            long saved = stats.replacedMillis.sum() - stats.elapsedMillis.sum();
+            totalSaved += saved;
+            System.out.printf("│ %s: %d 次，%d ms / %d ms%n",
+                    entry.getKey(), stats.count.sum(), stats.elapsedMillis.sum(), stats.replacedMillis.sum());
+        }
+        System.out.printf("│ 合计节省: %.1f 秒%n", totalSaved / 1000.0);
+        System.out.println("└─────────────────────────────────");
+    }
+
+    /**
+     * 打印各页面加载策略下的导航就绪成功率与耗时
+     */
+    private static void printNavigationStats() {
+        if (NAVIGATION_STATS.isEmpty()) {
+            return;
+        }
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 导航就绪统计（页面加载策略 · 页面）");
+        for (Map.Entry<String, NavigationStats> entry : NAVIGATION_STATS.entrySet()) {
+            NavigationStats stats = entry.getValue();
+            long count = stats.count.sum();
+            System.out.printf("│ %s: %d 次，超时 %d 次，平均 %d ms，最长 %d ms%n",
+                    entry.getKey(), count, stats.timeouts.sum(),
+                    count == 0 ? 0 : stats.elapsedMillis.sum() / count, stats.maxMillis.get());
+        }
+        System.out.println("└─────────────────────────────────");
+    }
+
+    /**
+     * 单次探测结果
+     */
+    private record Probe(String ready, long inflight, long sinceNetwork, long sinceMutation) {}
+
+    /**
+     * 单个"策略 · 页面"的导航就绪统计
+     */
+    private static final class NavigationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder elapsedMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        private void add(boolean reached, long elapsed) {
+            count.increment();
+            if (!reached) {
+                timeouts.increment();
+            }
+            elapsedMillis.add(elapsed);
+            maxMillis.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * 单个等待名称的累计统计
+     */
+    private static final class WaitStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder elapsedMillis = new LongAdder();
+        private final LongAdder replacedMillis = new LongAdder();
+
+        private void add(long elapsed, long replaced) {
+            count.increment();
+            elapsedMillis.add(elapsed);
+            replacedMillis.add(replaced);
+        }
+    }
+}
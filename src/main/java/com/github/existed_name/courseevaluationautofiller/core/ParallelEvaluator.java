@@ -0,0 +1,214 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.github.existed_name.courseevaluationautofiller.policy.AnswerPolicy;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多标签页并发评价服务
+ *
+ * <pre>
+ * 同一个 WebDriver 会话内按批次（每批最多 maxTabs 门课）处理：
+ * 1. 在列表页一次性读取本批所有"网上评价"按钮的链接
+ * 2. 为每门课新开一个标签页，用脚本跳转（不阻塞），所有问卷同时加载
+ * 3. 依次切换到各标签页：等待问卷加载 → 填写 → 点击提交（不等待返回）
+ * 4. 依次确认各标签页已离开问卷页，记录结果并关闭标签页
+ * </pre>
+ *
+ * WebDriver 本身不支持多线程并发调用，这里的"并发"指的是各标签页的页面加载、
+ * 提交请求在浏览器内同时进行，总耗时取决于最慢的那份问卷而非所有问卷之和。
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class ParallelEvaluator {
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final int maxTabs;
+
+    public ParallelEvaluator(WebDriver driver, WebDriverWait wait, int maxTabs) {
+        if (maxTabs < 1) {
+            throw new IllegalArgumentException("并发标签页数量至少为 1: " + maxTabs);
+        }
+        this.driver = driver;
+        this.wait = wait;
+        this.maxTabs = maxTabs;
+    }
+
+    /**
+     * 并发评价一组课程
+     * 调用前浏览器必须停留在评价列表页，返回时回到列表页（未刷新）
+     *
+     * @param courses 待评价课程（按钮元素必须仍然有效）
+     * @return 每门课程的评价结果（顺序与输入一致，无法获取链接的课程不在结果中）
+     */
+    public List<EvaluationResult> evaluate(List<CourseEvaluation> courses) {
+        String listHandle = driver.getWindowHandle();
+
+        // 在列表页一次性取出所有链接，开标签页后列表页元素不会失效，但提前读取更稳妥
+        List<CourseEvaluation> runnable = new ArrayList<>();
+        List<String> hrefs = new ArrayList<>();
+        for (CourseEvaluation course : courses) {
+            String href = resolveHref(course);
+            if (href == null) {
+                System.err.println("   ⚠ 无法获取问卷链接，留给逐门评价处理: " + course.getFullInfo());
+                continue;
+            }
+            runnable.add(course);
+            hrefs.add(href);
+        }
+
+        List<EvaluationResult> results = new ArrayList<>();
+        for (int start = 0; start < runnable.size(); start += maxTabs) {
+            int end = Math.min(start + maxTabs, runnable.size());
+            System.out.printf(">>> 并发批次: 第 %d-%d 门（共 %d 门）%n", start + 1, end, runnable.size());
+            results.addAll(evaluateWave(
+                    runnable.subList(start, end), hrefs.subList(start, end), listHandle));
+        }
+        return results;
+    }
+
+    /**
+     * 处理一批课程：开标签页 → 填写提交 → 确认结果
+     */
+    private List<EvaluationResult> evaluateWave(List<CourseEvaluation> courses, List<String> hrefs,
+                                                String listHandle) {
+        List<TabContext> tabs = new ArrayList<>();
+        List<EvaluationResult> results = new ArrayList<>();
+
+        try {
+            // 阶段1：所有问卷同时开始加载
+            for (int i = 0; i < courses.size(); i++) {
+                try {
+                    tabs.add(openTab(courses.get(i), hrefs.get(i)));
+                } catch (Exception e) {
+                    results.add(EvaluationResult.failure(courses.get(i), "无法打开标签页: " + e.getMessage(), 0));
+                }
+            }
+
+            // 阶段2：逐个标签页填写并提交，不等待页面返回
+            for (TabContext tab : tabs) {
+                try {
+                    tab.fillAndSubmit();
+                } catch (Exception e) {
+                    tab.fail(e.getMessage());
+                }
+            }
+
+            // 阶段3：逐个确认提交结果
+            for (TabContext tab : tabs) {
+                results.add(tab.confirm());
+            }
+
+        } finally {
+            for (TabContext tab : tabs) {
+                tab.close();
+            }
+            driver.switchTo().window(listHandle);
+        }
+
+        for (EvaluationResult result : results) {
+            System.out.println("   " + result);
+        }
+        System.out.println();
+        return results;
+    }
+
+    /**
+     * 新开标签页并跳转到问卷链接
+     * 用 location 赋值代替 driver.get()，不等待页面加载完成即可返回
+     */
+    private TabContext openTab(CourseEvaluation course, String href) {
+        driver.switchTo().newWindow(WindowType.TAB);
+        String handle = driver.getWindowHandle();
+        ((JavascriptExecutor) driver).executeScript("window.location.href = arguments[0];", href);
+        return new TabContext(handle, course);
+    }
+
+    /**
+     * 读取"网上评价"按钮的链接
+     *
+     * @return 可直接打开的链接；按钮缺失或是 javascript: 伪链接时返回 null
+     */
+    private String resolveHref(CourseEvaluation course) {
+        try {
+            String href = course.directHref();
+            if (href != null || course.evalButton() == null) {
+                return href;
+            }
+            String attribute = course.evalButton().getAttribute("href");
+            if (attribute == null || attribute.isBlank() || attribute.trim().toLowerCase().startsWith("javascript:")) {
+                return null;
+            }
+            return attribute;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个标签页的评价上下文
+     * 每个标签页拥有独立的 NavigationService / FormFiller，操作前先切换到自己的窗口
+     */
+    private final class TabContext {
+
+        private final String handle;
+        private final CourseEvaluation course;
+        private final NavigationService navigationService;
+        private final FormFiller formFiller;
+        private final long startNanos = System.nanoTime();
+        private String failure;
+
+        private TabContext(String handle, CourseEvaluation course) {
+            this.handle = handle;
+            this.course = course;
+            this.navigationService = new NavigationService(driver, wait);
+            this.formFiller = new FormFiller(driver, wait);
+        }
+
+        private void focus() {
+            driver.switchTo().window(handle);
+        }
+
+        private void fillAndSubmit() {
+            focus();
+            navigationService.waitForQuestionnairePageLoad();
+            formFiller.fillAndSubmit(course.getFullInfo(), AnswerPolicy.getInstance().forCourse(course));
+        }
+
+        private void fail(String message) {
+            this.failure = message;
+        }
+
+        private EvaluationResult confirm() {
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+            if (failure != null) {
+                return EvaluationResult.failure(course, failure, elapsed);
+            }
+            try {
+                focus();
+                if (formFiller.waitForSubmissionAccepted()) {
+                    return EvaluationResult.success(course, (System.nanoTime() - startNanos) / 1_000_000);
+                }
+                return EvaluationResult.failure(course, "提交后未返回列表页", elapsed);
+            } catch (Exception e) {
+                return EvaluationResult.failure(course, e.getMessage(), elapsed);
+            }
+        }
+
+        private void close() {
+            try {
+                focus();
+                driver.close();
+            } catch (Exception ignored) {}
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.existed_name.courseevaluationautofiller.core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 多方案并行定位
+ * 一次脚本调用用 document.evaluate 同时检查备用数组中的所有 XPath，整组共用一个超时
+ *
+ * <pre>
+ * 逐个方案等待：最坏耗时 = 方案数 × 显式等待（如未登录时 5 × 10 秒）
+ * 并行定位：    最坏耗时 = 一个超时，任一方案出现即返回
+ * 同一轮探测中多个方案同时命中时，返回数组中靠前的方案
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class RacingLocator {
+
+    /**
+     * 探测脚本
+     * 参数：XPath 列表、是否要求可见；返回 [命中方案下标, 元素] 或 null
+     * 单个 XPath 语法错误只跳过该方案，不影响其余方案
+     */
+    private static final String RACE_SCRIPT = """
+            var xpaths = arguments[0], visibleOnly = arguments[1];
+            function visible(el) {
+                if (!el.getClientRects) return false;
+                var style = window.getComputedStyle(el);
+                return style.display !== 'none' && style.visibility !== 'hidden' && el.getClientRects().length > 0;
+            }
+            for (var i = 0; i < xpaths.length; i++) {
+                var nodes;
+                try {
+                    nodes = document.evaluate(xpaths[i], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                } catch (e) {
+                    continue;
+                }
+                for (var j = 0; j < nodes.snapshotLength; j++) {
+                    var node = nodes.snapshotItem(j);
+                    if (!visibleOnly || visible(node)) {
+                        return [i, node];
+                    }
+                }
+            }
+            return null;
+            """;
+
+    private final WebDriver driver;
+
+    public RacingLocator(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * 在共享超时内等待任一方案出现
+     *
+     * @param xpaths 备用 XPath（按优先级排列）
+     * @param timeout 整组共用的超时；Duration.ZERO 表示只探测一次
+     * @param visibleOnly 是否只接受可见元素
+     * @return 最先命中的方案；超时仍未命中返回 empty
+     */
+    public Optional<Match> first(List<String> xpaths, Duration timeout, boolean visibleOnly) {
+        if (timeout.isZero()) {
+            return Optional.ofNullable(probe(xpaths, visibleOnly));
+        }
+        try {
+            return Optional.of(new FluentWait<>(driver)
+                    .withTimeout(timeout)
+                    .pollingEvery(READINESS_POLL_INTERVAL)
+                    .ignoring(WebDriverException.class)
+                    .until(d -> probe(xpaths, visibleOnly)));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 执行一次探测（脚本调用不受隐式等待影响）
+     */
+    private Match probe(List<String> xpaths, boolean visibleOnly) {
+        Object result = ((JavascriptExecutor) driver).executeScript(RACE_SCRIPT, xpaths, visibleOnly);
+        if (!(result instanceof List<?> pair) || pair.size() < 2) {
+            return null;
+        }
+        int index = ((Number) pair.get(0)).intValue();
+        return new Match(index, xpaths.get(index), (WebElement) pair.get(1));
+    }
+
+    /**
+     * 命中结果
+     *
+     * @param index 命中方案在传入列表中的下标
+     * @param xpath 命中的 XPath
+     * @param element 命中的元素
+     */
+    public record Match(int index, String xpath, WebElement element) {}
+}
@@ -0,0 +1,369 @@
+package com.github.existed_name.courseevaluationautofiller.http;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.github.existed_name.courseevaluationautofiller.model.QuestionnaireForm;
+import com.github.existed_name.courseevaluationautofiller.parser.EvaluationListParser;
+import com.github.existed_name.courseevaluationautofiller.parser.QuestionnaireFormParser;
+import com.github.existed_name.courseevaluationautofiller.policy.AnswerPolicy;
+import com.github.existed_name.courseevaluationautofiller.policy.CourseAnswers;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serial;
+import java.net.CookieHandler;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 直连 HTTP 评价服务
+ *
+ * <pre>
+ * 浏览器完成登录并进入评价列表页后：
+ * 1. 复制浏览器的会话 Cookie 与 User-Agent
+ * 2. GET 列表页，在 JVM 内解析待评价课程
+ * 3. 每门课程在独立的虚拟线程中 GET 问卷 → 解析表单 → POST 提交，最多 maxInFlight 个请求同时进行
+ *    提交不跟随跳转：301/302/303 即表示提交已被接受（跳转目标的列表页出错不影响提交结果）
+ * 4. 全部完成后再 GET 一次列表页，以列表为准核对：提交成功但仍在列表中的课程改记为失败，
+ *    失败（如提交响应超时）但已从列表消失的课程改记为成功
+ *
+ * 重试：GET 请求遇到 5xx 或网络错误时按指数退避重试 HTTP_MAX_RETRIES 次；
+ *      提交请求不重试（服务端可能已经处理），失败的课程仍留在列表中，由下一轮扫描重新评价
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class DirectHttpEvaluator {
+
+    private final HttpClient client;
+    /** 提交专用：不跟随跳转，以提交请求本身的响应判断是否被接受 */
+    private final HttpClient submitClient;
+    private final URI listUri;
+    private final String userAgent;
+    private final int maxInFlight;
+    private final LongAdder retries = new LongAdder();
+
+    public DirectHttpEvaluator(URI listUri, CookieHandler cookies, String userAgent, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("并发请求数量至少为 1: " + maxInFlight);
+        }
+        this.listUri = listUri;
+        this.userAgent = userAgent;
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(HTTP_REQUEST_TIMEOUT)
+                .build();
+        this.submitClient = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(HTTP_REQUEST_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * 从已停留在评价列表页的浏览器创建直连服务
+     */
+    public static DirectHttpEvaluator fromBrowser(WebDriver driver, int maxInFlight) {
+        String userAgent = String.valueOf(((JavascriptExecutor) driver).executeScript("return navigator.userAgent;"));
+        return new DirectHttpEvaluator(
+                URI.create(driver.getCurrentUrl()), SessionCookies.copyFrom(driver), userAgent, maxInFlight);
+    }
+
+    /**
+     * 累计的 GET 重试次数
+     */
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * 扫描列表页，返回待评价课程
+     */
+    public List<CourseEvaluation> scanPendingCourses() throws IOException, InterruptedException {
+        Document list = get(listUri, null);
+        return EvaluationListParser.parsePendingCourses(list);
+    }
+
+    /**
+     * 并发评价列表中的所有课程
+     *
+     * @return 每门课程的评价结果（顺序与列表一致）
+     */
+    public List<EvaluationResult> evaluateAll() throws IOException, InterruptedException {
+        return evaluateAll(UnaryOperator.identity());
+    }
+
+    /**
+     * 并发评价列表中由 select 选出的课程
+     *
+     * @param select 由扫描到的待评价课程选出本次评价的课程（如按进度日志暂缓已提交的课程）
+     * @return 每门课程的评价结果（顺序与列表一致）
+     */
+    public List<EvaluationResult> evaluateAll(UnaryOperator<List<CourseEvaluation>> select)
+            throws IOException, InterruptedException {
+        System.out.println("=== 直连 HTTP 模式：扫描评价列表 ===");
+        List<CourseEvaluation> courses = select.apply(scanPendingCourses());
+        System.out.printf("✓ 发现 %d 门待评价课程，最多 %d 个请求并发%n%n", courses.size(), maxInFlight);
+
+        List<EvaluationResult> results = new ArrayList<>();
+        if (courses.isEmpty()) {
+            return results;
+        }
+
+        Semaphore permits = new Semaphore(maxInFlight);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<EvaluationResult>> futures = new ArrayList<>();
+            for (CourseEvaluation course : courses) {
+                futures.add(executor.submit(() -> evaluateOne(course, permits)));
+            }
+            for (Future<EvaluationResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (InterruptedException e) {
+                    // 恢复中断标记：executor.close() 看到中断后会取消其余请求，而不是等待它们全部完成
+                    Thread.currentThread().interrupt();
+                    throw e;
+                } catch (ExecutionException e) {
+                    // evaluateOne 已捕获所有异常，这里是未预料的错误
+                    throw new IOException("直连评价失败: " + e.getCause(), e.getCause());
+                }
+            }
+        }
+
+        return verifyAgainstList(results);
+    }
+
+    /**
+     * 评价单门课程：GET 问卷 → 解析表单 → POST 提交
+     */
+    private EvaluationResult evaluateOne(CourseEvaluation course, Semaphore permits) {
+        long start = System.currentTimeMillis();
+        try {
+            URI questionnaireUri = URI.create(course.evalHref());
+
+            permits.acquire();
+            Document page;
+            try {
+                page = get(questionnaireUri, listUri);
+            } finally {
+                permits.release();
+            }
+
+            QuestionnaireForm form = QuestionnaireFormParser.parse(page);
+            if (!form.isSubmittable()) {
+                return EvaluationResult.failure(course, "问卷字段无法识别，需使用浏览器模式",
+                        System.currentTimeMillis() - start);
+            }
+
+            String body = buildBody(form, AnswerPolicy.getInstance().forCourse(course));
+
+            permits.acquire();
+            boolean accepted;
+            try {
+                accepted = submit(form, body, questionnaireUri);
+            } finally {
+                permits.release();
+            }
+
+            long elapsed = System.currentTimeMillis() - start;
+            if (!accepted) {
+                return EvaluationResult.failure(course, "提交后仍停留在问卷页", elapsed);
+            }
+            System.out.printf("   ✓ %s（%d ms）%n", course.getFullInfo(), elapsed);
+            return EvaluationResult.success(course, elapsed);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EvaluationResult.failure(course, "请求被中断", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            System.err.printf("   ✗ %s: %s%n", course.getFullInfo(), e.getMessage());
+            return EvaluationResult.failure(course, e.getMessage(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 重新扫描列表页：提交成功但仍在列表中的课程改记为失败，失败但已不在列表中的课程改记为成功
+     */
+    private List<EvaluationResult> verifyAgainstList(List<EvaluationResult> results)
+            throws IOException, InterruptedException {
+        Set<String> remaining = new HashSet<>();
+        for (CourseEvaluation course : scanPendingCourses()) {
+            remaining.add(course.evalHref());
+        }
+
+        List<EvaluationResult> verified = new ArrayList<>();
+        for (EvaluationResult result : results) {
+            boolean listed = remaining.contains(result.course().evalHref());
+            if (result.success() && listed) {
+                verified.add(EvaluationResult.failure(result.course(), "提交后仍在待评价列表", result.elapsedMillis()));
+            } else if (!result.success() && !listed) {
+                System.out.printf("   ✓ %s 已不在待评价列表，提交实际已被接受%n", result.course().getFullInfo());
+                verified.add(EvaluationResult.success(result.course(), result.elapsedMillis()));
+            } else {
+                verified.add(result);
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * 按表单原有字段 + 每道题的选项 + 评语构造 URL 编码的请求体
+     *
+     * @param answers 该课程的作答内容（第 i 道题选择 answers.option(i)）
+     */
+    static String buildBody(QuestionnaireForm form, CourseAnswers answers) {
+        Charset charset = Charset.forName(form.charset());
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : form.fields()) {
+            appendParam(body, field.getKey(), field.getValue(), charset);
+        }
+        for (int i = 0; i < form.questions().size(); i++) {
+            QuestionnaireForm.Question question = form.questions().get(i);
+            String option = answers.option(i);
+            if (!question.options().contains(option)) {
+                throw new IllegalStateException(String.format("第 %d 题没有选项 %s", i + 1, option));
+            }
+            appendParam(body, question.fieldName(), option, charset);
+        }
+        if (form.commentField() != null) {
+            appendParam(body, form.commentField(), answers.comment(), charset);
+        }
+        return body.toString();
+    }
+
+    private static void appendParam(StringBuilder body, String name, String value, Charset charset) {
+        if (body.length() > 0) {
+            body.append('&');
+        }
+        body.append(URLEncoder.encode(name, charset)).append('=').append(URLEncoder.encode(value, charset));
+    }
+
+    private Document get(URI uri, URI referer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = baseRequest(uri, referer).GET();
+        return sendWithRetry(request.build());
+    }
+
+    /**
+     * 提交问卷（method="GET" 的表单同样只发送一次，不重试）
+     *
+     * @return 是否被接受：得到 301/302/303 跳转，或响应页面不再是问卷页
+     */
+    private boolean submit(QuestionnaireForm form, String body, URI referer) throws IOException, InterruptedException {
+        HttpRequest request;
+        if ("GET".equals(form.method())) {
+            String separator = form.actionUrl().contains("?") ? "&" : "?";
+            request = baseRequest(URI.create(form.actionUrl() + separator + body), referer).GET().build();
+        } else {
+            request = baseRequest(URI.create(form.actionUrl()), referer)
+                    .header("Content-Type", "application/x-www-form-urlencoded; charset=" + form.charset())
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        HttpResponse<byte[]> response = exchange(submitClient, request);
+        return switch (response.statusCode()) {
+            case 301, 302, 303 -> true;
+            default -> {
+                if (response.statusCode() >= 300) {
+                    throw new StatusException(response.statusCode(), request.uri());
+                }
+                yield parse(response).getElementById(ID_QUESTIONNAIRE_TABLE) == null;
+            }
+        };
+    }
+
+    private HttpRequest.Builder baseRequest(URI uri, URI referer) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(HTTP_REQUEST_TIMEOUT)
+                .header("User-Agent", userAgent);
+        if (referer != null) {
+            builder.header("Referer", referer.toString());
+        }
+        return builder;
+    }
+
+    /**
+     * 发送幂等请求，5xx 或网络错误时按指数退避重试
+     */
+    private Document sendWithRetry(HttpRequest request) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return send(request);
+            } catch (IOException e) {
+                boolean retryable = !(e instanceof StatusException status) || status.statusCode >= 500;
+                if (!retryable || attempt >= HTTP_MAX_RETRIES) {
+                    throw e;
+                }
+                retries.increment();
+                Thread.sleep(HTTP_RETRY_BACKOFF.toMillis() << attempt);
+            }
+        }
+    }
+
+    /**
+     * 发送请求并解析响应；字符集由 jsoup 根据响应头 / meta 自动识别
+     */
+    private Document send(HttpRequest request) throws IOException, InterruptedException {
+        return parse(exchange(client, request));
+    }
+
+    /**
+     * 发送请求，4xx / 5xx 抛出 StatusException
+     */
+    private static HttpResponse<byte[]> exchange(HttpClient client, HttpRequest request)
+            throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new StatusException(response.statusCode(), request.uri());
+        }
+        return response;
+    }
+
+    private static Document parse(HttpResponse<byte[]> response) throws IOException {
+        String charset = response.headers().firstValue("Content-Type")
+                .filter(type -> type.toLowerCase().contains("charset="))
+                .map(type -> type.substring(type.toLowerCase().indexOf("charset=") + 8).trim())
+                .orElse(null);
+        return Jsoup.parse(new ByteArrayInputStream(response.body()), charset, response.uri().toString());
+    }
+
+    /**
+     * 服务端返回了错误状态码
+     */
+    private static final class StatusException extends IOException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        private StatusException(int statusCode, URI uri) {
+            super("HTTP " + statusCode + ": " + uri);
+            this.statusCode = statusCode;
+        }
+    }
+}
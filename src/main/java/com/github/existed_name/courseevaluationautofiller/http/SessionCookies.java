@@ -0,0 +1,48 @@
+package com.github.existed_name.courseevaluationautofiller.http;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+
+/**
+ * 会话 Cookie 复制工具
+ * 把 WebDriver 中已登录的 Cookie 复制到 java.net.CookieManager，供 HttpClient 复用登录态
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class SessionCookies {
+
+    private SessionCookies() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 复制浏览器当前域名下的所有 Cookie（含 HttpOnly）
+     *
+     * @param driver 已登录的浏览器
+     * @return 可直接交给 HttpClient.Builder#cookieHandler 的 CookieManager
+     */
+    public static CookieManager copyFrom(WebDriver driver) {
+        CookieManager manager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        URI origin = URI.create(driver.getCurrentUrl());
+
+        for (Cookie cookie : driver.manage().getCookies()) {
+            HttpCookie httpCookie = new HttpCookie(cookie.getName(), cookie.getValue());
+            httpCookie.setDomain(cookie.getDomain() != null ? cookie.getDomain() : origin.getHost());
+            httpCookie.setPath(cookie.getPath() != null ? cookie.getPath() : "/");
+            httpCookie.setSecure(cookie.isSecure());
+            httpCookie.setVersion(0);
+            if (cookie.getExpiry() != null) {
+                long maxAge = (cookie.getExpiry().getTime() - System.currentTimeMillis()) / 1000;
+                httpCookie.setMaxAge(Math.max(maxAge, 0));
+            }
+            manager.getCookieStore().add(origin, httpCookie);
+        }
+        return manager;
+    }
+}
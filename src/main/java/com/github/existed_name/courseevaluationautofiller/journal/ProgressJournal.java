@@ -0,0 +1,387 @@
+package com.github.existed_name.courseevaluationautofiller.journal;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.model.CourseState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 评价进度日志
+ * 只追加写入每门课程的状态变化（发现 → 打开 → 填写 → 提交 → 确认），程序或浏览器中途崩溃后，
+ * 下次运行据此判断哪些课程"刚提交、尚未确认"，再以评价列表为准核对
+ *
+ * <pre>
+ * 续跑（每次完整解析列表后调用 reconcile 与 selectForEvaluation）：
+ *   日志中未确认、但已不在列表中的课程记为已确认
+ *   最新状态为 SUBMITTED 的课程（上次运行提交后崩溃，或本次提交后列表尚未更新）第一次出现时暂缓评价，不重复提交；
+ *   调用方重新读取列表后，已消失的记为已确认，仍在列表中的说明提交未生效，才重新评价
+ *   上次失败（FAILED）的课程在开始评价时连同失败原因列出，并照常重新评价
+ * </pre>
+ *
+ * <pre>
+ * 文件：APP_DATA_DIR/journal/会话名.journal，每行一条记录：
+ *   会话名含 ASCII 字母数字、下划线、连字符以外的字符（如中文账号名）时，替换为下划线并追加会话名的 SHA-256 前缀，
+ *   如 "张三" → "__-<16 位十六进制>.journal"，保证不同会话不共用一个文件
+ *   时间戳(毫秒) \t 状态 \t 课程键(单位|课程|教师) \t 说明
+ * 落盘：
+ *   SUBMITTED 立即 fsync（崩溃后最需要知道的状态）；其余记录攒够 JOURNAL_SYNC_BATCH 条或距上次落盘超过 JOURNAL_SYNC_INTERVAL 再 fsync
+ *   崩溃留下的半行在下次打开时截掉
+ * 压缩：
+ *   打开时文件超过 JOURNAL_COMPACT_BYTES 则只保留每门课程的最新状态，并丢弃 JOURNAL_RETENTION 之前已确认的课程
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class ProgressJournal implements AutoCloseable {
+
+    /** 可直接用作文件名的字符以外的字符 */
+    private static final Pattern SAFE_FILE_NAME_CHARS = Pattern.compile("[^A-Za-z0-9_\\-]");
+
+    /** 文件为 null 时只在内存中记录（日志目录不可写时退化为无持久化） */
+    private final Path file;
+    private final Map<String, Entry> latest = new LinkedHashMap<>();
+    /** 已提交、暂缓评价并等待列表确认的课程键 */
+    private final Set<String> deferred = new HashSet<>();
+
+    private FileChannel channel;
+    private int unsynced;
+    private long lastSync = System.currentTimeMillis();
+
+    private ProgressJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开会话对应的进度日志（不存在则创建），回放已有记录
+     * 日志无法打开时打印警告并返回仅内存记录的日志，不影响评价流程
+     *
+     * @param sessionName 会话名（账号名）
+     */
+    public static ProgressJournal open(String sessionName) {
+        Path file = APP_DATA_DIR.resolve("journal").resolve(fileNameOf(sessionName) + ".journal");
+        ProgressJournal journal = new ProgressJournal(file);
+        try {
+            journal.load();
+        } catch (IOException e) {
+            System.err.println("   ⚠ 进度日志打开失败，本次不记录进度: " + e.getMessage());
+            return new ProgressJournal(null);
+        }
+        return journal;
+    }
+
+    /**
+     * 会话名对应的文件名（不含扩展名）：纯 ASCII 安全字符的会话名原样使用，否则追加哈希避免不同会话重名
+     */
+    static String fileNameOf(String sessionName) {
+        String safe = SAFE_FILE_NAME_CHARS.matcher(sessionName).replaceAll("_");
+        if (safe.equals(sessionName) && !safe.isEmpty()) {
+            return safe;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionName.getBytes(StandardCharsets.UTF_8));
+            return safe + "-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 记录状态变化
+     *
+     * @param course 课程
+     * @param state 新状态
+     * @param detail 说明（失败原因等，可为空）
+     */
+    public synchronized void record(CourseEvaluation course, CourseState state, String detail) {
+        Entry entry = new Entry(System.currentTimeMillis(), state, keyOf(course), detail == null ? "" : detail);
+        latest.remove(entry.key());
+        latest.put(entry.key(), entry);
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.write(ByteBuffer.wrap(entry.toLine().getBytes(StandardCharsets.UTF_8)));
+            unsynced++;
+            if (state == CourseState.SUBMITTED
+                    || unsynced >= JOURNAL_SYNC_BATCH
+                    || System.currentTimeMillis() - lastSync >= JOURNAL_SYNC_INTERVAL.toMillis()) {
+                sync();
+            }
+        } catch (IOException e) {
+            System.err.println("   ⚠ 进度日志写入失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 记录新发现的课程（已在进行中的课程不重复记录；已确认过的课程再次出现时视为新一轮评价）
+     */
+    public synchronized void discover(List<CourseEvaluation> pending) {
+        for (CourseEvaluation course : pending) {
+            Entry entry = latest.get(keyOf(course));
+            if (entry == null || entry.state() == CourseState.CONFIRMED) {
+                record(course, CourseState.DISCOVERED, "");
+            }
+        }
+    }
+
+    /**
+     * 以评价列表为准核对：日志中未结束、但已不在列表中的课程标记为已确认
+     *
+     * @param pending 当前评价列表中的待评价课程
+     * @return 本次新确认的课程数量
+     */
+    public synchronized int reconcile(List<CourseEvaluation> pending) {
+        Set<String> pendingKeys = new HashSet<>();
+        for (CourseEvaluation course : pending) {
+            pendingKeys.add(keyOf(course));
+        }
+        List<Entry> confirmed = new ArrayList<>();
+        for (Entry entry : latest.values()) {
+            if (entry.state() != CourseState.CONFIRMED && !pendingKeys.contains(entry.key())) {
+                confirmed.add(entry);
+            }
+        }
+        for (Entry entry : confirmed) {
+            Entry done = new Entry(System.currentTimeMillis(), CourseState.CONFIRMED, entry.key(), "已从评价列表消失");
+            latest.remove(entry.key());
+            latest.put(entry.key(), done);
+            deferred.remove(entry.key());
+            append(done);
+        }
+        return confirmed.size();
+    }
+
+    /**
+     * 从待评价课程中选出本次应评价的课程（应先调用 reconcile）
+     * 最新状态为 SUBMITTED 的课程第一次出现时暂缓（hasDeferred() 变为 true），调用方重新读取列表后再次出现才重新评价
+     *
+     * @param pending 当前评价列表中的待评价课程
+     * @return 应评价的课程（保持列表顺序）
+     */
+    public synchronized List<CourseEvaluation> selectForEvaluation(List<CourseEvaluation> pending) {
+        List<CourseEvaluation> selected = new ArrayList<>(pending.size());
+        for (CourseEvaluation course : pending) {
+            String key = keyOf(course);
+            Entry entry = latest.get(key);
+            if (entry == null || entry.state() != CourseState.SUBMITTED) {
+                selected.add(course);
+            } else if (deferred.add(key)) {
+                System.out.println("   [日志] 已提交、等待评价列表确认，暂不重复提交: " + course.getFullInfo());
+            } else {
+                deferred.remove(key);
+                System.out.println("   [日志] 重新读取列表后仍未完成，提交未生效，将重新评价: " + course.getFullInfo());
+                selected.add(course);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * 是否有暂缓评价、需要重新读取列表确认的课程
+     */
+    public synchronized boolean hasDeferred() {
+        return !deferred.isEmpty();
+    }
+
+    /**
+     * 课程在日志中的最新状态（未记录过返回 null）
+     */
+    public synchronized CourseState stateOf(CourseEvaluation course) {
+        Entry entry = latest.get(keyOf(course));
+        return entry == null ? null : entry.state();
+    }
+
+    /**
+     * 打印上次运行遗留的未结束课程与失败课程
+     */
+    public synchronized void printResumeSummary() {
+        List<Entry> inFlight = latest.values().stream().filter(entry -> entry.state().isInFlight()).toList();
+        List<Entry> failed = latest.values().stream().filter(entry -> entry.state() == CourseState.FAILED).toList();
+        if (inFlight.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        if (!inFlight.isEmpty()) {
+            System.out.printf("📒 进度日志：上次运行有 %d 门课程未结束，将以评价列表为准核对（已提交的课程确认前不重复提交）%n",
+                    inFlight.size());
+            for (Entry entry : inFlight) {
+                System.out.printf("   %s  %s%n", entry.state(), entry.key());
+            }
+        }
+        if (!failed.isEmpty()) {
+            System.out.printf("📒 进度日志：上次运行有 %d 门课程评价失败，仍在列表中的将重新评价%n", failed.size());
+            for (Entry entry : failed) {
+                System.out.printf("   %s  %s%n", entry.key(), entry.detail());
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * 立即落盘
+     */
+    public synchronized void sync() {
+        if (channel == null || unsynced == 0) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("   ⚠ 进度日志落盘失败: " + e.getMessage());
+        }
+        unsynced = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        sync();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        channel = null;
+    }
+
+    // ==================== 回放与压缩 ====================
+
+    private void load() throws IOException {
+        Files.createDirectories(file.getParent());
+        long records = 0;
+        if (Files.exists(file)) {
+            truncateTornTail();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                Entry entry = Entry.parse(line);
+                if (entry != null) {
+                    latest.remove(entry.key());
+                    latest.put(entry.key(), entry);
+                    records++;
+                }
+            }
+            if (Files.size(file) > JOURNAL_COMPACT_BYTES) {
+                compact(records);
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * 截掉崩溃时写了一半的最后一行，避免下一条记录接在半行后面
+     */
+    private void truncateTornTail() throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            long keep = size;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (keep > 0) {
+                one.clear();
+                ch.read(one, keep - 1);
+                if (one.get(0) == '\n') {
+                    break;
+                }
+                keep--;
+            }
+            if (keep < size) {
+                ch.truncate(keep);
+            }
+        }
+    }
+
+    /**
+     * 只保留每门课程的最新状态，丢弃过期的已确认课程；写入临时文件后原子替换
+     */
+    private void compact(long records) throws IOException {
+        long expireBefore = System.currentTimeMillis() - JOURNAL_RETENTION.toMillis();
+        latest.values().removeIf(entry -> entry.state() == CourseState.CONFIRMED && entry.timestamp() < expireBefore);
+
+        Path temp = Files.createTempFile(file.getParent(), "journal-", ".tmp");
+        try {
+            StringBuilder content = new StringBuilder();
+            for (Entry entry : latest.values()) {
+                content.append(entry.toLine());
+            }
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+                out.force(false);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        System.out.printf("   [日志] 进度日志已压缩：%d 条记录 → %d 条%n", records, latest.size());
+    }
+
+    private void append(Entry entry) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.write(ByteBuffer.wrap(entry.toLine().getBytes(StandardCharsets.UTF_8)));
+            unsynced++;
+        } catch (IOException e) {
+            System.err.println("   ⚠ 进度日志写入失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 课程键：任课单位|课程|教师（序号会随列表变化，不参与）
+     */
+    private static String keyOf(CourseEvaluation course) {
+        return course.department() + "|" + course.courseName() + "|" + course.teacherName();
+    }
+
+    /**
+     * 一条日志记录
+     */
+    private record Entry(long timestamp, CourseState state, String key, String detail) {
+
+        private String toLine() {
+            return timestamp + "\t" + state + "\t" + clean(key) + "\t" + clean(detail) + "\n";
+        }
+
+        /**
+         * 解析一行记录，格式不对（如手工改坏的行）返回 null
+         */
+        private static Entry parse(String line) {
+            String[] fields = line.split("\t", 4);
+            if (fields.length != 4) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(fields[0]), CourseState.valueOf(fields[1]), fields[2], fields[3]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static String clean(String text) {
+            return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+    }
+}
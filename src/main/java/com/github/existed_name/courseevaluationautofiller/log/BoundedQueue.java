@@ -0,0 +1,87 @@
+package com.github.existed_name.courseevaluationautofiller.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁队列（多生产者、单消费者）
+ * 环形数组的每个槽位带一个序号，生产者只用一次 CAS 抢占写入位置；队列满时 offer 立即返回 false，从不阻塞
+ *
+ * <pre>
+ * 槽位序号含义（pos 为全局位置，槽位 = pos & mask）：
+ *   序号 == pos      该槽位空闲，可写入位置 pos
+ *   序号 == pos + 1  位置 pos 已写入，可读取
+ *   读取后序号置为 pos + capacity，留给下一圈写入
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+final class BoundedQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 只有消费者线程读写 */
+    private long head;
+
+    /**
+     * @param capacity 容量（必须是 2 的幂）
+     */
+    BoundedQueue(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("队列容量必须是 2 的幂: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队（任意线程）
+     *
+     * @return 队列已满时返回 false
+     */
+    boolean offer(E item) {
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) (pos & mask);
+            long diff = sequences.get(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.set(slot, item);
+                    sequences.set(slot, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0：其他生产者已抢占该位置，重读 tail
+        }
+    }
+
+    /**
+     * 出队（只能由唯一的消费者线程调用）
+     *
+     * @return 队列为空（或下一个位置尚未写完）时返回 null
+     */
+    E poll() {
+        int slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) {
+            return null;
+        }
+        E item = items.get(slot);
+        items.set(slot, null);
+        sequences.set(slot, head + capacity);
+        head++;
+        return item;
+    }
+}
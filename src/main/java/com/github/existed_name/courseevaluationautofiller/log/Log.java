@@ -0,0 +1,386 @@
+package com.github.existed_name.courseevaluationautofiller.log;
+
+import com.github.existed_name.courseevaluationautofiller.config.LogLevel;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 异步日志
+ * 自动化线程只把输出放入有界无锁队列，由后台线程写到控制台和日志文件，控制台再慢也不会拖住 WebDriver 循环
+ *
+ * <pre>
+ * install() 之后：
+ *   System.out 的每一行按 INFO、System.err 的每一行按 WARN 进入队列（原有输出代码无需改动）
+ *   debug() 用于逐行、逐题等明细；event() 记录结构化事件（阶段、课程、结果、耗时）
+ *   控制台按 LOG_CONSOLE_LEVEL、日志文件按 LOG_FILE_LEVEL 过滤
+ *   setThreadPrefix() 为当前线程及其子线程的每行输出加前缀（多账号并发时区分各会话的输出）
+ *   队列满时丢弃新输出并计数，后台线程随后提示丢弃条数
+ * 未 install（如基准测试）或 shutdown() 之后，所有输出同步写到当前的 System.out / System.err
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class Log {
+
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /** 队列为空时后台线程的最长休眠时间 */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final BoundedQueue<Event> QUEUE = new BoundedQueue<>(LOG_QUEUE_CAPACITY);
+    private static final LongAdder DROPPED = new LongAdder();
+    /** 行前缀（子线程继承，虚拟线程同样继承） */
+    private static final InheritableThreadLocal<String> PREFIX = new InheritableThreadLocal<>();
+    private static final AtomicLong ACCEPTED = new AtomicLong();
+
+    private static volatile boolean running;
+    private static volatile boolean writerParked;
+    private static volatile long written;
+    private static volatile LogLevel fileLevel = LogLevel.OFF;
+
+    private static Thread writer;
+    private static PrintStream originalOut;
+    private static PrintStream originalErr;
+    private static PrintStream consoleOut;
+    private static PrintStream consoleErr;
+    private static Writer file;
+
+    private Log() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // ==================== 启动与关闭 ====================
+
+    /**
+     * 启动后台写出线程，接管 System.out / System.err（重复调用无效）
+     * 应在 setEncoding 之后调用，控制台沿用其设置的编码
+     */
+    public static synchronized void install() {
+        if (running) {
+            return;
+        }
+        originalOut = System.out;
+        originalErr = System.err;
+        // 原输出流可能开启了逐行自动刷新；外面再包一层缓冲，后台线程每批只刷新一次
+        consoleOut = new PrintStream(new BufferedOutputStream(originalOut, 16 * 1024), false, StandardCharsets.UTF_8);
+        consoleErr = new PrintStream(new BufferedOutputStream(originalErr, 16 * 1024), false, StandardCharsets.UTF_8);
+        openFile();
+
+        running = true;
+        writer = new Thread(Log::drainLoop, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        System.setOut(new PrintStream(new LineCapture(LogLevel.INFO), true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(new LineCapture(LogLevel.WARN), true, StandardCharsets.UTF_8));
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "log-shutdown"));
+    }
+
+    /**
+     * 写完队列中的剩余输出，还原 System.out / System.err 并关闭日志文件（可重复调用）
+     */
+    public static synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            // 写出线程卡在控制台 I/O 上，队列只能有一个消费者，放弃剩余输出
+            return;
+        }
+        // 写出线程结束后由本线程接手消费，补写关闭前最后入队的输出
+        for (Event event = QUEUE.poll(); event != null; event = QUEUE.poll()) {
+            write(event);
+        }
+        flushSinks();
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ignored) {}
+            file = null;
+        }
+        fileLevel = LogLevel.OFF;
+    }
+
+    /**
+     * 等待已入队的输出全部写出（最多等待 timeout 毫秒），用于等待用户输入前
+     */
+    public static void flush(long timeoutMillis) {
+        if (!running) {
+            return;
+        }
+        long target = ACCEPTED.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written < target && running && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // ==================== 记录 ====================
+
+    /**
+     * 为当前线程（及之后由它创建的线程）的每行输出加上前缀，如 "[账号名] "；null 表示取消
+     * 只对 install() 之后的输出生效，空行不加前缀
+     */
+    public static void setThreadPrefix(String prefix) {
+        if (prefix == null) {
+            PREFIX.remove();
+        } else {
+            PREFIX.set(prefix);
+        }
+    }
+
+    /**
+     * 该级别的输出是否会被任一去处保留（用于跳过昂贵的消息拼接）
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.passes(LOG_CONSOLE_LEVEL) || level.passes(fileLevel);
+    }
+
+    public static void debug(String format, Object... args) {
+        log(LogLevel.DEBUG, format, args);
+    }
+
+    public static void info(String format, Object... args) {
+        log(LogLevel.INFO, format, args);
+    }
+
+    public static void warn(String format, Object... args) {
+        log(LogLevel.WARN, format, args);
+    }
+
+    /**
+     * 结构化事件（DEBUG 级别）
+     *
+     * @param phase 阶段名
+     * @param course 课程信息（与课程无关时为 null）
+     * @param outcome 结果（如 ok、failed）
+     * @param durationMillis 耗时（毫秒）
+     */
+    public static void event(String phase, String course, String outcome, long durationMillis) {
+        if (!isEnabled(LogLevel.DEBUG)) {
+            return;
+        }
+        emit(new Event(System.currentTimeMillis(), LogLevel.DEBUG, Thread.currentThread().getName(),
+                null, phase, course, outcome, durationMillis));
+    }
+
+    private static void log(LogLevel level, String format, Object... args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        String message = args.length == 0 ? format : String.format(format, args);
+        emit(new Event(System.currentTimeMillis(), level, Thread.currentThread().getName(),
+                prefixed(message), null, null, null, -1));
+    }
+
+    private static String prefixed(String message) {
+        String prefix = PREFIX.get();
+        return prefix == null || message.isBlank() ? message : prefix + message;
+    }
+
+    private static void emit(Event event) {
+        if (!running) {
+            writeDirect(event);
+            return;
+        }
+        if (!QUEUE.offer(event)) {
+            DROPPED.increment();
+            return;
+        }
+        ACCEPTED.incrementAndGet();
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // ==================== 后台写出 ====================
+
+    private static void drainLoop() {
+        long count = 0;
+        while (true) {
+            Event event = QUEUE.poll();
+            if (event != null) {
+                write(event);
+                count++;
+                continue;
+            }
+            flushSinks();
+            written = count;
+            reportDropped();
+            if (!running) {
+                return;
+            }
+            writerParked = true;
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            writerParked = false;
+        }
+    }
+
+    private static void write(Event event) {
+        if (event.level().passes(LOG_CONSOLE_LEVEL)) {
+            (event.level() == LogLevel.WARN ? consoleErr : consoleOut).println(event.consoleText());
+        }
+        if (file != null && event.level().passes(fileLevel)) {
+            try {
+                file.write(event.fileText());
+                file.write('\n');
+            } catch (IOException e) {
+                // 文件写入失败后不再写文件，控制台照常
+                fileLevel = LogLevel.OFF;
+                consoleErr.println("⚠️ 日志文件写入失败，已停止写文件: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeDirect(Event event) {
+        if (event.level().passes(LOG_CONSOLE_LEVEL)) {
+            (event.level() == LogLevel.WARN ? System.err : System.out).println(event.consoleText());
+        }
+    }
+
+    private static void flushSinks() {
+        consoleOut.flush();
+        consoleErr.flush();
+        if (file != null) {
+            try {
+                file.flush();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static void reportDropped() {
+        long dropped = DROPPED.sumThenReset();
+        if (dropped > 0) {
+            consoleErr.printf("⚠️ 日志队列已满，丢弃 %d 条输出%n", dropped);
+            consoleErr.flush();
+        }
+    }
+
+    private static void openFile() {
+        if (LOG_FILE_LEVEL == LogLevel.OFF) {
+            return;
+        }
+        try {
+            Path dir = APP_DATA_DIR.resolve("logs");
+            Files.createDirectories(dir);
+            Path path = dir.resolve("autofiller-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".log");
+            file = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 16 * 1024);
+            fileLevel = LOG_FILE_LEVEL;
+        } catch (IOException e) {
+            originalErr.println("⚠️ 日志文件打开失败，本次只输出到控制台: " + e.getMessage());
+        }
+    }
+
+    // ==================== 输出行 ====================
+
+    /**
+     * 一条输出：普通文本（message 非空）或结构化事件
+     */
+    private record Event(long timestamp, LogLevel level, String thread, String message,
+                         String phase, String course, String outcome, long durationMillis) {
+
+        /** 控制台：普通文本原样输出，事件输出为一行简要说明 */
+        private String consoleText() {
+            if (message != null) {
+                return message;
+            }
+            return String.format("   · %s%s → %s（%d ms）",
+                    phase, course == null ? "" : " " + course, outcome, durationMillis);
+        }
+
+        /** 文件：时间 级别 [线程] 内容；事件为 key=value 形式 */
+        private String fileText() {
+            String head = FILE_TIME.format(Instant.ofEpochMilli(timestamp)) + " " + level + " [" + thread + "] ";
+            if (message != null) {
+                return head + message;
+            }
+            return head + "event phase=" + phase
+                    + (course == null ? "" : " course=\"" + course.replace("\"", "'") + "\"")
+                    + " outcome=" + outcome
+                    + " durationMs=" + durationMillis;
+        }
+    }
+
+    /**
+     * 把 PrintStream 写入的字节按行切分后入队
+     * 每个线程各自拼行，多线程同时打印时不会把两行拼在一起
+     */
+    private static final class LineCapture extends OutputStream {
+        private final LogLevel level;
+        private final ThreadLocal<ByteArrayOutputStream> line = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(128));
+
+        private LineCapture(LogLevel level) {
+            this.level = level;
+        }
+
+        @Override
+        public void write(int b) {
+            ByteArrayOutputStream buffer = line.get();
+            if (b == '\n') {
+                emitLine(buffer);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ByteArrayOutputStream buffer = line.get();
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                if (bytes[i] == '\n') {
+                    buffer.write(bytes, start, i - start);
+                    emitLine(buffer);
+                    start = i + 1;
+                }
+            }
+            buffer.write(bytes, start, end - start);
+        }
+
+        private void emitLine(ByteArrayOutputStream buffer) {
+            String text = buffer.toString(StandardCharsets.UTF_8);
+            buffer.reset();
+            if (text.endsWith("\r")) {
+                text = text.substring(0, text.length() - 1);
+            }
+            if (isEnabled(level)) {
+                emit(new Event(System.currentTimeMillis(), level, Thread.currentThread().getName(),
+                        prefixed(text), null, null, null, -1));
+            }
+        }
+    }
+}
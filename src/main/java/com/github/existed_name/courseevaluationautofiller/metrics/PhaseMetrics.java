@@ -0,0 +1,367 @@
+package com.github.existed_name.courseevaluationautofiller.metrics;
+
+import com.github.existed_name.courseevaluationautofiller.log.Log;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 分阶段耗时统计
+ * 每个阶段一个对数分桶直方图，记录只做一次原子自增，多账号、多线程同时记录互不加锁
+ *
+ * <pre>
+ * 分桶：以微秒计，每个 2 的幂区间再等分 8 段（相对误差约 12.5%），覆盖 1 微秒 ~ 数天
+ * 导出：
+ *   运行结束时写入 APP_DATA_DIR/metrics/phases-时间.json 与 .csv
+ *   常驻模式 GET /metrics、多账号模式 -Dautofiller.metrics.port=... 提供 Prometheus 文本格式
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class PhaseMetrics {
+
+    /**
+     * 统计的阶段（metricName 用于导出，label 用于控制台）
+     */
+    public enum Phase {
+        INIT_ENVIRONMENT("initEnvironment", "环境初始化"),
+        NAVIGATE_TO_TARGET("navigateToTarget", "打开首页"),
+        VERIFY_LOGIN_STATUS("verifyLoginStatus", "登录验证"),
+        NAVIGATE_TO_EVALUATION_PAGE("navigateToEvaluationPage", "进入评价列表"),
+        EXTRACT_PENDING_COURSES("extractPendingCourses", "解析评价列表"),
+        NAVIGATE_TO_QUESTIONNAIRE("navigateToQuestionnaire", "打开问卷"),
+        WAIT_FOR_QUESTIONNAIRE_TABLE("waitForQuestionnaireTable", "等待问卷表格"),
+        FILL_ALL_QUESTIONS("fillAllQuestions", "填写选择题"),
+        FILL_COMMENT("fillComment", "填写评语"),
+        FILL_BY_SCRIPT("fillAllByScript", "脚本填写问卷"),
+        SUBMIT_QUESTIONNAIRE("submitQuestionnaire", "提交问卷"),
+        WAIT_FOR_RETURN_TO_LIST("waitForReturnToList", "等待返回列表"),
+        RECOVER_FROM_ERROR("recoverFromError", "错误恢复");
+
+        private final String metricName;
+        private final String label;
+
+        Phase(String metricName, String label) {
+            this.metricName = metricName;
+            this.label = label;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Map<Phase, Histogram> HISTOGRAMS = new EnumMap<>(Phase.class);
+
+    static {
+        for (Phase phase : Phase.values()) {
+            HISTOGRAMS.put(phase, new Histogram());
+        }
+    }
+
+    /** 导出的分位数 */
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    /** Prometheus 文本格式的 Content-Type */
+    public static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+    private PhaseMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // ==================== 记录 ====================
+
+    /**
+     * 开始计时（配合 stop 使用，适用于会抛出受检异常的阶段）
+     *
+     * @return 起始时间（纳秒）
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束计时并记录（无论阶段成功与否都应在 finally 中调用）
+     *
+     * @param phase 阶段
+     * @param startNanos start() 的返回值
+     */
+    public static void stop(Phase phase, long startNanos) {
+        long micros = (System.nanoTime() - startNanos) / 1_000;
+        HISTOGRAMS.get(phase).record(micros);
+        Log.event(phase.metricName(), null, "done", micros / 1_000);
+    }
+
+    /**
+     * 计时执行一个阶段
+     */
+    public static void time(Phase phase, Runnable action) {
+        long start = start();
+        try {
+            action.run();
+        } finally {
+            stop(phase, start);
+        }
+    }
+
+    /**
+     * 计时执行一个有返回值的阶段
+     */
+    public static <T> T time(Phase phase, Supplier<T> action) {
+        long start = start();
+        try {
+            return action.get();
+        } finally {
+            stop(phase, start);
+        }
+    }
+
+    // ==================== 控制台输出 ====================
+
+    /**
+     * 各阶段的 p50 / p95 摘要（只含记录过的阶段），供任务总结框打印
+     */
+    public static List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Phase, Histogram> entry : HISTOGRAMS.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long count = histogram.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            lines.add(String.format(Locale.ROOT, "%s: %d 次，p50 %.0f ms / p95 %.0f ms",
+                    entry.getKey().label(), count,
+                    histogram.percentileMicros(0.5) / 1000.0, histogram.percentileMicros(0.95) / 1000.0));
+        }
+        return lines;
+    }
+
+    // ==================== 导出 ====================
+
+    /**
+     * 把当前统计写入 APP_DATA_DIR/metrics/phases-时间.json 与 .csv（没有任何记录时不写）
+     */
+    public static void export() {
+        if (HISTOGRAMS.values().stream().allMatch(histogram -> histogram.count.sum() == 0)) {
+            return;
+        }
+        try {
+            Path dir = APP_DATA_DIR.resolve("metrics");
+            Files.createDirectories(dir);
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            Path json = dir.resolve("phases-" + stamp + ".json");
+            Path csv = dir.resolve("phases-" + stamp + ".csv");
+            Files.writeString(json, toJson(), StandardCharsets.UTF_8);
+            Files.writeString(csv, toCsv(), StandardCharsets.UTF_8);
+            System.out.println("📊 阶段耗时已导出: " + json);
+        } catch (IOException e) {
+            System.err.println("⚠️ 阶段耗时导出失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * JSON：每个阶段的次数、合计、分位数，以及非空分桶 [桶上界(微秒), 次数]
+     */
+    public static String toJson() {
+        StringBuilder out = new StringBuilder("{\"phases\":[");
+        boolean first = true;
+        for (Map.Entry<Phase, Histogram> entry : HISTOGRAMS.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.count.sum() == 0) {
+                continue;
+            }
+            out.append(first ? "" : ",")
+                    .append("{\"phase\":\"").append(entry.getKey().metricName()).append('"')
+                    .append(",\"count\":").append(histogram.count.sum())
+                    .append(",\"sumMillis\":").append(millis(histogram.sumMicros.sum()));
+            for (double quantile : QUANTILES) {
+                out.append(",\"p").append(Math.round(quantile * 100)).append("Millis\":")
+                        .append(millis(histogram.percentileMicros(quantile)));
+            }
+            out.append(",\"maxMillis\":").append(millis(histogram.maxMicros.get()))
+                    .append(",\"buckets\":[");
+            boolean firstBucket = true;
+            for (int i = 0; i < Histogram.BUCKETS; i++) {
+                long bucketCount = histogram.counts.get(i);
+                if (bucketCount > 0) {
+                    out.append(firstBucket ? "" : ",")
+                            .append('[').append(Histogram.upperBoundMicros(i)).append(',').append(bucketCount).append(']');
+                    firstBucket = false;
+                }
+            }
+            out.append("]}");
+            first = false;
+        }
+        return out.append("]}").toString();
+    }
+
+    /**
+     * CSV：每个阶段一行
+     */
+    public static String toCsv() {
+        StringBuilder out = new StringBuilder("phase,count,sum_ms,p50_ms,p95_ms,p99_ms,max_ms\n");
+        for (Map.Entry<Phase, Histogram> entry : HISTOGRAMS.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.count.sum() == 0) {
+                continue;
+            }
+            out.append(entry.getKey().metricName())
+                    .append(',').append(histogram.count.sum())
+                    .append(',').append(millis(histogram.sumMicros.sum()));
+            for (double quantile : QUANTILES) {
+                out.append(',').append(millis(histogram.percentileMicros(quantile)));
+            }
+            out.append(',').append(millis(histogram.maxMicros.get())).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Prometheus 文本格式（summary：分位数 + _sum + _count，单位秒）
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder()
+                .append("# HELP autofiller_phase_seconds Duration of each automation phase.\n")
+                .append("# TYPE autofiller_phase_seconds summary\n");
+        for (Map.Entry<Phase, Histogram> entry : HISTOGRAMS.entrySet()) {
+            Histogram histogram = entry.getValue();
+            String phase = entry.getKey().metricName();
+            for (double quantile : QUANTILES) {
+                out.append("autofiller_phase_seconds{phase=\"").append(phase)
+                        .append("\",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.percentileMicros(quantile))).append('\n');
+            }
+            out.append("autofiller_phase_seconds_sum{phase=\"").append(phase).append("\"} ")
+                    .append(seconds(histogram.sumMicros.sum())).append('\n')
+                    .append("autofiller_phase_seconds_count{phase=\"").append(phase).append("\"} ")
+                    .append(histogram.count.sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * 在本机端口上提供 GET /metrics（多账号模式使用；常驻模式由 DaemonServer 自带）
+     *
+     * @param port 端口
+     * @return 已启动的服务，调用方负责 stop
+     */
+    public static HttpServer startEndpoint(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PROMETHEUS_CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        System.out.println("📊 阶段耗时: http://127.0.0.1:" + port + "/metrics");
+        return server;
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.3f", micros / 1000.0);
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    // ==================== 直方图 ====================
+
+    /**
+     * 对数分桶直方图（微秒）
+     * 桶下标：小于 8 的值直接作下标；其余按最高位所在的 2 的幂区间分组，每组 8 个桶
+     * 包内可见，便于单元测试直接校验分桶与分位数
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        /** 覆盖到 2^40 微秒（约 12 天），更大的值计入最后一个桶 */
+        static final int BUCKETS = (40 - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(long micros) {
+            long value = Math.max(0, micros);
+            counts.incrementAndGet(bucketOf(value));
+            count.increment();
+            sumMicros.add(value);
+            maxMicros.accumulateAndGet(value, Math::max);
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return Math.min(BUCKETS - 1, (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub);
+        }
+
+        /**
+         * 桶的上界（不含）
+         */
+        static long upperBoundMicros(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket + 1;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            return (long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        /**
+         * 分位数估计：取目标名次所在桶的上界，不超过实际最大值
+         */
+        long percentileMicros(double quantile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundMicros(i), maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.openqa.selenium.WebElement;
  * @param credits 学分（第4列，如：2.50）
  * @param weeks 周次（第5列，如：02-09）
  * @param evalButton 网上评价按钮（第6列）
+ * @param evalHref 网上评价按钮的链接（未获取时为 null）
  *
  * @author <a href="https://github.com/existed-name"> existed-name </a>
  * @author <a href="https://claude.ai/new"> Claude4.5 </a>
@@ -27,15 +28,32 @@ public record CourseEvaluation(
     String teacherName,
     String credits,
     String weeks,
-    WebElement evalButton
+    WebElement evalButton,
+    String evalHref
 ) {
     
     /**
      * 判断是否需要评价
      * 根据你的需求：只要出现在列表里就是待评价
+     * 离线解析得到的记录没有按钮元素，有链接即视为待评价
      */
     public boolean needsEvaluation() {
-        return evalButton != null && evalButton.isDisplayed();
+        if (evalButton != null) {
+            return evalButton.isDisplayed();
+        }
+        return evalHref != null && !evalHref.isBlank();
+    }
+    
+    /**
+     * 可直接打开的问卷链接
+     * 
+     * @return 问卷链接；未获取到链接或是 javascript: 伪链接时返回 null（只能点击按钮进入）
+     */
+    public String directHref() {
+        if (evalHref == null || evalHref.isBlank() || evalHref.strip().toLowerCase().startsWith("javascript:")) {
+            return null;
+        }
+        return evalHref.strip();
     }
     
     /**
@@ -58,6 +76,6 @@ public record CourseEvaluation(
             teacherName, 
             credits, 
             weeks,
-            evalButton != null ? "可评价" : "无按钮");
+            evalButton != null || evalHref != null ? "可评价" : "无按钮");
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.github.existed_name.courseevaluationautofiller.model;
+
+/**
+ * 单门课程的评价进度
+ * 顺序即正常流程中的先后顺序；FAILED 表示本次尝试失败，下次仍会重新评价
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public enum CourseState {
+
+    /** 在评价列表中发现 */
+    DISCOVERED,
+
+    /** 已打开问卷 */
+    OPENED,
+
+    /** 问卷已填写（尚未提交） */
+    FILLED,
+
+    /** 已点击提交（服务器是否接受未确认） */
+    SUBMITTED,
+
+    /** 已确认完成（课程已从评价列表中消失） */
+    CONFIRMED,
+
+    /** 本次尝试失败 */
+    FAILED;
+
+    /**
+     * 是否为未结束的进行中状态（程序中断时停留在这些状态的课程需要核对）
+     */
+    public boolean isInFlight() {
+        return this == OPENED || this == FILLED || this == SUBMITTED;
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.existed_name.courseevaluationautofiller.model;
+
+/**
+ * 单门课程的评价结果
+ *
+ * @param course 对应的课程
+ * @param success 是否提交成功
+ * @param message 结果说明（失败时为失败原因）
+ * @param elapsedMillis 从打开问卷到确认提交的耗时（毫秒）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public record EvaluationResult(
+    CourseEvaluation course,
+    boolean success,
+    String message,
+    long elapsedMillis
+) {
+
+    public static EvaluationResult success(CourseEvaluation course, long elapsedMillis) {
+        return new EvaluationResult(course, true, "提交成功", elapsedMillis);
+    }
+
+    public static EvaluationResult failure(CourseEvaluation course, String message, long elapsedMillis) {
+        return new EvaluationResult(course, false, message, elapsedMillis);
+    }
+
+    /**
+     * 格式化输出
+     */
+    @Override
+    public String toString() {
+        return String.format("%s %s（%d ms）%s",
+            success ? "✓" : "✗",
+            course.getFullInfo(),
+            elapsedMillis,
+            success ? "" : " - " + message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.existed_name.courseevaluationautofiller.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 问卷表单数据模型
+ * 由问卷页 HTML 解析得到，用于直连 HTTP 模式下构造提交请求
+ *
+ * @param actionUrl 表单提交地址（绝对地址）
+ * @param method 提交方法（GET / POST）
+ * @param charset 表单编码（用于 URL 编码请求体）
+ * @param fields 表单中原有的字段（隐藏输入框、提交按钮等，按页面顺序）
+ * @param questions 单选题列表（按页面顺序）
+ * @param commentField 评语字段名（页面无评语框时为 null）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public record QuestionnaireForm(
+    String actionUrl,
+    String method,
+    String charset,
+    List<Map.Entry<String, String>> fields,
+    List<Question> questions,
+    String commentField
+) {
+
+    /**
+     * 单道选择题
+     *
+     * @param fieldName 题目对应的表单字段名（无法识别时为 null）
+     * @param options 可选的 data-opt 值（按页面顺序）
+     */
+    public record Question(String fieldName, List<String> options) {
+
+        public boolean isResolvable() {
+            return fieldName != null && !options.isEmpty();
+        }
+    }
+
+    /**
+     * 所有题目都能映射到表单字段时，才能绕过浏览器直接提交
+     */
+    public boolean isSubmittable() {
+        return !questions.isEmpty() && questions.stream().allMatch(Question::isResolvable);
+    }
+}
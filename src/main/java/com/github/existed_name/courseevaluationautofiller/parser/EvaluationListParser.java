@@ -0,0 +1,146 @@
+package com.github.existed_name.courseevaluationautofiller.parser;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 评价列表页解析器
+ * 在 JVM 内解析列表页 HTML，得到不依赖浏览器元素的课程快照（只带按钮链接）
+ *
+ * 选择器在类加载时编译一次，每次解析只做匹配；单元格按行内第 n 个 td 取值，与 XPATH_CELL_*（./td[n]）一致
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class EvaluationListParser {
+
+    /** 单元格列号（0 起，对应 XPATH_CELL_* 的 td[1]~td[6]） */
+    private static final int CELL_INDEX = 0;
+    private static final int CELL_DEPARTMENT = 1;
+    private static final int CELL_COURSE_TEACHER = 2;
+    private static final int CELL_CREDITS = 3;
+    private static final int CELL_WEEKS = 4;
+    private static final int CELL_BUTTON = 5;
+
+    private static final List<Evaluator> COMPLETED_INDICATORS = compile(CSS_ALL_COMPLETED_INDICATORS);
+    private static final List<Evaluator> EVALUATION_TABLES = compile(CSS_EVALUATION_TABLE);
+    private static final List<Evaluator> EVAL_BUTTONS = compile(CSS_EVAL_BUTTON);
+
+    /** 对应 XPATH_TABLE_ROWS：优先 tbody 下的行，否则跳过表头行 */
+    private static final Evaluator BODY_ROWS = QueryParser.parse("tbody > tr");
+    private static final Evaluator ROWS_AFTER_HEADER = QueryParser.parse("tr:gt(0)");
+
+    private EvaluationListParser() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 是否显示"太棒了"完成提示
+     */
+    public static boolean isAllCompleted(Document document) {
+        for (Evaluator indicator : COMPLETED_INDICATORS) {
+            if (document.selectFirst(indicator) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析待评价课程
+     * 表格结构：序号 | 任课单位 | 课程-教师 | 学分 | 周次 | 按钮
+     *
+     * @param document 列表页文档（需带 baseUri，用于补全相对链接）
+     * @return 待评价课程（已完成或未找到表格时返回空列表）
+     */
+    public static List<CourseEvaluation> parsePendingCourses(Document document) {
+        List<CourseEvaluation> courses = new ArrayList<>();
+        if (isAllCompleted(document)) {
+            return courses;
+        }
+
+        Element table = locateTable(document);
+        if (table == null) {
+            throw new IllegalStateException("所有CSS方案均失败，未找到评价表格");
+        }
+
+        Elements rows = table.select(BODY_ROWS);
+        if (rows.isEmpty()) {
+            rows = table.select(ROWS_AFTER_HEADER);
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            CourseEvaluation course = parseRow(rows.get(i), i + 1);
+            if (course.needsEvaluation()) {
+                courses.add(course);
+            }
+        }
+        return courses;
+    }
+
+    private static Element locateTable(Document document) {
+        for (Evaluator css : EVALUATION_TABLES) {
+            Element table = document.selectFirst(css);
+            if (table != null) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    private static CourseEvaluation parseRow(Element row, int rowNumber) {
+        List<Element> cells = dataCells(row);
+        String index = cellText(cells, CELL_INDEX, String.valueOf(rowNumber));
+        String department = cellText(cells, CELL_DEPARTMENT, "未知单位");
+        String[] parts = cellText(cells, CELL_COURSE_TEACHER, "").split(" - ");
+        String courseName = parts.length > 0 ? parts[0].trim() : "未知课程";
+        String teacherName = parts.length > 1 ? parts[1].trim() : "未知教师";
+        String credits = cellText(cells, CELL_CREDITS, "0.00");
+        String weeks = cellText(cells, CELL_WEEKS, "未知");
+        String href = cells.size() > CELL_BUTTON ? findButtonHref(cells.get(CELL_BUTTON)) : null;
+
+        return new CourseEvaluation(index, department, courseName, teacherName, credits, weeks, null, href);
+    }
+
+    /**
+     * 行内直接子元素中的 td（与 ./td[n] 相同，不计 th）
+     */
+    private static List<Element> dataCells(Element row) {
+        List<Element> cells = new ArrayList<>(CELL_BUTTON + 1);
+        for (Element child : row.children()) {
+            if ("td".equals(child.normalName())) {
+                cells.add(child);
+            }
+        }
+        return cells;
+    }
+
+    private static String cellText(List<Element> cells, int column, String defaultValue) {
+        return cells.size() > column ? cells.get(column).text().trim() : defaultValue;
+    }
+
+    private static String findButtonHref(Element buttonCell) {
+        for (Evaluator css : EVAL_BUTTONS) {
+            Element button = buttonCell.selectFirst(css);
+            if (button != null) {
+                String href = button.absUrl("href");
+                return href.isEmpty() ? null : href;
+            }
+        }
+        return null;
+    }
+
+    private static List<Evaluator> compile(String[] selectors) {
+        return Arrays.stream(selectors).map(QueryParser::parse).toList();
+    }
+}
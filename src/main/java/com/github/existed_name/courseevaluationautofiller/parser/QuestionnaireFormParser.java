@@ -0,0 +1,151 @@
+package com.github.existed_name.courseevaluationautofiller.parser;
+
+import com.github.existed_name.courseevaluationautofiller.model.QuestionnaireForm;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 问卷页表单解析器
+ * 找到提交按钮 #postTrigger 所在的表单，提取隐藏字段、每道题的字段名与 data-opt 选项、评语字段
+ *
+ * <pre>
+ * 题目字段名识别顺序：
+ * 1. 选项单元格内的隐藏输入框
+ * 2. 选项单元格所在行内的隐藏输入框
+ * 3. 单元格 / 选项上的 QUESTION_FIELD_ATTRIBUTES 属性
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class QuestionnaireFormParser {
+
+    private QuestionnaireFormParser() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 解析问卷表单
+     *
+     * @param document 问卷页文档（需带 baseUri，用于补全提交地址）
+     */
+    public static QuestionnaireForm parse(Document document) {
+        Element form = locateForm(document);
+        if (form == null) {
+            throw new IllegalStateException("未找到问卷表单");
+        }
+
+        // 题目
+        List<QuestionnaireForm.Question> questions = new ArrayList<>();
+        Set<String> questionFields = new HashSet<>();
+        for (Element cell : document.select(CSS_ALL_OPTION_CELLS)) {
+            List<String> options = new ArrayList<>();
+            for (Element option : cell.select(CSS_OPTION)) {
+                options.add(option.attr("data-opt"));
+            }
+            String fieldName = resolveQuestionField(cell);
+            if (fieldName != null) {
+                questionFields.add(fieldName);
+            }
+            questions.add(new QuestionnaireForm.Question(fieldName, options));
+        }
+
+        // 评语
+        Element comment = document.getElementById(ID_COMMENT_TEXTAREA);
+        String commentField = comment == null ? null
+                : comment.hasAttr("name") ? comment.attr("name") : comment.id();
+
+        // 其余字段（隐藏输入框等），题目与评语字段由调用方填写
+        List<Map.Entry<String, String>> fields = new ArrayList<>();
+        for (Element input : form.select("input[name], select[name], textarea[name], button[name]")) {
+            String name = input.attr("name");
+            if (questionFields.contains(name) || name.equals(commentField) || !isSuccessfulControl(input)) {
+                continue;
+            }
+            fields.add(new AbstractMap.SimpleImmutableEntry<>(name, controlValue(input)));
+        }
+
+        String action = form.hasAttr("action") ? form.absUrl("action") : document.location();
+        String method = form.attr("method").isBlank() ? "GET" : form.attr("method").toUpperCase();
+        String charset = form.attr("accept-charset").isBlank()
+                ? document.charset().name()
+                : form.attr("accept-charset").split("[ ,]")[0];
+
+        return new QuestionnaireForm(action, method, charset, fields, questions, commentField);
+    }
+
+    /**
+     * 提交按钮所在表单；没有则取包含问卷表格的表单
+     */
+    private static Element locateForm(Document document) {
+        Element submit = document.getElementById(ID_SUBMIT_BUTTON);
+        Element form = submit == null ? null : submit.closest("form");
+        if (form == null) {
+            Element sheet = document.getElementById(ID_QUESTIONNAIRE_TABLE);
+            form = sheet == null ? null : sheet.closest("form");
+        }
+        return form != null ? form : document.selectFirst("form");
+    }
+
+    private static String resolveQuestionField(Element cell) {
+        Element hidden = cell.selectFirst("input[type=hidden][name]");
+        if (hidden == null && cell.parent() != null) {
+            hidden = cell.parent().selectFirst("input[type=hidden][name]");
+        }
+        if (hidden != null) {
+            return hidden.attr("name");
+        }
+        Element firstOption = cell.selectFirst(CSS_OPTION);
+        for (String attribute : QUESTION_FIELD_ATTRIBUTES) {
+            if (cell.hasAttr(attribute)) {
+                return cell.attr(attribute);
+            }
+            if (firstOption != null && firstOption.hasAttr(attribute)) {
+                return firstOption.attr(attribute);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 HTML 表单规则判断控件是否随表单提交
+     * 提交按钮只在本身就是 #postTrigger 时提交
+     */
+    private static boolean isSuccessfulControl(Element input) {
+        if (input.hasAttr("disabled") && !input.id().equals(ID_SUBMIT_BUTTON)) {
+            return false;
+        }
+        String type = input.attr("type").toLowerCase();
+        if (input.tagName().equals("button") || type.equals("submit") || type.equals("button")
+                || type.equals("image") || type.equals("reset")) {
+            return input.id().equals(ID_SUBMIT_BUTTON);
+        }
+        if (type.equals("checkbox") || type.equals("radio")) {
+            return input.hasAttr("checked");
+        }
+        return !type.equals("file");
+    }
+
+    private static String controlValue(Element input) {
+        if (input.tagName().equals("textarea")) {
+            return input.text();
+        }
+        if (input.tagName().equals("select")) {
+            Element selected = input.selectFirst("option[selected]");
+            if (selected == null) {
+                selected = input.selectFirst("option");
+            }
+            return selected == null ? "" : selected.hasAttr("value") ? selected.attr("value") : selected.text();
+        }
+        return input.attr("value");
+    }
+}
@@ -0,0 +1,366 @@
+package com.github.existed_name.courseevaluationautofiller.policy;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 作答策略
+ * 启动时把规则文件编译为不可变的选项安排（CourseAnswers），填写时按课程选出一条规则、按题号取数组元素，
+ * 不再做字符串匹配或正则运算
+ *
+ * <pre>
+ * 规则文件（-Dautofiller.answerPolicy=路径，UTF-8，# 开头为注释）：
+ *   option 1                 所有题目选 data-opt="1"
+ *   option 3=2 5=2           第 3、5 题选 2（题号从 1 开始，可与上一条组合）
+ *   distribution 1:8 2:2     其余题目按比例轮换：每 5 题中 4 题选 1、1 题选 2（按题号确定，每门课程相同）
+ *   comment 老师讲课认真 | 课程内容充实    评语模板，按课程依次轮换
+ *
+ *   [teacher 张三]           以下规则只对教师姓名包含"张三"的课程生效，也可写 [course 关键字]、[department 关键字]
+ *   option 2                 块内指令在默认规则（第一个块之前的指令）基础上覆盖
+ *   comment 无
+ *
+ * 课程按块在文件中的顺序匹配，第一个命中的块生效；都不命中时使用默认规则
+ * 未指定规则文件时所有题目选 OPTION_VERY_SATISFIED、评语为 DEFAULT_COMMENT
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class AnswerPolicy {
+
+    /** 合法的选项值（会被传给填写脚本、填入请求体） */
+    private static final Pattern OPTION_VALUE = Pattern.compile("[^\\s'\"=:|\\[\\]]+");
+
+    /** 块头：[teacher 关键字] */
+    private static final Pattern BLOCK_HEADER = Pattern.compile("\\[(teacher|course|department)\\s+(.+)]");
+
+    private static volatile AnswerPolicy instance;
+
+    private final Rule defaults;
+    private final List<Rule> rules;
+    private final String source;
+
+    private AnswerPolicy(Rule defaults, List<Rule> rules, String source) {
+        this.defaults = defaults;
+        this.rules = List.copyOf(rules);
+        this.source = source;
+    }
+
+    /**
+     * 获取全局策略（首次调用时读取并编译规则文件）
+     *
+     * @throws IllegalArgumentException 规则文件不存在或格式错误
+     */
+    public static AnswerPolicy getInstance() {
+        if (instance == null) {
+            synchronized (AnswerPolicy.class) {
+                if (instance == null) {
+                    AnswerPolicy policy = ANSWER_POLICY_FILE == null ? builtIn() : load(ANSWER_POLICY_FILE);
+                    System.out.println("📝 作答策略: " + policy.describe());
+                    instance = policy;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 内置策略：所有题目选 OPTION_VERY_SATISFIED，评语为 DEFAULT_COMMENT
+     */
+    public static AnswerPolicy builtIn() {
+        return compile(List.of(), "内置");
+    }
+
+    /**
+     * 读取并编译规则文件
+     */
+    public static AnswerPolicy load(Path file) {
+        try {
+            return compile(Files.readAllLines(file, StandardCharsets.UTF_8), file.toString());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("作答策略文件读取失败: " + file + "（" + e.getMessage() + "）", e);
+        }
+    }
+
+    /**
+     * 编译规则文本
+     *
+     * @param lines 规则文件的各行
+     * @param source 来源描述（用于日志）
+     * @throws IllegalArgumentException 格式错误（消息中包含行号）
+     */
+    public static AnswerPolicy compile(List<String> lines, String source) {
+        RuleBuilder defaults = new RuleBuilder(null, null);
+        List<RuleBuilder> blocks = new ArrayList<>();
+        RuleBuilder current = defaults;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                var header = BLOCK_HEADER.matcher(line);
+                if (header.matches()) {
+                    current = new RuleBuilder(Field.valueOf(header.group(1).toUpperCase()), header.group(2).strip());
+                    current.inherit(defaults);
+                    blocks.add(current);
+                } else if (line.startsWith("[")) {
+                    throw new IllegalArgumentException("未知的块头，应为 [teacher|course|department 关键字]");
+                } else {
+                    current.apply(line);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "作答策略第 " + (i + 1) + " 行格式错误: " + line + "（" + e.getMessage() + "）", e);
+            }
+        }
+
+        List<Rule> rules = new ArrayList<>();
+        for (RuleBuilder block : blocks) {
+            rules.add(block.build());
+        }
+        return new AnswerPolicy(defaults.build(), rules, source);
+    }
+
+    /**
+     * 选出课程适用的规则，生成该课程的作答内容（评语按规则轮换）
+     */
+    public CourseAnswers forCourse(CourseEvaluation course) {
+        for (Rule rule : rules) {
+            if (rule.matches(course)) {
+                return rule.next();
+            }
+        }
+        return defaults.next();
+    }
+
+    /**
+     * 默认规则的作答内容（不知道具体课程时使用，如基准测试）
+     */
+    public CourseAnswers defaults() {
+        return defaults.next();
+    }
+
+    /**
+     * 策略概要（用于启动日志）
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder(source).append("，默认 ").append(defaults.summary());
+        for (Rule rule : rules) {
+            description.append("；").append(rule.summary());
+        }
+        return description.toString();
+    }
+
+    /**
+     * 规则适用的课程字段
+     */
+    private enum Field {
+        TEACHER, COURSE, DEPARTMENT;
+
+        String of(CourseEvaluation course) {
+            String value = switch (this) {
+                case TEACHER -> course.teacherName();
+                case COURSE -> course.courseName();
+                case DEPARTMENT -> course.department();
+            };
+            return value == null ? "" : value;
+        }
+    }
+
+    /**
+     * 编译后的一条规则
+     */
+    private static final class Rule {
+
+        private final Field field;
+        private final String keyword;
+        private final CourseAnswers.Template template;
+        private final String[] comments;
+        private final AtomicInteger nextComment = new AtomicInteger();
+        private final String summary;
+
+        private Rule(Field field, String keyword, CourseAnswers.Template template, String[] comments, String summary) {
+            this.field = field;
+            this.keyword = keyword;
+            this.template = template;
+            this.comments = comments;
+            this.summary = summary;
+        }
+
+        private boolean matches(CourseEvaluation course) {
+            return field.of(course).contains(keyword);
+        }
+
+        private CourseAnswers next() {
+            String comment = comments[Math.floorMod(nextComment.getAndIncrement(), comments.length)];
+            return new CourseAnswers(template, comment);
+        }
+
+        private String summary() {
+            return summary;
+        }
+    }
+
+    /**
+     * 规则编译过程中的可变状态
+     */
+    private static final class RuleBuilder {
+
+        private final Field field;
+        private final String keyword;
+        private final TreeMap<Integer, String> explicit = new TreeMap<>();
+        private List<String> cycle = List.of(OPTION_VERY_SATISFIED);
+        private List<String> comments = List.of(DEFAULT_COMMENT);
+
+        private RuleBuilder(Field field, String keyword) {
+            this.field = field;
+            this.keyword = keyword;
+        }
+
+        private void inherit(RuleBuilder defaults) {
+            explicit.putAll(defaults.explicit);
+            cycle = defaults.cycle;
+            comments = defaults.comments;
+        }
+
+        private void apply(String line) {
+            String[] parts = line.split("\\s+", 2);
+            String argument = parts.length == 2 ? parts[1].strip() : "";
+            if (argument.isEmpty()) {
+                throw new IllegalArgumentException("缺少参数");
+            }
+            switch (parts[0]) {
+                case "option" -> applyOption(argument);
+                case "distribution" -> cycle = distribution(argument);
+                case "comment" -> comments = commentTemplates(argument);
+                default -> throw new IllegalArgumentException("未知指令 " + parts[0] + "，应为 option / distribution / comment");
+            }
+        }
+
+        /**
+         * option 值：所有题目选同一项；option 题号=值：逐题指定
+         */
+        private void applyOption(String argument) {
+            for (String token : argument.split("\\s+")) {
+                int eq = token.indexOf('=');
+                if (eq < 0) {
+                    explicit.clear();
+                    cycle = List.of(optionValue(token));
+                    continue;
+                }
+                int question;
+                try {
+                    question = Integer.parseInt(token.substring(0, eq));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("题号不是数字: " + token);
+                }
+                if (question < 1) {
+                    throw new IllegalArgumentException("题号从 1 开始: " + token);
+                }
+                explicit.put(question - 1, optionValue(token.substring(eq + 1)));
+            }
+        }
+
+        /**
+         * 按比例展开为平滑轮换序列（平滑加权轮询，同一选项尽量不连续出现）
+         */
+        private static List<String> distribution(String argument) {
+            List<String> values = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            int divisor = 0;
+            for (String token : argument.split("\\s+")) {
+                int colon = token.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("比例应写作 值:权重: " + token);
+                }
+                int weight;
+                try {
+                    weight = Integer.parseInt(token.substring(colon + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("权重不是数字: " + token);
+                }
+                if (weight < 1) {
+                    throw new IllegalArgumentException("权重至少为 1: " + token);
+                }
+                values.add(optionValue(token.substring(0, colon)));
+                weights.add(weight);
+                divisor = gcd(divisor, weight);
+            }
+
+            int total = 0;
+            for (int i = 0; i < weights.size(); i++) {
+                weights.set(i, weights.get(i) / divisor);
+                total += weights.get(i);
+            }
+            int[] current = new int[values.size()];
+            List<String> sequence = new ArrayList<>(total);
+            for (int n = 0; n < total; n++) {
+                int best = 0;
+                for (int i = 0; i < current.length; i++) {
+                    current[i] += weights.get(i);
+                    if (current[i] > current[best]) {
+                        best = i;
+                    }
+                }
+                current[best] -= total;
+                sequence.add(values.get(best));
+            }
+            return List.copyOf(sequence);
+        }
+
+        private static List<String> commentTemplates(String argument) {
+            List<String> templates = new ArrayList<>();
+            for (String template : argument.split("\\|")) {
+                if (!template.isBlank()) {
+                    templates.add(template.strip());
+                }
+            }
+            if (templates.isEmpty()) {
+                throw new IllegalArgumentException("评语不能为空");
+            }
+            return List.copyOf(templates);
+        }
+
+        private static String optionValue(String value) {
+            if (!OPTION_VALUE.matcher(value).matches()) {
+                throw new IllegalArgumentException("选项值不合法: " + value);
+            }
+            return value;
+        }
+
+        private static int gcd(int a, int b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        /**
+         * 逐题指定的空位在编译时用轮换序列补齐，填写时无需判断
+         */
+        private Rule build() {
+            int length = explicit.isEmpty() ? 0 : explicit.lastKey() + 1;
+            String[] explicitArray = new String[length];
+            for (int i = 0; i < length; i++) {
+                explicitArray[i] = explicit.getOrDefault(i, cycle.get(i % cycle.size()));
+            }
+            CourseAnswers.Template template = new CourseAnswers.Template(explicitArray, cycle.toArray(String[]::new));
+
+            String summary = (cycle.size() == 1 ? "选项 " + cycle.get(0) : "按比例轮换 " + String.join("", cycle))
+                    + (explicit.isEmpty() ? "" : "，逐题指定 " + explicit.size() + " 题")
+                    + "，评语 " + comments.size() + " 条";
+            return new Rule(field, keyword, template, comments.toArray(String[]::new),
+                    field == null ? summary : field.name().toLowerCase() + " " + keyword + ": " + summary);
+        }
+    }
+}
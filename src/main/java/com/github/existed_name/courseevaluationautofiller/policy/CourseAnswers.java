@@ -0,0 +1,73 @@
+package com.github.existed_name.courseevaluationautofiller.policy;
+
+import java.util.List;
+
+/**
+ * 一门课程的作答内容（由 AnswerPolicy 编译生成，不可变）
+ *
+ * <pre>
+ * 第 i 道题（从 0 开始）选择的 data-opt 值：
+ *   i 小于 explicitOptions 长度时取 explicitOptions[i]（逐题指定，未指定的位置已在编译时用轮换序列补齐）
+ *   否则取 cycleOptions[i % 轮换长度]（统一选项或按比例分布）
+ * 选项值在编译时算好，填写时只做数组下标访问
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class CourseAnswers {
+
+    private final Template template;
+    private final String comment;
+
+    CourseAnswers(Template template, String comment) {
+        this.template = template;
+        this.comment = comment;
+    }
+
+    /**
+     * 第 questionIndex 道题（从 0 开始）选择的 data-opt 值
+     */
+    public String option(int questionIndex) {
+        return questionIndex < template.explicit.length
+                ? template.explicit[questionIndex]
+                : template.cycle[questionIndex % template.cycle.length];
+    }
+
+    /** 逐题指定的选项（传给填写脚本） */
+    public List<String> explicitOptions() {
+        return template.explicitList;
+    }
+
+    /** 轮换选项序列（传给填写脚本） */
+    public List<String> cycleOptions() {
+        return template.cycleList;
+    }
+
+    /** 评语 */
+    public String comment() {
+        return comment;
+    }
+
+    /**
+     * 编译后的选项安排（同一条规则的所有课程共用）
+     */
+    static final class Template {
+
+        private final String[] explicit;
+        private final String[] cycle;
+        private final List<String> explicitList;
+        private final List<String> cycleList;
+
+        /**
+         * @param explicit 逐题指定的选项（无 null）
+         * @param cycle 轮换序列（至少一项）
+         */
+        Template(String[] explicit, String[] cycle) {
+            this.explicit = explicit.clone();
+            this.cycle = cycle.clone();
+            this.explicitList = List.of(explicit);
+            this.cycleList = List.of(cycle);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+/**
+ * 模拟教务系统的故障注入配置
+ *
+ * <pre>
+ * 命令行参数（StubPortalServer 与 LoadDriver 通用）：
+ *   --latency 毫秒          每个请求的固定服务端延迟
+ *   --jitter 毫秒           在固定延迟之上再随机增加 0~jitter 毫秒
+ *   --error-rate 比例       列表、问卷与提交请求返回 503 的概率（0~1，首页不注入，保证登录验证稳定）
+ *   --slow-xhr 毫秒         问卷页加载后发出一个耗时这么久的 XHR（考验"网络空闲"类就绪等待）
+ *   --disabled-submit 比例  问卷页的提交按钮在全部作答后仍保持禁用的概率（考验 FormFiller 的兜底处理）
+ *   --seed 数字             随机种子（相同种子下，同一课程同一事件的第 n 次请求注入结果相同，与并发顺序无关）
+ * </pre>
+ *
+ * @param latencyMillis 固定延迟（毫秒）
+ * @param jitterMillis 随机附加延迟上限（毫秒）
+ * @param errorRate 返回 503 的概率
+ * @param slowXhrMillis 问卷页慢 XHR 的耗时（毫秒，0 表示不发出）
+ * @param disabledSubmitRate 提交按钮保持禁用的概率
+ * @param seed 随机种子
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public record FaultProfile(
+    long latencyMillis,
+    long jitterMillis,
+    double errorRate,
+    long slowXhrMillis,
+    double disabledSubmitRate,
+    long seed
+) {
+
+    /** 不注入任何故障 */
+    public static final FaultProfile NONE = new FaultProfile(0, 0, 0, 0, 0, 42);
+
+    public FaultProfile {
+        if (latencyMillis < 0 || jitterMillis < 0 || slowXhrMillis < 0) {
+            throw new IllegalArgumentException("延迟不能为负数");
+        }
+        if (errorRate < 0 || errorRate > 1 || disabledSubmitRate < 0 || disabledSubmitRate > 1) {
+            throw new IllegalArgumentException("概率必须在 0~1 之间");
+        }
+    }
+
+    /**
+     * 是否注入了任何故障
+     */
+    public boolean isActive() {
+        return latencyMillis > 0 || jitterMillis > 0 || errorRate > 0 || slowXhrMillis > 0 || disabledSubmitRate > 0;
+    }
+
+    /**
+     * 解析 args[index] 处的故障参数
+     *
+     * @return 解析后的配置；args[index] 不是故障参数时返回 null（由调用方继续解析）
+     */
+    public FaultProfile parseArgument(String[] args, int index) {
+        if (index + 1 >= args.length) {
+            return null;
+        }
+        String value = args[index + 1];
+        return switch (args[index]) {
+            case "--latency" -> new FaultProfile(Long.parseLong(value), jitterMillis, errorRate, slowXhrMillis, disabledSubmitRate, seed);
+            case "--jitter" -> new FaultProfile(latencyMillis, Long.parseLong(value), errorRate, slowXhrMillis, disabledSubmitRate, seed);
+            case "--error-rate" -> new FaultProfile(latencyMillis, jitterMillis, Double.parseDouble(value), slowXhrMillis, disabledSubmitRate, seed);
+            case "--slow-xhr" -> new FaultProfile(latencyMillis, jitterMillis, errorRate, Long.parseLong(value), disabledSubmitRate, seed);
+            case "--disabled-submit" -> new FaultProfile(latencyMillis, jitterMillis, errorRate, slowXhrMillis, Double.parseDouble(value), seed);
+            case "--seed" -> new FaultProfile(latencyMillis, jitterMillis, errorRate, slowXhrMillis, disabledSubmitRate, Long.parseLong(value));
+            default -> null;
+        };
+    }
+
+    @Override
+    public String toString() {
+        if (!isActive()) {
+            return "无";
+        }
+        return String.format("延迟 %d+%d ms，503 概率 %.0f%%，慢 XHR %d ms，提交按钮禁用概率 %.0f%%（种子 %d）",
+                latencyMillis, jitterMillis, errorRate * 100, slowXhrMillis, disabledSubmitRate * 100, seed);
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import com.github.existed_name.courseevaluationautofiller.http.DirectHttpEvaluator;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟教务系统压测
+ * 启动带故障注入的 StubPortalServer，用直连 HTTP 模式反复扫描列表并评价，直到列表清空或达到轮数上限，
+ * 报告吞吐、单门课程耗时分位数、客户端重试与服务端故障计数
+ *
+ * <pre>
+ * 用法：
+ *   java -cp app.jar ...portal.LoadDriver [--courses 500] [--questions 10] [--in-flight 16] [--passes 5] [--verbose]
+ *       [--latency 50] [--jitter 100] [--error-rate 0.05] [--disabled-submit 0.2] [--seed 42]
+ *   每轮失败的课程（如提交时遇到 503）仍留在列表中，由下一轮重新评价；GET 请求的重试由 DirectHttpEvaluator 完成
+ *   成功结果数应与服务端记录的提交数一致（提交不跟随跳转，结果以列表核对为准）
+ *   退出码：列表清空且没有重复提交为 0，否则为 1
+ *
+ * 浏览器模式压测：java -cp app.jar ...portal.StubPortalServer --courses 200 --latency 100 --slow-xhr 3000 --disabled-submit 0.3
+ *   再以 -Dautofiller.targetUrl=... 运行主程序
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class LoadDriver {
+
+    private LoadDriver() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int courses = 500;
+        int questions = 10;
+        int inFlight = 16;
+        int maxPasses = 5;
+        boolean verbose = false;
+        FaultProfile faults = FaultProfile.NONE;
+        for (int i = 0; i < args.length; i++) {
+            FaultProfile parsed = faults.parseArgument(args, i);
+            if (parsed != null) {
+                faults = parsed;
+                i++;
+                continue;
+            }
+            switch (args[i]) {
+                case "--courses" -> courses = Integer.parseInt(args[++i]);
+                case "--questions" -> questions = Integer.parseInt(args[++i]);
+                case "--in-flight" -> inFlight = Integer.parseInt(args[++i]);
+                case "--passes" -> maxPasses = Integer.parseInt(args[++i]);
+                case "--verbose" -> verbose = true;
+                default -> throw new IllegalArgumentException("未知参数: " + args[i]);
+            }
+        }
+
+        StubPortalServer stub = new StubPortalServer(0, StubCourse.generate(courses), questions, faults);
+        stub.start();
+        System.out.printf("🧪 压测：%d 门课程 × %d 题，最多 %d 个请求并发，最多 %d 轮%n", courses, questions, inFlight, maxPasses);
+        System.out.println("   故障注入: " + faults);
+
+        boolean passed;
+        try {
+            passed = run(stub, courses, inFlight, maxPasses, verbose);
+        } finally {
+            stub.stop();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean run(StubPortalServer stub, int expected, int inFlight, int maxPasses, boolean verbose)
+            throws Exception {
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient.newBuilder().cookieHandler(cookies).build().send(
+                HttpRequest.newBuilder(URI.create(stub.targetUrl())).build(), HttpResponse.BodyHandlers.discarding());
+        DirectHttpEvaluator evaluator = new DirectHttpEvaluator(
+                URI.create(stub.listUrl()), cookies, "StubPortalServer/load-driver", inFlight);
+
+        List<Long> latencies = new ArrayList<>();
+        int succeeded = 0;
+        int failed = 0;
+        int passes = 0;
+        long start = System.currentTimeMillis();
+
+        PrintStream console = System.out;
+        PrintStream errors = System.err;
+        while (passes < maxPasses && stub.pendingCount() > 0) {
+            passes++;
+            long passStart = System.currentTimeMillis();
+            List<EvaluationResult> results;
+            if (!verbose) {
+                PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+                System.setOut(discard);
+                System.setErr(discard);
+            }
+            try {
+                results = evaluator.evaluateAll();
+            } catch (Exception e) {
+                // 列表扫描重试后仍失败：本轮作废，下一轮重新扫描
+                results = List.of();
+                errors.printf("   ⚠ 第 %d 轮扫描失败: %s%n", passes, e.getMessage());
+            } finally {
+                System.setOut(console);
+                System.setErr(errors);
+            }
+
+            int passSuccess = 0;
+            for (EvaluationResult result : results) {
+                latencies.add(result.elapsedMillis());
+                if (result.success()) {
+                    passSuccess++;
+                }
+            }
+            succeeded += passSuccess;
+            failed += results.size() - passSuccess;
+            System.out.printf("   第 %d 轮: 评价 %d 门，成功 %d 门，剩余 %d 门，耗时 %d ms%n",
+                    passes, results.size(), passSuccess, stub.pendingCount(), System.currentTimeMillis() - passStart);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        latencies.sort(null);
+        boolean passed = stub.pendingCount() == 0 && stub.submissionCount() == expected && stub.duplicateCount() == 0;
+        System.out.println();
+        System.out.println("┌─────────────────────────────────");
+        System.out.printf("│ %s 压测%s: %d 轮，耗时 %d ms%n", passed ? "✅" : "❌", passed ? "通过" : "未通过", passes, elapsed);
+        System.out.printf("│ 完成 %d/%d 门（吞吐 %.1f 门/分钟），成功结果 %d 个，失败结果 %d 个%n",
+                stub.submissionCount(), expected, stub.submissionCount() * 60_000.0 / Math.max(elapsed, 1),
+                succeeded, failed);
+        System.out.printf("│ 单门耗时: p50 %d ms，p95 %d ms，最大 %d ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 1.0));
+        System.out.printf("│ 客户端 GET 重试 %d 次%n", evaluator.retryCount());
+        System.out.println("└─────────────────────────────────");
+        stub.printStats();
+        return passed;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
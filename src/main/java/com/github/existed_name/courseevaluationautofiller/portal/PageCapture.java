@@ -0,0 +1,242 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 页面录制（配合 ReplayPortalServer 离线回放）
+ * 设置了 CAPTURE_DIR 时，评价流程在关键节点把当前页面的原始响应保存到录制目录；未设置时所有方法直接返回
+ *
+ * <pre>
+ * 录制内容：
+ *   LANDING        登录后的首页
+ *   LIST           第一次解析时的评价列表
+ *   QUESTIONNAIRE  每份问卷（按地址区分）
+ *   COMPLETED      "全部完成"页（列表为空时）
+ *   SUBMIT         每份问卷提交前的表单内容（回放时据此校验提交是否完整）
+ *   RESOURCE       以上页面引用的同源脚本与样式表
+ * 页面内容取自浏览器内同步 XHR 重新请求当前地址（即服务器原始响应，而非脚本修改后的 DOM），失败时退回 getPageSource()
+ * 问卷页不重新请求：再次 GET 会让服务器更换防重复提交令牌，随后的真实提交将被拒绝；问卷页直接取 getPageSource()
+ * （在填写之前录制，与原始响应只差页面脚本对 DOM 的初始化）
+ *
+ * 录制目录结构：
+ *   capture.tsv    清单，首行 "# origin \t 站点源"，之后每行：类型 \t 请求方法 \t 路径与查询 \t 文件名 \t 附加信息
+ *                  附加信息：页面与资源为 Content-Type，SUBMIT 为表单提交地址
+ *   001-landing.html、002-list.html ……
+ * </pre>
+ *
+ * 同一进程只写一份录制（首次录制时覆盖目录中已有的清单），多账号模式下各会话会写入同一目录，请在单账号模式下录制
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class PageCapture {
+
+    /** 清单文件名 */
+    public static final String MANIFEST = "capture.tsv";
+
+    /** 清单首行前缀（后接录制时的站点源，如 https://example.edu.cn） */
+    public static final String ORIGIN_PREFIX = "# origin\t";
+
+    /**
+     * 录制类型
+     */
+    public enum Kind { LANDING, LIST, QUESTIONNAIRE, COMPLETED, SUBMIT, RESOURCE }
+
+    /**
+     * 取当前页面的原始响应，并列出同源脚本与样式表
+     * arguments: [是否重新请求当前地址取原始响应]，返回 {url, origin, body, contentType, resources}（不重新请求时 body 为 null）
+     */
+    private static final String PAGE_SCRIPT = """
+            var result = { url: location.href, origin: location.origin, body: null, contentType: null, resources: [] };
+            if (arguments[0]) {
+                try {
+                    var xhr = new XMLHttpRequest();
+                    xhr.open('GET', location.href, false);
+                    xhr.send();
+                    if (xhr.status === 200) {
+                        result.body = xhr.responseText;
+                        result.contentType = xhr.getResponseHeader('Content-Type');
+                    }
+                } catch (e) {}
+            }
+            var urls = [];
+            Array.prototype.forEach.call(document.scripts, function (s) { if (s.src) urls.push(s.src); });
+            Array.prototype.forEach.call(document.querySelectorAll('link[rel~=stylesheet][href]'), function (l) { urls.push(l.href); });
+            result.resources = urls.filter(function (u) { return u.indexOf(location.origin + '/') === 0; });
+            return result;
+            """;
+
+    /**
+     * 取同源资源的内容
+     * arguments: [资源地址]，返回 {body, contentType}，失败返回 null
+     */
+    private static final String RESOURCE_SCRIPT = """
+            var xhr = new XMLHttpRequest();
+            xhr.open('GET', arguments[0], false);
+            xhr.send();
+            return xhr.status === 200 ? { body: xhr.responseText, contentType: xhr.getResponseHeader('Content-Type') } : null;
+            """;
+
+    /**
+     * 取提交按钮所在表单的内容
+     * arguments: [提交按钮]，返回 {action, method, body}，页面没有表单时返回 null
+     */
+    private static final String SUBMIT_SCRIPT = """
+            var trigger = arguments[0];
+            var form = (trigger && trigger.form) || (trigger && trigger.closest && trigger.closest('form')) || document.forms[0];
+            if (!form) return null;
+            return {
+                action: form.action,
+                method: (form.getAttribute('method') || 'get').toUpperCase(),
+                body: new URLSearchParams(new FormData(form)).toString()
+            };
+            """;
+
+    /** 已录制的条目（LANDING / LIST / COMPLETED 只录一次，其余按地址区分） */
+    private static final Set<String> CAPTURED = new HashSet<>();
+
+    private static Path manifest;
+    private static int sequence;
+
+    private PageCapture() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 录制当前页面及其同源脚本、样式表（未开启录制或已录制过时直接返回，录制失败只打印警告）
+     */
+    public static void page(Kind kind, WebDriver driver) {
+        if (CAPTURE_DIR == null) {
+            return;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> page = (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeScript(PAGE_SCRIPT, kind != Kind.QUESTIONNAIRE);
+            String url = String.valueOf(page.get("url"));
+            String key = keyOf(url);
+            if (key == null) {
+                return;
+            }
+            String body = page.get("body") instanceof String text ? text : driver.getPageSource();
+            String contentType = page.get("contentType") instanceof String type ? type : "text/html; charset=UTF-8";
+
+            synchronized (PageCapture.class) {
+                String dedupe = kind == Kind.QUESTIONNAIRE ? kind + " " + key : kind.name();
+                if (!CAPTURED.add(dedupe)) {
+                    return;
+                }
+                open(String.valueOf(page.get("origin")));
+                write(kind, "GET", key, body, contentType, "html");
+                if (page.get("resources") instanceof List<?> resources) {
+                    for (Object resource : resources) {
+                        captureResource(driver, String.valueOf(resource));
+                    }
+                }
+            }
+            System.out.println("   [录制] " + kind + " " + key);
+        } catch (Exception e) {
+            System.err.println("   ⚠ 页面录制失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 录制问卷提交前的表单内容（在点击提交按钮之前调用）
+     *
+     * @param submitButton 提交按钮
+     */
+    public static void submission(WebDriver driver, WebElement submitButton) {
+        if (CAPTURE_DIR == null) {
+            return;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> form = (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeScript(SUBMIT_SCRIPT, submitButton);
+            String key = keyOf(driver.getCurrentUrl());
+            if (form == null || key == null) {
+                return;
+            }
+            synchronized (PageCapture.class) {
+                if (manifest == null || !CAPTURED.add(Kind.SUBMIT + " " + key)) {
+                    return;
+                }
+                String action = keyOf(String.valueOf(form.get("action")));
+                write(Kind.SUBMIT, String.valueOf(form.get("method")), key, String.valueOf(form.get("body")),
+                        action == null ? key : action, "form");
+            }
+        } catch (Exception e) {
+            System.err.println("   ⚠ 提交内容录制失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 地址的路径与查询部分（回放时按它匹配请求）
+     *
+     * @return 无法解析的地址返回 null
+     */
+    static String keyOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getRawPath() == null) {
+                return null;
+            }
+            return uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void captureResource(WebDriver driver, String url) throws IOException {
+        String key = keyOf(url);
+        if (key == null || !CAPTURED.add(Kind.RESOURCE + " " + key)) {
+            return;
+        }
+        Object result = ((JavascriptExecutor) driver).executeScript(RESOURCE_SCRIPT, url);
+        if (result instanceof Map<?, ?> resource && resource.get("body") instanceof String body) {
+            String contentType = resource.get("contentType") instanceof String type ? type : "text/plain; charset=UTF-8";
+            write(Kind.RESOURCE, "GET", key, body, contentType, "res");
+        }
+    }
+
+    /**
+     * 首次录制时创建目录并重写清单
+     */
+    private static void open(String origin) throws IOException {
+        if (manifest != null) {
+            return;
+        }
+        Files.createDirectories(CAPTURE_DIR);
+        manifest = CAPTURE_DIR.resolve(MANIFEST);
+        Files.writeString(manifest, ORIGIN_PREFIX + origin + "\n", StandardCharsets.UTF_8);
+        System.out.println("   [录制] 页面录制目录: " + CAPTURE_DIR.toAbsolutePath());
+    }
+
+    private static void write(Kind kind, String method, String key, String body, String detail, String extension)
+            throws IOException {
+        String file = String.format("%03d-%s.%s", ++sequence, kind.name().toLowerCase(Locale.ROOT), extension);
+        Files.writeString(CAPTURE_DIR.resolve(file), body, StandardCharsets.UTF_8);
+        Files.writeString(manifest, String.join("\t", kind.name(), method, key, file, clean(detail)) + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static String clean(String text) {
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import java.util.Collection;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 模拟教务系统页面模板
+ * 页面结构按 SystemConfig 中的定位规则编写：#navAccountLink、#navItem_app_evaluateOnline、
+ * 评价列表容器 ID_EVALUATION_LIST 内的表格（6列）、systemNotice 完成提示、
+ * 问卷表格 ID_QUESTIONNAIRE_TABLE、quota ltr 单元格、评语 ID_COMMENT_TEXTAREA、提交按钮 ID_SUBMIT_BUTTON
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class PortalPages {
+
+    /** 页面路径 */
+    public static final String PATH = "/acadmicManager/index.cfm";
+
+    /** 首页 event */
+    public static final String EVENT_LANDING = "studentPortal:DEFAULT_EVENT";
+
+    /** 评价列表 event */
+    public static final String EVENT_LIST = "evaluateOnline:DEFAULT_EVENT";
+
+    /** 问卷 event */
+    public static final String EVENT_RESPONSE = "evaluateOnline:evaluateResponse";
+
+    /** 慢请求 event（故障注入用：延迟 delay 毫秒后返回空响应） */
+    public static final String EVENT_PING = "stub:ping";
+
+    /** 问卷选项（data-opt → 文本） */
+    static final String[] OPTION_LABELS = {"非常满意", "满意", "一般", "不满意", "非常不满意"};
+
+    /** 问卷页脚本：点选选项写入隐藏字段，全部作答后启用提交按钮（带 data-locked 的按钮始终保持禁用） */
+    private static final String QUESTIONNAIRE_SCRIPT = """
+            <script>
+            (function () {
+                var submit = document.getElementById('%1$s');
+                var locked = submit.hasAttribute('data-locked');
+                function refresh() {
+                    var inputs = document.querySelectorAll('#%2$s td.quota input[type=hidden]');
+                    var done = Array.prototype.every.call(inputs, function (i) { return i.value !== ''; });
+                    if (done && !locked) submit.removeAttribute('disabled'); else submit.setAttribute('disabled', 'disabled');
+                }
+                Array.prototype.forEach.call(document.querySelectorAll('#%2$s td.quota a[data-opt]'), function (a) {
+                    a.addEventListener('click', function (e) {
+                        e.preventDefault();
+                        var cell = a.parentNode;
+                        cell.querySelector('input[type=hidden]').value = a.getAttribute('data-opt');
+                        Array.prototype.forEach.call(cell.querySelectorAll('a'), function (o) { o.className = ''; });
+                        a.className = 'checked';
+                        refresh();
+                    });
+                });
+                submit.addEventListener('click', function () {
+                    document.getElementById('evaluateForm').submit();
+                });
+            })();
+            </script>
+            """.formatted(ID_SUBMIT_BUTTON, ID_QUESTIONNAIRE_TABLE);
+
+    private PortalPages() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static String url(String event) {
+        return PATH + "?event=" + event;
+    }
+
+    public static String questionnaireUrl(int id) {
+        return url(EVENT_RESPONSE) + "&id=" + id;
+    }
+
+    /**
+     * 学生门户首页（登录后）
+     */
+    public static String landing() {
+        return page("学生门户", """
+                <div id="navArea">
+                  <a id="navAccountLink" href="#">我的账户</a>
+                  <ul>
+                    <li id="navItem_app_evaluateOnline"><a href="%s"><div>icon</div><div><div>教学质量评价</div></div></a></li>
+                    <li><a href="#">选课</a></li>
+                    <li><a href="#">成绩</a></li>
+                    <li><a href="#">注销</a></li>
+                  </ul>
+                </div>
+                """.formatted(url(EVENT_LIST)));
+    }
+
+    /**
+     * 登录页（未带会话 Cookie 时返回）
+     */
+    public static String login() {
+        return page("统一身份认证", """
+                <form method="post">
+                  <input id="username" name="username"/>
+                  <input type="password" name="password"/>
+                  <button type="submit">登录</button>
+                </form>
+                """);
+    }
+
+    /**
+     * 评价列表页；没有待评价课程时显示"太棒了"完成提示
+     */
+    public static String list(Collection<StubCourse> pending) {
+        StringBuilder body = new StringBuilder();
+        body.append("<div id=\"headArea\"><h2>教学质量评价</h2></div>\n<div id=\"contentArea\"><div id=\"")
+                .append(ID_EVALUATION_LIST).append("\">\n");
+        if (pending.isEmpty()) {
+            body.append("""
+                    <div class="systemNotice">
+                      <h3>太棒了！</h3>
+                      <p>您已经完成了目前所有的问卷</p>
+                    </div>
+                    """);
+        } else {
+            body.append("<table>\n<thead><tr><th>序号</th><th>任课单位</th><th>课程 - 教师</th>"
+                    + "<th>学分</th><th>周次</th><th>操作</th></tr></thead>\n<tbody>\n");
+            int index = 1;
+            for (StubCourse course : pending) {
+                body.append("<tr>")
+                        .append("<td>").append(index++).append("</td>")
+                        .append("<td>").append(escape(course.department())).append("</td>")
+                        .append("<td>").append(escape(course.courseName())).append(" - ")
+                        .append(escape(course.teacherName())).append("</td>")
+                        .append("<td>").append(escape(course.credits())).append("</td>")
+                        .append("<td>").append(escape(course.weeks())).append("</td>")
+                        .append("<td><a class=\"stat info\" title=\"网上评价\" href=\"")
+                        .append(escape(questionnaireUrl(course.id()))).append("\">网上评价</a></td>")
+                        .append("</tr>\n");
+            }
+            body.append("</tbody>\n</table>\n");
+        }
+        body.append("</div></div>\n");
+        return page("教学质量评价", body.toString());
+    }
+
+    /**
+     * 问卷页：questionCount 道单选题 + 评语 + 初始禁用的提交按钮
+     *
+     * @param token 表单隐藏字段中的防重复提交令牌
+     */
+    public static String questionnaire(StubCourse course, int questionCount, String token) {
+        return questionnaire(course, questionCount, token, false, 0);
+    }
+
+    /**
+     * 问卷页（故障注入版本）
+     *
+     * @param submitLocked 全部作答后提交按钮仍保持禁用（只能移除 disabled 属性后点击）
+     * @param slowXhrMillis 页面加载后发出一个耗时这么久的 XHR（0 表示不发出）
+     */
+    public static String questionnaire(StubCourse course, int questionCount, String token,
+                                       boolean submitLocked, long slowXhrMillis) {
+        StringBuilder body = new StringBuilder();
+        body.append("<span class=\"active\" id=\"labDetail\">教学质量评价问卷</span>\n")
+                .append("<h4>").append(escape(course.courseName())).append(" - ")
+                .append(escape(course.teacherName())).append("</h4>\n")
+                .append("<form id=\"evaluateForm\" method=\"post\" action=\"")
+                .append(escape(questionnaireUrl(course.id()))).append("\">\n")
+                .append("<input type=\"hidden\" name=\"sheetId\" value=\"").append(course.id()).append("\"/>\n")
+                .append("<input type=\"hidden\" name=\"token\" value=\"").append(escape(token)).append("\"/>\n")
+                .append("<table id=\"").append(ID_QUESTIONNAIRE_TABLE).append("\">\n");
+        for (int q = 1; q <= questionCount; q++) {
+            body.append("<tr><td class=\"title\">").append(q).append(". 教学评价指标 ").append(q).append("</td>")
+                    .append("<td class=\"quota ltr\"><input type=\"hidden\" name=\"q").append(q).append("\" value=\"\"/>");
+            for (int opt = 1; opt <= OPTION_LABELS.length; opt++) {
+                body.append("<a href=\"javascript:;\" data-opt=\"").append(opt).append("\">")
+                        .append(OPTION_LABELS[opt - 1]).append("</a>");
+            }
+            body.append("</td></tr>\n");
+        }
+        body.append("</table>\n")
+                .append("<textarea id=\"").append(ID_COMMENT_TEXTAREA)
+                .append("\" name=\"").append(ID_COMMENT_TEXTAREA).append("\"></textarea>\n")
+                .append("<button id=\"").append(ID_SUBMIT_BUTTON).append("\" type=\"button\" disabled=\"disabled\"")
+                .append(submitLocked ? " data-locked=\"true\"" : "").append(">提交</button>\n")
+                .append("</form>\n")
+                .append(QUESTIONNAIRE_SCRIPT);
+        if (slowXhrMillis > 0) {
+            body.append("<script>(function () { var x = new XMLHttpRequest(); x.open('GET', '")
+                    .append(url(EVENT_PING)).append("&delay=").append(slowXhrMillis)
+                    .append("'); x.send(); })();</script>\n");
+        }
+        return page("教学质量评价问卷", body.toString());
+    }
+
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>" + escape(title)
+                + "</title></head>\n<body>\n" + body + "</body></html>\n";
+    }
+
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,357 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import com.github.existed_name.courseevaluationautofiller.portal.PageCapture.Kind;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 录制回放服务器
+ * 在本机端口上回放 PageCapture 录制的教务系统页面，使浏览器模式的完整流程
+ * （BrowserManager → NavigationService → DataExtractor → FormFiller）可以在评价季之外离线、确定地运行与计时
+ *
+ * <pre>
+ * 回放规则：
+ *   GET 录制过的地址          返回录制内容（录制时的站点源替换为本服务器地址）
+ *   GET 评价列表地址          返回录制的列表，去掉已提交的课程行；全部提交后返回录制的完成页
+ *   POST（来自某份问卷）      按该问卷录制的提交内容校验：录制时有值的字段回放时也必须有值；通过后 302 回到列表
+ *   其他地址                  404（图片等未录制的资源）
+ * 列表中问卷未被录制的课程行在启动时去掉，回放只包含可以完整走通的课程
+ *
+ * 用法：
+ *   java -jar app.jar --replay 录制目录
+ *       启动回放服务器并把 TARGET_URL 指向它，再按单账号模式运行
+ *   java -cp app.jar ...portal.ReplayPortalServer 录制目录 [--port 8080]
+ *       只启动回放服务器，按提示以 -Dautofiller.targetUrl=... 运行主程序
+ * </pre>
+ *
+ * 每次启动都从"所有课程未提交"开始，多次回放结果一致
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public final class ReplayPortalServer {
+
+    /** 回放列表中标记课程行对应问卷的属性（返回页面前移除） */
+    private static final String ROW_KEY_ATTRIBUTE = "data-replay-key";
+
+    private final HttpServer server;
+    private final String origin;
+    private final Map<String, Recorded> pages = new HashMap<>();
+    private final Map<String, Recorded> submissions = new HashMap<>();
+    private final Set<String> questionnaires = new LinkedHashSet<>();
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private String landingKey;
+    private String listKey;
+    private Document listTemplate;
+    private Recorded completed;
+
+    /**
+     * @param captureDir 录制目录
+     * @param port 监听端口（0 表示随机端口）
+     * @throws IllegalArgumentException 录制中缺少首页或评价列表
+     */
+    public ReplayPortalServer(Path captureDir, int port) throws IOException {
+        List<String> lines = Files.readAllLines(captureDir.resolve(PageCapture.MANIFEST), StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).startsWith(PageCapture.ORIGIN_PREFIX)) {
+            throw new IllegalArgumentException("录制清单格式错误: " + captureDir.resolve(PageCapture.MANIFEST));
+        }
+        this.origin = lines.get(0).substring(PageCapture.ORIGIN_PREFIX.length()).strip();
+        for (String line : lines.subList(1, lines.size())) {
+            load(captureDir, line);
+        }
+        if (landingKey == null || listKey == null) {
+            throw new IllegalArgumentException("录制中缺少首页或评价列表，请重新录制: " + captureDir);
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        prepareList();
+    }
+
+    public void start() {
+        // 处理器在对象构造完成后才注册，避免构造期间 this 逸出
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** 首页地址（作为 TARGET_URL） */
+    public String targetUrl() {
+        return baseUrl() + landingKey;
+    }
+
+    /** 可回放的问卷数量 */
+    public int questionnaireCount() {
+        return questionnaires.size();
+    }
+
+    /**
+     * 打印回放统计
+     */
+    public void printStats() {
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 录制回放统计");
+        System.out.printf("│ 请求 %d 次，问卷提交通过 %d 次、拒绝 %d 次，已提交 %d/%d 份%n",
+                requests.get(), accepted.get(), rejected.get(), submitted.size(), questionnaires.size());
+        System.out.println("└─────────────────────────────────");
+    }
+
+    // ==================== 录制加载 ====================
+
+    private void load(Path captureDir, String line) throws IOException {
+        String[] fields = line.split("\t", 5);
+        if (fields.length != 5) {
+            return;
+        }
+        Kind kind = Kind.valueOf(fields[0]);
+        Recorded recorded = new Recorded(Files.readString(captureDir.resolve(fields[3]), StandardCharsets.UTF_8), fields[4]);
+        String key = fields[2];
+        switch (kind) {
+            case LANDING -> {
+                landingKey = key;
+                pages.put(key, recorded);
+            }
+            case LIST -> {
+                listKey = key;
+                pages.put(key, recorded);
+            }
+            case COMPLETED -> completed = recorded;
+            case QUESTIONNAIRE -> {
+                questionnaires.add(key);
+                pages.put(key, recorded);
+            }
+            case SUBMIT -> submissions.put(key, recorded);
+            case RESOURCE -> pages.putIfAbsent(key, recorded);
+        }
+    }
+
+    /**
+     * 标记列表中每门课程行对应的问卷；问卷未录制的课程行直接去掉
+     */
+    private void prepareList() {
+        listTemplate = Jsoup.parse(pages.get(listKey).body(), origin + listKey);
+        listTemplate.outputSettings().prettyPrint(false);
+
+        Set<Element> questionnaireRows = new HashSet<>();
+        for (Element link : listTemplate.select("tr a[href]")) {
+            String key = keyOf(link.absUrl("href"));
+            if (key != null && questionnaires.contains(key)) {
+                Element row = link.closest("tr");
+                row.attr(ROW_KEY_ATTRIBUTE, key);
+                questionnaireRows.add(row);
+            }
+        }
+        // 与可回放课程同表、但问卷未录制的课程行
+        List<Element> sameTableRows = questionnaireRows.stream()
+                .map(Element::parent)
+                .distinct()
+                .flatMap(body -> body.children().stream())
+                .toList();
+        int dropped = 0;
+        for (Element row : sameTableRows) {
+            if (!questionnaireRows.contains(row) && !row.select("a[href]").isEmpty()) {
+                row.remove();
+                dropped++;
+            }
+        }
+        System.out.printf("🎞️ 已加载录制：%d 份问卷%s%n", questionnaires.size(),
+                dropped > 0 ? "（" + dropped + " 门课程的问卷未录制，已从列表中去掉）" : "");
+    }
+
+    // ==================== 请求处理 ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String key = exchange.getRequestURI().getRawPath()
+                    + (exchange.getRequestURI().getRawQuery() == null ? "" : "?" + exchange.getRequestURI().getRawQuery());
+
+            if (exchange.getRequestMethod().equalsIgnoreCase("POST")) {
+                handleSubmit(exchange, key);
+                return;
+            }
+            if (key.equals(listKey)) {
+                sendList(exchange);
+                return;
+            }
+            Recorded page = pages.get(key);
+            if (page == null) {
+                send(exchange, 404, "text/html; charset=UTF-8", "<html><body>404（未录制）</body></html>");
+                return;
+            }
+            send(exchange, 200, page.detail(), rewrite(page.body()));
+        } catch (Exception e) {
+            send(exchange, 500, "text/html; charset=UTF-8",
+                    "<html><body>500 " + PortalPages.escape(String.valueOf(e.getMessage())) + "</body></html>");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendList(HttpExchange exchange) throws IOException {
+        if (completed != null && submitted.containsAll(questionnaires)) {
+            send(exchange, 200, completed.detail(), rewrite(completed.body()));
+            return;
+        }
+        Document list = listTemplate.clone();
+        for (Element row : list.select("tr[" + ROW_KEY_ATTRIBUTE + "]")) {
+            if (submitted.contains(row.attr(ROW_KEY_ATTRIBUTE))) {
+                row.remove();
+            } else {
+                row.removeAttr(ROW_KEY_ATTRIBUTE);
+            }
+        }
+        send(exchange, 200, pages.get(listKey).detail(), rewrite(list.outerHtml()));
+    }
+
+    /**
+     * 问卷提交：按 Referer 确定是哪份问卷（没有 Referer 时按提交地址），校验后回到列表
+     */
+    private void handleSubmit(HttpExchange exchange, String key) throws IOException {
+        String referer = exchange.getRequestHeaders().getFirst("Referer");
+        String questionnaire = referer == null ? null : keyOf(referer);
+        if (questionnaire == null || !questionnaires.contains(questionnaire)) {
+            questionnaire = questionnaires.contains(key) ? key : null;
+        }
+        if (questionnaire == null) {
+            send(exchange, 404, "text/html; charset=UTF-8", "<html><body>问卷不存在</body></html>");
+            return;
+        }
+
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Recorded expected = submissions.get(questionnaire);
+        if (expected != null && !isComplete(parseForm(expected.body()), form)) {
+            rejected.incrementAndGet();
+            send(exchange, 400, "text/html; charset=UTF-8", "<html><body>问卷未填写完整</body></html>");
+            return;
+        }
+
+        submitted.add(questionnaire);
+        accepted.incrementAndGet();
+        exchange.getResponseHeaders().add("Location", listKey);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    /**
+     * 录制时有值的字段，回放提交中也必须有值
+     */
+    private static boolean isComplete(Map<String, String> expected, Map<String, String> actual) {
+        for (Map.Entry<String, String> field : expected.entrySet()) {
+            if (!field.getValue().isEmpty() && actual.getOrDefault(field.getKey(), "").isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 录制站点的地址换成本服务器地址
+     */
+    private String rewrite(String body) {
+        return body.replace(origin, baseUrl());
+    }
+
+    /**
+     * 录制站点或本服务器地址的路径与查询部分（其他站点返回 null）
+     */
+    private String keyOf(String url) {
+        if (!url.startsWith(origin + "/") && !url.startsWith(baseUrl() + "/")) {
+            return null;
+        }
+        return PageCapture.keyOf(url);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", withUtf8(contentType));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * 录制内容已按 UTF-8 保存，Content-Type 中的字符集统一改为 UTF-8
+     */
+    private static String withUtf8(String contentType) {
+        String type = contentType == null || contentType.isBlank() ? "text/html" : contentType.split(";")[0].strip();
+        return type + "; charset=UTF-8";
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> values = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return values;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.merge(key, value, (a, b) -> a.isEmpty() ? b : a);
+        }
+        return values;
+    }
+
+    /**
+     * 一条录制内容
+     *
+     * @param body 响应内容（SUBMIT 为表单内容）
+     * @param detail 页面与资源为 Content-Type，SUBMIT 为表单提交地址
+     */
+    private record Recorded(String body, String detail) {}
+
+    // ==================== 命令行入口 ====================
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("用法: ReplayPortalServer 录制目录 [--port 8080]");
+            System.exit(1);
+        }
+        int port = 8080;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("未知参数: " + args[i]);
+            }
+        }
+
+        ReplayPortalServer replay = new ReplayPortalServer(Path.of(args[0]), port);
+        replay.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(replay::printStats, "replay-stats"));
+
+        System.out.println("🎞️ 录制回放服务器已启动: " + replay.targetUrl());
+        System.out.println("   运行主程序时添加参数: -Dautofiller.targetUrl=" + replay.targetUrl());
+        System.out.println("   按 Ctrl+C 退出");
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模拟教务系统中的一门待评价课程
+ *
+ * @param id 问卷编号（出现在 evaluateResponse 链接中）
+ * @param department 任课单位
+ * @param courseName 课程名称
+ * @param teacherName 教师姓名
+ * @param credits 学分
+ * @param weeks 周次
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public record StubCourse(
+    int id,
+    String department,
+    String courseName,
+    String teacherName,
+    String credits,
+    String weeks
+) {
+
+    private static final String[] DEPARTMENTS = {"计科", "数理", "外语", "马院", "体育"};
+    private static final String[] TEACHERS = {"张伟", "王芳", "李娜", "刘洋", "陈静", "杨帆"};
+
+    /**
+     * 生成指定数量的课程
+     */
+    public static List<StubCourse> generate(int count) {
+        List<StubCourse> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            courses.add(new StubCourse(
+                    i,
+                    DEPARTMENTS[i % DEPARTMENTS.length],
+                    "课程" + i,
+                    TEACHERS[i % TEACHERS.length],
+                    String.format("%.2f", 1.5 + (i % 4) * 0.5),
+                    String.format("%02d-%02d", 1 + i % 8, 9 + i % 8)
+            ));
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,372 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import com.github.existed_name.courseevaluationautofiller.http.DirectHttpEvaluator;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.ID_COMMENT_TEXTAREA;
+
+/**
+ * 本地模拟教务系统
+ * 在本机端口上提供首页 → 评价列表 → 问卷 → 提交的完整流程，用于离线调试浏览器模式与直连 HTTP 模式
+ *
+ * <pre>
+ * 用法：
+ *   java -cp app.jar ...portal.StubPortalServer [--port 8080] [--courses 20] [--questions 10]
+ *       启动后按提示以 -Dautofiller.targetUrl=... 运行主程序
+ *   java -cp app.jar ...portal.StubPortalServer --self-test
+ *       启动随机端口的模拟系统，用直连 HTTP 模式完成所有问卷并校验提交数量
+ *   以上两种用法都可以追加故障注入参数（见 FaultProfile），如 --latency 200 --error-rate 0.1 --disabled-submit 0.3
+ *   大批量课程的吞吐与重试表现见 LoadDriver
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class StubPortalServer {
+
+    /** 会话 Cookie 名 */
+    public static final String SESSION_COOKIE = "STUBSESSION";
+
+    private final HttpServer server;
+    private final int questionCount;
+    private final Map<Integer, StubCourse> pending = new ConcurrentSkipListMap<>();
+    private final Map<Integer, StubCourse> allCourses = new ConcurrentHashMap<>();
+    private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+    private final AtomicInteger submissions = new AtomicInteger();
+    private final AtomicInteger rejectedSubmissions = new AtomicInteger();
+    private final AtomicInteger duplicateSubmissions = new AtomicInteger();
+
+    private final FaultProfile faults;
+    /** 每个"方法 + 事件 + 课程"已收到的请求次数（故障随机数按它派生） */
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+    private final AtomicInteger lockedPages = new AtomicInteger();
+    private final AtomicInteger slowXhrs = new AtomicInteger();
+
+    /**
+     * @param port 监听端口（0 表示随机端口）
+     * @param courses 待评价课程
+     * @param questionCount 每份问卷的题目数量
+     */
+    public StubPortalServer(int port, List<StubCourse> courses, int questionCount) throws IOException {
+        this(port, courses, questionCount, FaultProfile.NONE);
+    }
+
+    /**
+     * @param port 监听端口（0 表示随机端口）
+     * @param courses 待评价课程
+     * @param questionCount 每份问卷的题目数量
+     * @param faults 故障注入配置
+     */
+    public StubPortalServer(int port, List<StubCourse> courses, int questionCount, FaultProfile faults)
+            throws IOException {
+        this.questionCount = questionCount;
+        this.faults = faults;
+        for (StubCourse course : courses) {
+            pending.put(course.id(), course);
+            allCourses.put(course.id(), course);
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** 首页地址（作为 TARGET_URL） */
+    public String targetUrl() {
+        return baseUrl() + PortalPages.url(PortalPages.EVENT_LANDING);
+    }
+
+    /** 评价列表地址 */
+    public String listUrl() {
+        return baseUrl() + PortalPages.url(PortalPages.EVENT_LIST);
+    }
+
+    /** 成功提交的问卷数量 */
+    public int submissionCount() {
+        return submissions.get();
+    }
+
+    /** 被拒绝（字段不完整或令牌错误）的提交数量 */
+    public int rejectedCount() {
+        return rejectedSubmissions.get();
+    }
+
+    /** 课程已不在待评价列表时再次收到的合法提交数量 */
+    public int duplicateCount() {
+        return duplicateSubmissions.get();
+    }
+
+    /** 注入的 503 数量 */
+    public int injectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 打印请求与故障注入统计
+     */
+    public void printStats() {
+        System.out.println("┌─────────────────────────────────");
+        System.out.println("│ 模拟教务系统统计");
+        System.out.printf("│ 请求 %d 次，问卷提交通过 %d 次、拒绝 %d 次、重复 %d 次，剩余待评价 %d 门%n",
+                requests.get(), submissions.get(), rejectedSubmissions.get(), duplicateSubmissions.get(), pending.size());
+        if (faults.isActive()) {
+            System.out.printf("│ 故障注入（%s）: 503 %d 次，禁用提交按钮 %d 页，慢 XHR %d 次%n",
+                    faults, injectedErrors.get(), lockedPages.get(), slowXhrs.get());
+        }
+        System.out.println("└─────────────────────────────────");
+    }
+
+    // ==================== 请求处理 ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            String event = query.getOrDefault("event", "");
+            int id = Integer.parseInt(query.getOrDefault("id", "-1"));
+
+            if (event.equals(PortalPages.EVENT_PING)) {
+                slowXhrs.incrementAndGet();
+                Thread.sleep(Long.parseLong(query.getOrDefault("delay", "0")));
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            }
+            SplittableRandom random = faultRandom(exchange.getRequestMethod(), event, id);
+            injectLatency(random);
+            if (!event.equals(PortalPages.EVENT_LANDING) && chance(random, faults.errorRate())) {
+                injectedErrors.incrementAndGet();
+                sendHtml(exchange, 503, "<html><body>503 Service Unavailable（注入故障）</body></html>");
+                return;
+            }
+
+            if (event.equals(PortalPages.EVENT_LANDING)) {
+                exchange.getResponseHeaders().add("Set-Cookie",
+                        SESSION_COOKIE + "=" + UUID.randomUUID() + "; Path=/; HttpOnly");
+                sendHtml(exchange, 200, PortalPages.landing());
+                return;
+            }
+            if (!hasSession(exchange)) {
+                sendHtml(exchange, 200, PortalPages.login());
+                return;
+            }
+            if (event.equals(PortalPages.EVENT_LIST)) {
+                sendHtml(exchange, 200, PortalPages.list(pending.values()));
+                return;
+            }
+            if (event.equals(PortalPages.EVENT_RESPONSE)) {
+                handleQuestionnaire(exchange, id, random);
+                return;
+            }
+            sendHtml(exchange, 404, "<html><body>404</body></html>");
+        } catch (Exception e) {
+            sendHtml(exchange, 500, "<html><body>500 " + PortalPages.escape(String.valueOf(e.getMessage())) + "</body></html>");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleQuestionnaire(HttpExchange exchange, int id, SplittableRandom random) throws IOException {
+        StubCourse course = allCourses.get(id);
+        if (course == null) {
+            sendHtml(exchange, 404, "<html><body>问卷不存在</body></html>");
+            return;
+        }
+
+        if (exchange.getRequestMethod().equalsIgnoreCase("GET")) {
+            String token = tokens.computeIfAbsent(id, k -> UUID.randomUUID().toString());
+            boolean locked = chance(random, faults.disabledSubmitRate());
+            if (locked) {
+                lockedPages.incrementAndGet();
+            }
+            sendHtml(exchange, 200,
+                    PortalPages.questionnaire(course, questionCount, token, locked, faults.slowXhrMillis()));
+            return;
+        }
+
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = parseForm(body);
+        if (!isCompleteSubmission(id, form)) {
+            rejectedSubmissions.incrementAndGet();
+            sendHtml(exchange, 400, "<html><body>问卷未填写完整</body></html>");
+            return;
+        }
+
+        if (pending.remove(id) != null) {
+            submissions.incrementAndGet();
+        } else {
+            duplicateSubmissions.incrementAndGet();
+        }
+        exchange.getResponseHeaders().add("Location", PortalPages.url(PortalPages.EVENT_LIST));
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    /**
+     * 校验提交：令牌正确、每道题都有合法选项、评语非空
+     */
+    private boolean isCompleteSubmission(int id, Map<String, String> form) {
+        if (!form.getOrDefault("token", "").equals(tokens.get(id))) {
+            return false;
+        }
+        for (int q = 1; q <= questionCount; q++) {
+            String value = form.getOrDefault("q" + q, "");
+            if (!value.matches("[1-" + PortalPages.OPTION_LABELS.length + "]")) {
+                return false;
+            }
+        }
+        return !form.getOrDefault(ID_COMMENT_TEXTAREA, "").isBlank();
+    }
+
+    /**
+     * 本次请求的故障随机数：由种子、请求方法、事件、课程编号与该组合的第几次请求派生，
+     * 注入结果只取决于"哪门课程的第几次请求"，与并发请求的到达顺序无关
+     */
+    private SplittableRandom faultRandom(String method, String event, int id) {
+        String key = method + " " + event + " " + id;
+        int attempt = attempts.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        long seed = faults.seed();
+        seed = seed * 1_000_003 + key.hashCode();
+        seed = seed * 1_000_003 + attempt;
+        return new SplittableRandom(seed);
+    }
+
+    private void injectLatency(SplittableRandom random) throws InterruptedException {
+        long delay = faults.latencyMillis();
+        if (faults.jitterMillis() > 0) {
+            delay += random.nextLong(faults.jitterMillis() + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static boolean chance(SplittableRandom random, double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private boolean hasSession(HttpExchange exchange) {
+        return exchange.getRequestHeaders().getOrDefault("Cookie", List.of()).stream()
+                .anyMatch(cookie -> cookie.contains(SESSION_COOKIE + "="));
+    }
+
+    private static void sendHtml(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> values = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return values;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.put(key, value);
+        }
+        return values;
+    }
+
+    // ==================== 命令行入口 ====================
+
+    public static void main(String[] args) throws Exception {
+        int port = 8080;
+        int courses = 20;
+        int questions = 10;
+        boolean selfTest = false;
+        FaultProfile faults = FaultProfile.NONE;
+        for (int i = 0; i < args.length; i++) {
+            FaultProfile parsed = faults.parseArgument(args, i);
+            if (parsed != null) {
+                faults = parsed;
+                i++;
+                continue;
+            }
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--courses" -> courses = Integer.parseInt(args[++i]);
+                case "--questions" -> questions = Integer.parseInt(args[++i]);
+                case "--self-test" -> selfTest = true;
+                default -> throw new IllegalArgumentException("未知参数: " + args[i]);
+            }
+        }
+
+        StubPortalServer stub = new StubPortalServer(selfTest ? 0 : port, StubCourse.generate(courses), questions, faults);
+        stub.start();
+
+        if (selfTest) {
+            System.exit(runSelfTest(stub, courses) ? 0 : 1);
+        }
+
+        System.out.println("🧪 模拟教务系统已启动: " + stub.targetUrl());
+        System.out.println("   故障注入: " + faults);
+        System.out.println("   运行主程序时添加参数: -Dautofiller.targetUrl=" + stub.targetUrl());
+        System.out.println("   按 Ctrl+C 退出");
+    }
+
+    /**
+     * 自检：模拟浏览器拿到会话 Cookie，再用直连 HTTP 模式完成所有问卷
+     */
+    private static boolean runSelfTest(StubPortalServer stub, int expected) throws Exception {
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient.newBuilder().cookieHandler(cookies).build().send(
+                HttpRequest.newBuilder(URI.create(stub.targetUrl())).build(), HttpResponse.BodyHandlers.discarding());
+
+        long start = System.currentTimeMillis();
+        List<EvaluationResult> results = new DirectHttpEvaluator(
+                URI.create(stub.listUrl()), cookies, "StubPortalServer/self-test", 8).evaluateAll();
+        long elapsed = System.currentTimeMillis() - start;
+        stub.stop();
+
+        long success = results.stream().filter(EvaluationResult::success).count();
+        boolean passed = success == expected && stub.submissionCount() == expected && stub.pendingCount() == 0;
+        System.out.printf("%n%s 自检%s: 成功 %d/%d，服务端记录提交 %d 次，拒绝 %d 次，耗时 %d ms%n",
+                passed ? "✅" : "❌", passed ? "通过" : "失败",
+                success, expected, stub.submissionCount(), stub.rejectedCount(), elapsed);
+        return passed;
+    }
+}
@@ -0,0 +1,416 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import com.github.existed_name.courseevaluationautofiller.core.BrowserManager;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 常驻模式
+ * 启动时完成浏览器启动与登录验证并保持浏览器开启，之后通过本机 HTTP 接口接收"立即评价"任务，
+ * 每个任务只需从首页进入列表并评价，省去清理进程、解压驱动、启动 Edge、首页加载和登录验证
+ *
+ * <pre>
+ * 接口（只监听 127.0.0.1；POST 请求须带 X-AutoFiller-Job 请求头，防止网页跨站触发任务）：
+ *   POST /evaluate[?account=账号名]   运行一次评价任务，返回 JSON 结果（不指定账号时使用第一个账号）
+ *   GET  /status                      各会话状态
+ *   GET  /metrics                     各阶段耗时（Prometheus 文本格式）
+ *   POST /shutdown                    关闭所有浏览器并退出
+ * 例：
+ *   curl -X POST -H "X-AutoFiller-Job: 1" http://127.0.0.1:17890/evaluate
+ * </pre>
+ *
+ * 每个账号一个浏览器，启动时各会话并发预热；同一账号的任务串行执行，不同账号的任务可同时执行。
+ * 空闲会话每隔 DAEMON_KEEPALIVE_INTERVAL 重新加载首页保活，浏览器意外关闭时在下一个任务前自动重启
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class DaemonServer {
+
+    /** 任务请求必须携带的请求头（自定义请求头会触发浏览器的跨域预检，普通网页无法伪造） */
+    public static final String JOB_HEADER = "X-AutoFiller-Job";
+
+    private final Map<String, WarmSession> sessions = new LinkedHashMap<>();
+    private final HttpServer server;
+    private final ScheduledExecutorService keepAlive = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "daemon-keepalive"));
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicBoolean stopping = new AtomicBoolean();
+
+    /**
+     * @param port 监听端口
+     * @param accounts 账号清单；为空时使用单账号模式的默认浏览器配置
+     */
+    public DaemonServer(int port, List<FleetRunner.Account> accounts) throws IOException {
+        if (accounts.isEmpty()) {
+            // 只有首次启动独占本机 Edge（清理残留进程）；重启时不再结束其他 Edge 进程
+            sessions.put(EDGE_PROFILE, new WarmSession(EDGE_PROFILE, BrowserManager::new,
+                    () -> new BrowserManager(null, EDGE_PROFILE)));
+        } else {
+            for (FleetRunner.Account account : accounts) {
+                Supplier<BrowserManager> factory =
+                        () -> new BrowserManager(account.userDataDir(), account.profileDirectory());
+                sessions.put(account.name(), new WarmSession(account.name(), factory, factory));
+            }
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * 并发预热所有会话（任一会话预热失败则取消其余会话并抛出），之后开始接收任务
+     */
+    public void start() throws Exception {
+        System.out.printf("🔥 正在预热 %d 个浏览器会话...%n", sessions.size());
+        try (SessionScope<Void> scope = new SessionScope<>("warmup-")) {
+            for (WarmSession session : sessions.values()) {
+                scope.fork(() -> {
+                    session.warmUp();
+                    return null;
+                }, null);
+            }
+            scope.join();
+            scope.throwIfFailed();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+
+        long interval = DAEMON_KEEPALIVE_INTERVAL.toMillis();
+        keepAlive.scheduleWithFixedDelay(this::keepAliveIdleSessions, interval, interval, TimeUnit.MILLISECONDS);
+        // 处理器在对象构造完成后才注册，避免构造期间 this 逸出
+        server.createContext("/", this::handle);
+        server.start();
+        // Ctrl+C 退出时同样关闭浏览器
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "daemon-shutdown"));
+
+        System.out.println("✅ 常驻模式已就绪: http://127.0.0.1:" + server.getAddress().getPort());
+        System.out.printf("   提交任务: curl -X POST -H \"%s: 1\" http://127.0.0.1:%d/evaluate%n",
+                JOB_HEADER, server.getAddress().getPort());
+    }
+
+    /**
+     * 阻塞直到收到 /shutdown
+     */
+    public void awaitShutdown() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * 关闭接口与所有浏览器（可重复调用，只执行一次）
+     * 进行中的任务被取消（关闭浏览器），不会等到所有课程评价完
+     */
+    public void stop() {
+        if (!stopping.compareAndSet(false, true)) {
+            return;
+        }
+        server.stop(0);
+        keepAlive.shutdownNow();
+        for (WarmSession session : sessions.values()) {
+            session.close();
+        }
+        stopped.countDown();
+    }
+
+    // ==================== 请求处理 ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            boolean post = exchange.getRequestMethod().equalsIgnoreCase("POST");
+
+            if (path.equals("/status")) {
+                sendJson(exchange, 200, statusJson());
+                return;
+            }
+            if (path.equals("/metrics")) {
+                send(exchange, 200, PhaseMetrics.PROMETHEUS_CONTENT_TYPE, PhaseMetrics.toPrometheus());
+                return;
+            }
+            if (!post || exchange.getRequestHeaders().getFirst(JOB_HEADER) == null) {
+                sendJson(exchange, 400, "{\"error\":" + json("需要 POST 并携带 " + JOB_HEADER + " 请求头") + "}");
+                return;
+            }
+            if (path.equals("/evaluate")) {
+                handleEvaluate(exchange);
+                return;
+            }
+            if (path.equals("/shutdown")) {
+                sendJson(exchange, 200, "{\"stopping\":true}");
+                Thread.ofVirtual().start(this::stop);
+                return;
+            }
+            sendJson(exchange, 404, "{\"error\":\"not found\"}");
+        } catch (Exception e) {
+            sendJson(exchange, 500, "{\"error\":" + json(String.valueOf(e.getMessage())) + "}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleEvaluate(HttpExchange exchange) throws IOException {
+        String account = queryParameter(exchange.getRequestURI().getRawQuery(), "account");
+        WarmSession session = account == null
+                ? sessions.values().iterator().next()
+                : sessions.get(account);
+        if (session == null) {
+            sendJson(exchange, 404, "{\"error\":" + json("未知账号: " + account) + "}");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            List<EvaluationResult> results = session.runJob();
+            sendJson(exchange, 200, resultJson(session.name, results, System.currentTimeMillis() - start));
+        } catch (Exception e) {
+            sendJson(exchange, 500, "{\"account\":" + json(session.name)
+                    + ",\"error\":" + json(String.valueOf(e.getMessage())) + "}");
+        }
+    }
+
+    /**
+     * 空闲会话保活（正在执行任务的会话跳过）
+     */
+    private void keepAliveIdleSessions() {
+        for (WarmSession session : sessions.values()) {
+            session.keepAliveIfIdle();
+        }
+    }
+
+    // ==================== JSON 输出 ====================
+
+    private String statusJson() {
+        StringBuilder out = new StringBuilder("{\"sessions\":[");
+        boolean first = true;
+        for (WarmSession session : sessions.values()) {
+            out.append(first ? "" : ",")
+                    .append("{\"account\":").append(json(session.name))
+                    .append(",\"busy\":").append(session.lock.isLocked())
+                    .append(",\"jobs\":").append(session.jobs)
+                    .append(",\"restarts\":").append(session.restarts)
+                    .append("}");
+            first = false;
+        }
+        return out.append("]}").toString();
+    }
+
+    private static String resultJson(String account, List<EvaluationResult> results, long elapsedMillis) {
+        int success = EvaluationSession.countSuccess(results);
+        StringBuilder out = new StringBuilder()
+                .append("{\"account\":").append(json(account))
+                .append(",\"success\":").append(success)
+                .append(",\"failed\":").append(results.size() - success)
+                .append(",\"elapsedMillis\":").append(elapsedMillis)
+                .append(",\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            EvaluationResult result = results.get(i);
+            out.append(i == 0 ? "" : ",")
+                    .append("{\"course\":").append(json(result.course().getFullInfo()))
+                    .append(",\"success\":").append(result.success())
+                    .append(",\"message\":").append(json(result.message()))
+                    .append(",\"elapsedMillis\":").append(result.elapsedMillis())
+                    .append("}");
+        }
+        return out.append("]}").toString();
+    }
+
+    private static String json(String text) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, "application/json; charset=UTF-8", body);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    // ==================== 常驻会话 ====================
+
+    /**
+     * 一个账号的常驻浏览器会话
+     * 所有 WebDriver 调用都在持有 lock 时进行（任务与保活互斥）；只有 close() 的取消步骤在锁外进行
+     */
+    private static final class WarmSession {
+        private final String name;
+        private final Supplier<BrowserManager> browserFactory;
+        private final Supplier<BrowserManager> restartFactory;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private volatile BrowserManager browser;
+        private volatile EvaluationSession session;
+        private volatile boolean closed;
+        private volatile int jobs;
+        private volatile int restarts;
+
+        /**
+         * @param browserFactory 首次启动使用的浏览器
+         * @param restartFactory 浏览器不可用、重启时使用的浏览器
+         */
+        private WarmSession(String name, Supplier<BrowserManager> browserFactory,
+                            Supplier<BrowserManager> restartFactory) {
+            this.name = name;
+            this.browserFactory = browserFactory;
+            this.restartFactory = restartFactory;
+        }
+
+        private void warmUp() throws Exception {
+            lock.lock();
+            try {
+                startBrowser(browserFactory);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 执行一次评价任务（浏览器已不可用时先重启）
+         */
+        private List<EvaluationResult> runJob() throws Exception {
+            lock.lock();
+            try {
+                if (session == null || !session.isAlive()) {
+                    System.err.printf("⚠️ [%s] 浏览器不可用，正在重启...%n", name);
+                    restart();
+                }
+                session.enterEvaluationList();
+                List<EvaluationResult> results = session.evaluate();
+                jobs++;
+                return results;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void keepAliveIfIdle() {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                if (session == null || !session.isAlive()) {
+                    restart();
+                } else if (!session.keepAlive()) {
+                    System.err.printf("⚠️ [%s] 登录已失效，请在浏览器中重新登录%n", name);
+                }
+            } catch (Exception e) {
+                System.err.printf("⚠️ [%s] 保活失败: %s%n", name, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void restart() throws Exception {
+            if (session != null) {
+                session.closeJournal();
+            }
+            if (browser != null) {
+                browser.quit();
+            }
+            restarts++;
+            startBrowser(restartFactory);
+        }
+
+        private void startBrowser(Supplier<BrowserManager> factory) throws Exception {
+            if (closed) {
+                throw new CancellationException("会话已关闭: " + name);
+            }
+            browser = factory.get();
+            session = new EvaluationSession(name, browser);
+            session.start();
+        }
+
+        /**
+         * 关闭会话（可由任意线程调用）
+         * 先在锁外取消会话并关闭浏览器，使进行中的任务立即结束、释放锁，再在锁内关闭进度日志
+         */
+        private void close() {
+            closed = true;
+            EvaluationSession current = session;
+            if (current != null) {
+                current.cancel();
+            }
+            BrowserManager currentBrowser = browser;
+            if (currentBrowser != null) {
+                currentBrowser.quit();
+            }
+
+            try {
+                if (!lock.tryLock(DAEMON_STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    System.err.printf("⚠️ [%s] 任务未在 %d 秒内结束，跳过关闭进度日志%n",
+                            name, DAEMON_STOP_TIMEOUT.toSeconds());
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                if (session != null) {
+                    session.closeJournal();
+                }
+                if (browser != null) {
+                    browser.quit();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import com.github.existed_name.courseevaluationautofiller.config.LookupIntent;
+import com.github.existed_name.courseevaluationautofiller.config.SystemConfig;
+import com.github.existed_name.courseevaluationautofiller.core.BrowserManager;
+import com.github.existed_name.courseevaluationautofiller.core.DataExtractor;
+import com.github.existed_name.courseevaluationautofiller.core.ElementLookup;
+import com.github.existed_name.courseevaluationautofiller.core.FormFiller;
+import com.github.existed_name.courseevaluationautofiller.core.LocatorRegistry;
+import com.github.existed_name.courseevaluationautofiller.core.NavigationService;
+import com.github.existed_name.courseevaluationautofiller.core.PageReadiness;
+import com.github.existed_name.courseevaluationautofiller.core.ParallelEvaluator;
+import com.github.existed_name.courseevaluationautofiller.http.DirectHttpEvaluator;
+import com.github.existed_name.courseevaluationautofiller.journal.ProgressJournal;
+import com.github.existed_name.courseevaluationautofiller.log.Log;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics.Phase;
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.model.CourseState;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.github.existed_name.courseevaluationautofiller.policy.AnswerPolicy;
+import com.github.existed_name.courseevaluationautofiller.portal.PageCapture;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 单个账号的评价会话
+ * 持有一个浏览器及其上的导航、提取、填写服务，完成"登录验证 → 进入列表 → 评价所有课程"
+ *
+ * <pre>
+ * 单账号模式：AutoEvaluationMain 创建一个会话
+ * 多账号模式：SessionOrchestrator 为清单中的每个账号各创建一个会话，在浏览器池中并发运行
+ * 常驻模式：DaemonServer 启动时 start() 一次，之后每个任务只需 enterEvaluationList() + evaluate()
+ * </pre>
+ *
+ * 会话内的 WebDriver 调用只在创建它的线程中进行，不同会话之间互不共享浏览器（cancel() 除外，可由任意线程调用）；
+ * 每门课程的进度写入该账号的 ProgressJournal，中途崩溃后下次运行据此核对
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class EvaluationSession implements AutoCloseable {
+
+    private final String name;
+    private final BrowserManager browserManager;
+    private final ProgressJournal journal;
+
+    private WebDriver driver;
+    private WebDriverWait wait;
+    private NavigationService navigationService;
+    private DataExtractor dataExtractor;
+    private FormFiller formFiller;
+    private PageReadiness readiness;
+
+    /** 浏览器当前是否停在首页（刚启动或刚保活过，进入列表前无需重新加载首页） */
+    private boolean atStartPage;
+
+    /** 已被取消（由其他线程设置，评价循环在每门课程之间检查） */
+    private volatile boolean cancelled;
+
+    /**
+     * @param name 会话名称（账号名，用于日志与结果汇总）
+     * @param browserManager 该账号使用的浏览器（尚未启动）
+     */
+    public EvaluationSession(String name, BrowserManager browserManager) {
+        this.name = name;
+        this.browserManager = browserManager;
+        this.journal = ProgressJournal.open(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 阶段1+2：启动浏览器、验证登录、进入评价列表页
+     */
+    public void open() throws Exception {
+        start();
+        enterEvaluationList();
+    }
+
+    /**
+     * 阶段1：启动浏览器并验证登录，停在首页
+     */
+    public void start() throws Exception {
+        long initStart = PhaseMetrics.start();
+        try {
+            browserManager.initEnvironment();
+        } finally {
+            PhaseMetrics.stop(Phase.INIT_ENVIRONMENT, initStart);
+        }
+        // 浏览器启动期间被取消时 cancel() 还关不到它，由调用方的 finally 关闭
+        checkCancelled();
+        PhaseMetrics.time(Phase.NAVIGATE_TO_TARGET, browserManager::navigateToTarget);
+
+        if (!PhaseMetrics.time(Phase.VERIFY_LOGIN_STATUS, browserManager::verifyLoginStatus)) {
+            throw new RuntimeException("登录验证失败，请手动登录后重新运行");
+        }
+        browserManager.enableLeanMode();
+
+        driver = browserManager.getDriver();
+        PageCapture.page(PageCapture.Kind.LANDING, driver);
+        wait = browserManager.getWait();
+        navigationService = new NavigationService(driver, wait);
+        dataExtractor = new DataExtractor(driver, wait);
+        formFiller = new FormFiller(driver, wait);
+        readiness = new PageReadiness(driver);
+        atStartPage = true;
+    }
+
+    /**
+     * 阶段2：从首页进入评价列表页（浏览器已离开首页时先重新加载首页）
+     */
+    public void enterEvaluationList() {
+        if (!atStartPage) {
+            PhaseMetrics.time(Phase.NAVIGATE_TO_TARGET, browserManager::navigateToTarget);
+        }
+        atStartPage = false;
+        PhaseMetrics.time(Phase.NAVIGATE_TO_EVALUATION_PAGE, navigationService::navigateToEvaluationPage);
+    }
+
+    /**
+     * 保活：重新加载首页并确认仍处于登录状态（常驻模式下定期调用，防止会话过期）
+     *
+     * @return 是否仍处于登录状态
+     */
+    public boolean keepAlive() {
+        browserManager.navigateToTarget();
+        atStartPage = true;
+        if (browserManager.verifyLoginStatus()) {
+            return true;
+        }
+        // 需要用户在浏览器中重新登录，恢复图片等资源的加载
+        browserManager.disableLeanMode();
+        return false;
+    }
+
+    /**
+     * 浏览器是否仍可用（窗口被手动关闭或驱动进程退出时返回 false）
+     */
+    public boolean isAlive() {
+        try {
+            return driver != null && driver.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * 阶段3：评价所有课程（直连 HTTP 模式下浏览器只负责登录与进入列表页）
+     *
+     * @return 每门课程的最终结果
+     */
+    public List<EvaluationResult> evaluate() throws Exception {
+        journal.printResumeSummary();
+        try {
+            return SystemConfig.USE_DIRECT_HTTP ? directHttpEvaluate() : batchEvaluate();
+        } finally {
+            journal.sync();
+        }
+    }
+
+    /**
+     * 逐门评价所有课程
+     *
+     * <pre>
+     * 列表只完整解析一次，之后按队列逐门处理：
+     *   有问卷链接的课程直接打开链接（driver.get），无需回到列表重新定位按钮；没有链接时才按行定位按钮并点击
+     *   每次提交后只探测该课程的链接 / 按钮是否已从列表消失（DataExtractor.isRowGone），仍在则放回队尾重试
+     *   队列处理完后再完整扫描一次列表作为一致性核对，有遗漏的课程继续入队
+     *   进度日志中已提交、未确认的课程暂不入队，刷新列表后再核对（见 ProgressJournal.selectForEvaluation）
+     * </pre>
+     */
+    private List<EvaluationResult> batchEvaluate() {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║                   开始批量评价                ║");
+        System.out.println("╚═══════════════════════════════════════════════╝\n");
+
+        // 按课程记录最终结果（同一门课重试成功会覆盖之前的失败记录）
+        Map<String, EvaluationResult> results = new LinkedHashMap<>();
+
+        if (SystemConfig.ENABLE_PARALLEL_TABS) {
+            evaluateInParallel(results);
+        }
+
+        int totalAttempts = 0;
+        int fullScans = 0;
+        final int MAX_ATTEMPTS = 100;
+
+        Deque<CourseEvaluation> queue = new ArrayDeque<>();
+
+        while (totalAttempts < MAX_ATTEMPTS) {
+            checkCancelled();
+            if (queue.isEmpty()) {
+                // 有暂缓确认的课程时先刷新列表，让已被接受的提交反映到列表中
+                if (journal.hasDeferred()) {
+                    driver.navigate().refresh();
+                    readiness.awaitPageSettled("列表刷新", 1000);
+                }
+                // 首次解析，或队列处理完后的一致性核对
+                System.out.println(fullScans == 0 ? ">>> 解析待评价列表..." : ">>> 队列已处理完，完整核对待评价列表...");
+                List<CourseEvaluation> courses = extractPending();
+                fullScans++;
+
+                // 🔑 如果列表为空，说明全部完成
+                if (courses.isEmpty()) {
+                    System.out.println("✅ 所有课程已评价完成！\n");
+                    break;
+                }
+                // 全部课程都在等待确认时本轮无需评价，刷新后重新核对
+                queue.addAll(journal.selectForEvaluation(courses));
+                continue;
+            }
+            totalAttempts++;
+
+            CourseEvaluation course = queue.poll();
+
+            System.out.printf("【进度: 已完成 %d 门，队列剩余 %d 门】正在处理: %s%n",
+                    countSuccess(results.values()), queue.size(), course.getFullInfo());
+
+            long start = System.currentTimeMillis();
+            try {
+                if (!openQuestionnaire(course)) {
+                    System.err.println("   ✗ 无法定位评价按钮，跳过此课程");
+                    journal.record(course, CourseState.FAILED, "无法定位评价按钮");
+                    putResult(results, EvaluationResult.failure(
+                            course, "无法定位评价按钮", System.currentTimeMillis() - start));
+                    continue;
+                }
+
+                // 填写并提交问卷
+                formFiller.fillAndSubmitQuestionnaire(course.getFullInfo(), AnswerPolicy.getInstance().forCourse(course),
+                        state -> journal.record(course, state, ""));
+
+                // 等待列表刷新完成（原固定等待 1 秒）
+                readiness.awaitPageSettled("列表刷新", 1000);
+
+                // 只核对这一门课程是否已从列表消失
+                if (dataExtractor.isRowGone(course)) {
+                    putResult(results, EvaluationResult.success(
+                            course, System.currentTimeMillis() - start));
+                    journal.record(course, CourseState.CONFIRMED, "已从评价列表消失");
+                    System.out.println("✅ 完成\n");
+                } else {
+                    putResult(results, EvaluationResult.failure(
+                            course, "提交后仍在评价列表中", System.currentTimeMillis() - start));
+                    queue.addLast(course);
+                    System.err.println("⚠️ 提交后仍在评价列表中，稍后重试\n");
+                }
+
+            } catch (Exception e) {
+                // 浏览器已被 cancel() 关闭，不再恢复与重试
+                checkCancelled();
+                putResult(results, EvaluationResult.failure(
+                        course, e.getMessage(), System.currentTimeMillis() - start));
+                journal.record(course, CourseState.FAILED, e.getMessage());
+                System.err.printf("❌ 失败: %s%n", e.getMessage());
+                System.err.println("   继续处理下一门课程...\n");
+
+                // 尝试恢复，失败的课程放回队尾
+                recoverFromError();
+                queue.addLast(course);
+            }
+        }
+
+        if (totalAttempts >= MAX_ATTEMPTS) {
+            System.err.println("⚠️ 达到最大尝试次数，终止任务");
+        }
+        System.out.printf("   [统计] 评价尝试 %d 次，完整解析列表 %d 次%n%n", totalAttempts, fullScans);
+
+        printResultDetails(results.values());
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * 直连 HTTP 模式：复用浏览器会话，用 HttpClient 并发完成所有问卷
+     */
+    private List<EvaluationResult> directHttpEvaluate() throws Exception {
+        System.out.println("╔═══════════════════════════════════════════════╗");
+        System.out.println("║              开始批量评价（直连模式）         ║");
+        System.out.println("╚═══════════════════════════════════════════════╝\n");
+
+        DirectHttpEvaluator evaluator = DirectHttpEvaluator.fromBrowser(driver, SystemConfig.HTTP_MAX_IN_FLIGHT);
+
+        // 每次扫描列表后核对进度日志；有暂缓确认的课程时再扫描一轮（重新 GET 列表），仍在列表中的才重新评价
+        Map<String, EvaluationResult> results = new LinkedHashMap<>();
+        do {
+            checkCancelled();
+            List<EvaluationResult> pass = evaluator.evaluateAll(courses -> {
+                trackPending(courses);
+                return journal.selectForEvaluation(courses);
+            });
+            for (EvaluationResult result : pass) {
+                putResult(results, result);
+                // 直连模式的成功已由 DirectHttpEvaluator 以列表复核，不再回到列表页核对
+                journal.record(result.course(), result.success() ? CourseState.CONFIRMED : CourseState.FAILED,
+                        result.success() ? "" : result.message());
+            }
+        } while (journal.hasDeferred());
+        printResultDetails(results.values());
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * 多标签页并发评价当前列表中的所有课程
+     * 失败或无法获取链接的课程留在列表中，由后续逐门评价循环兜底重试
+     */
+    private void evaluateInParallel(Map<String, EvaluationResult> results) {
+        System.out.printf(">>> 并发模式：最多同时打开 %d 个问卷标签页%n%n", SystemConfig.MAX_PARALLEL_TABS);
+
+        List<CourseEvaluation> courses = journal.selectForEvaluation(extractPending());
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        try {
+            ParallelEvaluator evaluator = new ParallelEvaluator(driver, wait, SystemConfig.MAX_PARALLEL_TABS);
+            for (EvaluationResult result : evaluator.evaluate(courses)) {
+                putResult(results, result);
+                journal.record(result.course(), result.success() ? CourseState.SUBMITTED : CourseState.FAILED,
+                        result.success() ? "" : result.message());
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ 并发评价中断，转为逐门评价: " + e.getMessage());
+        }
+
+        // 刷新列表页，让剩余课程反映最新状态
+        driver.navigate().refresh();
+    }
+
+    /**
+     * 进入课程的问卷：有链接时直接打开，否则重新定位列表中的按钮并点击
+     *
+     * @return 是否已进入问卷（没有链接且无法定位按钮时返回 false）
+     */
+    private boolean openQuestionnaire(CourseEvaluation course) {
+        String href = course.directHref();
+        if (href != null) {
+            PhaseMetrics.time(Phase.NAVIGATE_TO_QUESTIONNAIRE,
+                    () -> navigationService.openQuestionnaire(href, course.getFullInfo()));
+        } else {
+            // 重新获取按钮元素（避免 stale element）
+            WebElement freshButton = refindEvalButton(course);
+            if (freshButton == null) {
+                return false;
+            }
+            PhaseMetrics.time(Phase.NAVIGATE_TO_QUESTIONNAIRE,
+                    () -> navigationService.navigateToQuestionnaire(freshButton, course.getFullInfo()));
+        }
+        journal.record(course, CourseState.OPENED, "");
+        PageCapture.page(PageCapture.Kind.QUESTIONNAIRE, driver);
+        return true;
+    }
+
+    /**
+     * 完整解析评价列表，并据此核对进度日志
+     */
+    private List<CourseEvaluation> extractPending() {
+        List<CourseEvaluation> courses = PhaseMetrics.time(Phase.EXTRACT_PENDING_COURSES,
+                () -> dataExtractor.extractPendingCourses());
+        PageCapture.page(courses.isEmpty() ? PageCapture.Kind.COMPLETED : PageCapture.Kind.LIST, driver);
+        trackPending(courses);
+        return courses;
+    }
+
+    /**
+     * 以刚提取的评价列表核对进度日志：已从列表消失的课程记为已确认，新出现的课程记为已发现
+     * 已提交、未确认但仍在列表中的课程由调用方通过 journal.selectForEvaluation 暂缓一次
+     */
+    private void trackPending(List<CourseEvaluation> courses) {
+        int confirmed = journal.reconcile(courses);
+        if (confirmed > 0) {
+            System.out.printf("   [日志] %d 门课程已从评价列表消失，记为已确认%n", confirmed);
+        }
+        journal.discover(courses);
+    }
+
+    /**
+     * 重新查找评价按钮（避免 stale element 问题）
+     */
+    private WebElement refindEvalButton(CourseEvaluation course) {
+        try {
+            // 根据课程名称和教师名称定位所在行
+            WebElement row = wait.until(
+                    ExpectedConditions.presenceOfElementLocated(By.xpath(DataExtractor.rowXPath(course)))
+            );
+
+            // 在行内查找评价按钮（按学习到的顺序尝试）
+            LocatorRegistry registry = LocatorRegistry.getInstance();
+            for (String buttonXPath : registry.order(LocatorRegistry.EVAL_BUTTON, SystemConfig.XPATH_EVAL_BUTTON)) {
+                Optional<WebElement> button = ElementLookup.find(row, By.xpath(buttonXPath), LookupIntent.PROBE);
+                if (button.isPresent()) {
+                    return button.get();
+                }
+            }
+
+            return null;
+
+        } catch (Exception e) {
+            System.err.println("   ⚠ 重新定位按钮失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 错误恢复机制
+     */
+    private void recoverFromError() {
+        PhaseMetrics.time(Phase.RECOVER_FROM_ERROR, this::returnToList);
+    }
+
+    /**
+     * 返回列表页：直接打开记录的列表页地址，失败则从首页重新导航
+     */
+    private void returnToList() {
+        try {
+            navigationService.returnToEvaluationList();
+        } catch (Exception listError) {
+            System.err.println("   ⚠ 无法返回列表页，尝试重新导航...");
+            try {
+                browserManager.navigateToTarget();
+                navigationService.navigateToEvaluationPage();
+            } catch (Exception navError) {
+                System.err.println("   ✗ 重新导航失败");
+            }
+        }
+    }
+
+    /**
+     * 记录课程结果（同一门课的新结果覆盖旧结果），并输出结构化事件
+     */
+    private static void putResult(Map<String, EvaluationResult> results, EvaluationResult result) {
+        results.put(result.course().getFullInfo(), result);
+        Log.event("course", result.course().getFullInfo(),
+                result.success() ? "ok" : "failed: " + result.message(), result.elapsedMillis());
+    }
+
+    /**
+     * 统计成功数量
+     */
+    public static int countSuccess(Iterable<EvaluationResult> results) {
+        int count = 0;
+        for (EvaluationResult result : results) {
+            if (result.success()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 打印每门课程的评价结果
+     */
+    private static void printResultDetails(Iterable<EvaluationResult> results) {
+        if (!results.iterator().hasNext()) {
+            return;
+        }
+        System.out.println("评价结果明细：");
+        for (EvaluationResult result : results) {
+            System.out.println("  " + result);
+        }
+        System.out.println();
+    }
+
+    /**
+     * 取消会话：关闭浏览器，使正在进行的 WebDriver 调用立即失败，评价循环随即结束（可由任意线程调用）
+     */
+    public void cancel() {
+        cancelled = true;
+        browserManager.quit();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("会话已取消: " + name);
+        }
+    }
+
+    /**
+     * 关闭进度日志（浏览器由调用方单独关闭时使用）
+     */
+    public void closeJournal() {
+        journal.close();
+    }
+
+    /**
+     * 关闭进度日志与浏览器（是否真正关闭浏览器由 BrowserManager 的 AUTO_CLOSE_BROWSER 决定）
+     */
+    @Override
+    public void close() {
+        journal.close();
+        browserManager.cleanup();
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+
+/**
+ * 多账号批量运行器
+ * 读取账号清单，每个账号一个 EvaluationSession，在有上限的浏览器池中并发运行，结束后汇总并直接退出（不等待回车）
+ *
+ * <pre>
+ * 清单格式（UTF-8，每行一个账号，# 开头为注释）：
+ *   账号名, Edge 用户数据目录[, 配置文件名]
+ * 例：
+ *   张三, D:\edge-data\zhangsan
+ *   李四, D:\edge-data\lisi, Profile 1
+ *
+ * 每个账号的数据目录须事先用 Edge 登录一次；Edge 不允许两个进程同时使用同一数据目录，因此各账号的目录不能相同
+ * </pre>
+ *
+ * 每个账号一条流水线，由 SessionOrchestrator 在虚拟线程中并发运行并限制同时启动的浏览器数量；
+ * Ctrl+C 时取消所有流水线并关闭浏览器；设置了 METRICS_PORT 时，运行期间在该端口提供 Prometheus 阶段耗时接口
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class FleetRunner {
+
+    private final List<Account> accounts;
+    private final int poolSize;
+
+    /**
+     * @param accounts 账号清单
+     * @param poolSize 同时运行的浏览器数量上限
+     */
+    public FleetRunner(List<Account> accounts, int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("浏览器池大小至少为 1: " + poolSize);
+        }
+        this.accounts = List.copyOf(accounts);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * 按清单运行所有账号并打印汇总
+     *
+     * @param manifest 清单文件
+     * @return 进程退出码：全部账号、全部课程成功为 0，否则为 1
+     */
+    public static int runManifest(Path manifest) throws IOException, InterruptedException, ExecutionException {
+        List<Account> accounts = loadManifest(manifest);
+        if (accounts.isEmpty()) {
+            System.err.println("❌ 账号清单为空: " + manifest);
+            return 1;
+        }
+        int poolSize = Math.min(accounts.size(), FLEET_MAX_BROWSERS > 0 ? FLEET_MAX_BROWSERS : defaultPoolSize());
+
+        HttpServer metrics = METRICS_PORT > 0 ? PhaseMetrics.startEndpoint(METRICS_PORT) : null;
+        long start = System.currentTimeMillis();
+        List<AccountReport> reports;
+        try {
+            reports = new FleetRunner(accounts, poolSize).run();
+        } finally {
+            if (metrics != null) {
+                metrics.stop(0);
+            }
+        }
+        printReport(reports, System.currentTimeMillis() - start);
+
+        return reports.stream().allMatch(report -> report.error() == null && report.failedCount() == 0) ? 0 : 1;
+    }
+
+    /**
+     * 运行所有账号（Ctrl+C 时取消所有流水线，等待浏览器关闭后再退出）
+     *
+     * @return 每个账号的结果（与清单顺序一致）
+     * @throws ExecutionException 出现未预期的错误（所有流水线已被取消）
+     */
+    public List<AccountReport> run() throws InterruptedException, ExecutionException {
+        System.out.printf("🚀 多账号模式：%d 个账号，最多同时运行 %d 个浏览器%n%n", accounts.size(), poolSize);
+
+        SessionOrchestrator orchestrator = new SessionOrchestrator(poolSize);
+        Thread cancelHook = new Thread(() -> {
+            System.err.println("\n⚠️ 收到退出信号，正在取消所有会话并关闭浏览器...");
+            orchestrator.cancel();
+            try {
+                orchestrator.awaitTermination(FLEET_CANCEL_TIMEOUT);
+            } catch (InterruptedException ignored) {}
+        }, "fleet-cancel");
+        Runtime.getRuntime().addShutdownHook(cancelHook);
+        try {
+            return orchestrator.run(accounts);
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(cancelHook);
+            } catch (IllegalStateException ignored) {
+                // 已在关闭过程中
+            }
+        }
+    }
+
+    /**
+     * 读取账号清单
+     *
+     * @throws IllegalArgumentException 格式错误，或多个账号重名、使用同一数据目录
+     */
+    public static List<Account> loadManifest(Path manifest) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        Set<String> dataDirs = new HashSet<>();
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("清单第 " + (i + 1) + " 行格式错误（账号名, 数据目录[, 配置文件名]）: " + line);
+            }
+            String name = parts[0].strip();
+            String dataDir = parts[1].strip();
+            String profile = parts.length == 3 ? parts[2].strip() : EDGE_PROFILE;
+            if (!names.add(name.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("清单第 " + (i + 1) + " 行：账号名与其他账号重复（不区分大小写，进度日志按账号名存放）: " + name);
+            }
+            if (!dataDirs.add(Path.of(dataDir).toAbsolutePath().normalize().toString().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("清单第 " + (i + 1) + " 行：数据目录与其他账号重复: " + dataDir);
+            }
+            accounts.add(new Account(name, dataDir, profile));
+        }
+        return accounts;
+    }
+
+    /**
+     * 按本机资源估算浏览器池大小：每两个核一个浏览器，且可用内存（物理内存的 60%）能容纳
+     */
+    public static int defaultPoolSize() {
+        int byCores = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        long byMemory = byCores;
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            long budgetMb = os.getTotalMemorySize() * 6 / 10 / (1024 * 1024);
+            byMemory = Math.max(1, budgetMb / FLEET_BROWSER_MEMORY_MB);
+        }
+        return (int) Math.min(byCores, byMemory);
+    }
+
+    /**
+     * 打印汇总：每个账号的结果与整体吞吐量
+     * 总吞吐量按墙钟时间（含排队等待浏览器名额）；单浏览器吞吐量按各会话实际运行时间之和
+     *
+     * @param elapsedMillis 整个运行的墙钟耗时
+     */
+    public static void printReport(List<AccountReport> reports, long elapsedMillis) {
+        int totalSuccess = 0;
+        int totalFailed = 0;
+        long sessionMillis = 0;
+        System.out.println("\n╔═══════════════════════════════════════════════╗");
+        System.out.println("║                多账号运行汇总                 ║");
+        System.out.println("╚═══════════════════════════════════════════════╝");
+        for (AccountReport report : reports) {
+            totalSuccess += report.successCount();
+            totalFailed += report.failedCount();
+            sessionMillis += report.elapsedMillis();
+            if (report.error() != null) {
+                System.out.printf("  ✗ %s：未完成（%s），耗时 %.1f 秒%n",
+                        report.account().name(), report.error(), report.elapsedMillis() / 1000.0);
+            } else {
+                System.out.printf("  %s %s：成功 %d 门，失败 %d 门，耗时 %.1f 秒%n",
+                        report.failedCount() == 0 ? "✓" : "⚠", report.account().name(),
+                        report.successCount(), report.failedCount(), report.elapsedMillis() / 1000.0);
+            }
+            for (EvaluationResult result : report.results()) {
+                if (!result.success()) {
+                    System.out.println("      " + result);
+                }
+            }
+        }
+        double minutes = elapsedMillis / 60_000.0;
+        System.out.println("┌─────────────────────────────────");
+        System.out.printf("│ 账号: %d 个（未完成 %d 个）%n", reports.size(),
+                reports.stream().filter(report -> report.error() != null).count());
+        System.out.printf("│ 课程: 成功 %d 门，失败 %d 门%n", totalSuccess, totalFailed);
+        System.out.printf("│ 总耗时: %.1f 秒，吞吐量: %.1f 门/分钟%n",
+                elapsedMillis / 1000.0, minutes > 0 ? totalSuccess / minutes : 0.0);
+        double sessionMinutes = sessionMillis / 60_000.0;
+        System.out.printf("│ 会话耗时合计: %.1f 秒（不含排队），单浏览器吞吐量: %.1f 门/分钟%n",
+                sessionMillis / 1000.0, sessionMinutes > 0 ? totalSuccess / sessionMinutes : 0.0);
+        System.out.println("└─────────────────────────────────");
+    }
+
+    /**
+     * 清单中的一个账号
+     *
+     * @param name 账号名（仅用于日志与汇总）
+     * @param userDataDir Edge 用户数据目录
+     * @param profileDirectory Edge 配置文件名
+     */
+    public record Account(String name, String userDataDir, String profileDirectory) {}
+
+    /**
+     * 单个账号的运行结果
+     *
+     * @param account 账号
+     * @param results 各课程结果
+     * @param error 会话级错误（登录失败、浏览器无法启动等），正常完成时为 null
+     * @param elapsedMillis 耗时（毫秒，从拿到浏览器名额开始，含浏览器启动，不含排队等待名额；未开始即取消时为 0）
+     */
+    public record AccountReport(Account account, List<EvaluationResult> results, String error, long elapsedMillis) {
+
+        public int successCount() {
+            return EvaluationSession.countSuccess(results);
+        }
+
+        public int failedCount() {
+            return results.size() - successCount();
+        }
+    }
+}
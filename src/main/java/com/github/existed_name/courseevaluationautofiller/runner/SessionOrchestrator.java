@@ -0,0 +1,177 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import com.github.existed_name.courseevaluationautofiller.core.BrowserManager;
+import com.github.existed_name.courseevaluationautofiller.log.Log;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import com.github.existed_name.courseevaluationautofiller.runner.FleetRunner.Account;
+import com.github.existed_name.courseevaluationautofiller.runner.FleetRunner.AccountReport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话编排器
+ * 每个账号一条独立的流水线（浏览器 + EvaluationSession），各在一个虚拟线程中运行；
+ * 所有流水线处于同一个结构化并发作用域（SessionScope）内，run() 返回时不会有流水线仍在运行
+ *
+ * <pre>
+ * 并发：Semaphore 限制同时启动的浏览器数量；WebDriver 调用阻塞时只挂起虚拟线程，不占用平台线程
+ * 错误：账号级错误（登录失败、浏览器无法启动等）只影响该账号，记入 AccountReport；
+ *       其余未预期的错误（Error 等）取消所有流水线并从 run() 抛出
+ * 取消：cancel()（如 Ctrl+C）关闭各流水线的浏览器并中断其线程，未完成的账号记为"已取消"
+ * 输出：各流水线线程的每行输出带 "[账号名] " 前缀（见 Log.setThreadPrefix），并发会话的输出不会混淆
+ * 耗时：从拿到浏览器名额开始计时，不含排队等待名额的时间
+ * </pre>
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+public class SessionOrchestrator {
+
+    private final Semaphore browsers;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile SessionScope<AccountReport> scope;
+    private volatile boolean cancelled;
+
+    /**
+     * @param poolSize 同时运行的浏览器数量上限
+     */
+    public SessionOrchestrator(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("浏览器池大小至少为 1: " + poolSize);
+        }
+        this.browsers = new Semaphore(poolSize);
+    }
+
+    /**
+     * 为每个账号启动一条流水线并等待全部结束（只能调用一次）
+     *
+     * @return 每个账号的结果（与输入顺序一致）
+     * @throws ExecutionException 某条流水线出现未预期的错误（其余流水线已被取消）
+     * @throws InterruptedException 等待期间被中断（所有流水线已被取消并结束）
+     */
+    public List<AccountReport> run(List<Account> accounts) throws ExecutionException, InterruptedException {
+        List<Pipeline> pipelines = new ArrayList<>();
+        List<SessionScope.Subtask<AccountReport>> subtasks = new ArrayList<>();
+        try (SessionScope<AccountReport> scope = new SessionScope<>("session-")) {
+            this.scope = scope;
+            if (cancelled) {
+                scope.shutdown();
+            }
+            for (Account account : accounts) {
+                Pipeline pipeline = new Pipeline(account);
+                pipelines.add(pipeline);
+                subtasks.add(scope.fork(pipeline::run, pipeline::cancel));
+            }
+            scope.join();
+            scope.throwIfFailed();
+        } finally {
+            finished.countDown();
+        }
+
+        // 作用域关闭后所有流水线都已结束；被取消的流水线没有结果
+        List<AccountReport> reports = new ArrayList<>();
+        for (int i = 0; i < pipelines.size(); i++) {
+            SessionScope.Subtask<AccountReport> subtask = subtasks.get(i);
+            reports.add(subtask.state() == SessionScope.Subtask.State.SUCCESS
+                    ? subtask.get()
+                    : pipelines.get(i).report(List.of(), "已取消"));
+        }
+        return reports;
+    }
+
+    /**
+     * 取消所有流水线（可由任意线程调用）
+     */
+    public void cancel() {
+        cancelled = true;
+        SessionScope<AccountReport> current = scope;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * 等待 run() 结束（所有浏览器已关闭）
+     *
+     * @return 是否在超时前结束
+     */
+    public boolean awaitTermination(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 单个账号的流水线：占用一个浏览器名额 → 登录验证 → 评价 → 关闭浏览器
+     */
+    private final class Pipeline {
+
+        private final Account account;
+        /** 拿到浏览器名额的时间（0 表示尚未开始） */
+        private volatile long start;
+        private volatile EvaluationSession session;
+
+        private Pipeline(Account account) {
+            this.account = account;
+        }
+
+        private AccountReport run() throws InterruptedException {
+            Log.setThreadPrefix("[" + account.name() + "] ");
+            browsers.acquire();
+            start = System.currentTimeMillis();
+            BrowserManager browser = new BrowserManager(account.userDataDir(), account.profileDirectory());
+            session = new EvaluationSession(account.name(), browser);
+            try {
+                if (isCancelled()) {
+                    return report(List.of(), "已取消");
+                }
+                System.out.println("▶ 开始");
+                session.open();
+                List<EvaluationResult> results = session.evaluate();
+                System.out.printf("■ 完成：成功 %d 门%n", EvaluationSession.countSuccess(results));
+                return report(results, null);
+            } catch (Exception e) {
+                if (isCancelled() || e instanceof CancellationException) {
+                    System.err.println("✗ 已取消");
+                    return report(List.of(), "已取消");
+                }
+                System.err.println("✗ 失败: " + e.getMessage());
+                return report(List.of(), String.valueOf(e.getMessage()));
+            } finally {
+                session.closeJournal();
+                browser.quit();
+                browsers.release();
+                Log.setThreadPrefix(null);
+            }
+        }
+
+        /**
+         * 取消回调：关闭浏览器，让阻塞中的 WebDriver 调用立即失败返回
+         */
+        private void cancel() {
+            EvaluationSession current = session;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        /**
+         * 是否已被取消（编排器取消，或作用域因其他流水线出错而取消）
+         */
+        private boolean isCancelled() {
+            EvaluationSession current = session;
+            return cancelled || (current != null && current.isCancelled()) || Thread.currentThread().isInterrupted();
+        }
+
+        private AccountReport report(List<EvaluationResult> results, String error) {
+            long started = start;
+            return new AccountReport(account, results, error, started == 0 ? 0 : System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 结构化并发作用域：每个子任务一个虚拟线程，子任务的生命周期不超出作用域
+ * 语义与 StructuredTaskScope.ShutdownOnFailure 相同（Java 21 中该 API 仍是预览特性，项目未开启 --enable-preview）
+ *
+ * <pre>
+ * try (SessionScope&lt;R&gt; scope = new SessionScope&lt;&gt;("session-")) {
+ *     Subtask&lt;R&gt; a = scope.fork(taskA, cancelA);
+ *     Subtask&lt;R&gt; b = scope.fork(taskB, cancelB);
+ *     scope.join();           // 全部完成，或任一子任务失败 / shutdown() 后返回
+ *     scope.throwIfFailed();  // 第一个失败原样传播
+ * }                           // close()：取消未完成的子任务并等待其线程全部结束
+ * </pre>
+ *
+ * 取消：对每个未完成的子任务先执行其取消回调（如关闭浏览器，让阻塞中的 WebDriver 调用立即返回），再中断其线程
+ * fork / join / close 只能由创建作用域的线程调用；shutdown() 可由任意线程调用（如 Ctrl+C 的关闭钩子）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+final class SessionScope<T> implements AutoCloseable {
+
+    private final Thread.Builder threads;
+    private final Thread owner = Thread.currentThread();
+    private final List<Subtask<T>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private int running;
+
+    /**
+     * @param threadPrefix 子任务线程名前缀（后接序号）
+     */
+    SessionScope(String threadPrefix) {
+        this.threads = Thread.ofVirtual().name(threadPrefix, 0);
+    }
+
+    /**
+     * 在新的虚拟线程中启动子任务
+     *
+     * @param task 子任务
+     * @param onCancel 取消回调（可为 null），在中断线程之前执行
+     */
+    Subtask<T> fork(Callable<? extends T> task, Runnable onCancel) {
+        ensureOwner();
+        Subtask<T> subtask = new Subtask<>(onCancel);
+        if (shutdown.get()) {
+            subtask.state = Subtask.State.CANCELLED;
+            return subtask;
+        }
+        lock.lock();
+        try {
+            running++;
+        } finally {
+            lock.unlock();
+        }
+        Thread thread = threads.unstarted(() -> runSubtask(subtask, task));
+        subtask.thread = thread;
+        thread.start();
+        subtasks.add(subtask);
+        // shutdown() 可能在上面的检查之后、加入列表之前遍历了 subtasks，这里补做取消
+        if (shutdown.get()) {
+            subtask.cancel();
+        }
+        return subtask;
+    }
+
+    /**
+     * 等待所有子任务完成，或任一子任务失败、作用域被 shutdown
+     *
+     * @throws InterruptedException 等待期间被中断（此时作用域已 shutdown）
+     */
+    void join() throws InterruptedException {
+        ensureOwner();
+        lock.lock();
+        try {
+            while (running > 0 && !shutdown.get()) {
+                changed.await();
+            }
+        } catch (InterruptedException e) {
+            shutdown();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 有子任务失败时抛出第一个失败
+     */
+    void throwIfFailed() throws ExecutionException {
+        Throwable first = failure.get();
+        if (first != null) {
+            throw new ExecutionException(first);
+        }
+    }
+
+    /**
+     * 是否已被 shutdown（子任务失败或外部取消）
+     */
+    boolean isShutdown() {
+        return shutdown.get();
+    }
+
+    /**
+     * 取消所有未完成的子任务（可重复调用、可由任意线程调用）
+     */
+    void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        for (Subtask<T> subtask : subtasks) {
+            subtask.cancel();
+        }
+        signal();
+    }
+
+    /**
+     * 取消未完成的子任务并等待所有子任务线程结束
+     */
+    @Override
+    public void close() {
+        ensureOwner();
+        shutdown();
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (running > 0) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSubtask(Subtask<T> subtask, Callable<? extends T> task) {
+        try {
+            subtask.succeed(task.call());
+        } catch (Throwable e) {
+            if (shutdown.get()) {
+                // 取消引起的异常不算失败
+                subtask.state = Subtask.State.CANCELLED;
+            } else {
+                subtask.fail(e);
+                failure.compareAndSet(null, e);
+                shutdown();
+            }
+        } finally {
+            lock.lock();
+            try {
+                running--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("只能由创建作用域的线程调用");
+        }
+    }
+
+    /**
+     * 一个子任务
+     */
+    static final class Subtask<T> {
+
+        enum State { RUNNING, SUCCESS, FAILED, CANCELLED }
+
+        private final Runnable onCancel;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile Thread thread;
+        private volatile State state = State.RUNNING;
+        private volatile T result;
+        private volatile Throwable exception;
+
+        private Subtask(Runnable onCancel) {
+            this.onCancel = onCancel;
+        }
+
+        State state() {
+            return state;
+        }
+
+        /**
+         * 子任务的结果（只有 SUCCESS 状态可调用）
+         */
+        T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("子任务未成功完成: " + state);
+            }
+            return result;
+        }
+
+        /**
+         * 子任务抛出的异常（只有 FAILED 状态可调用）
+         */
+        Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("子任务未失败: " + state);
+            }
+            return exception;
+        }
+
+        private void succeed(T value) {
+            result = value;
+            state = State.SUCCESS;
+        }
+
+        private void fail(Throwable e) {
+            exception = e;
+            state = State.FAILED;
+        }
+
+        private void cancel() {
+            if (state != State.RUNNING || !cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            if (onCancel != null) {
+                try {
+                    onCancel.run();
+                } catch (RuntimeException ignored) {}
+            }
+            Thread t = thread;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.existed_name.courseevaluationautofiller.journal;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.model.CourseState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProgressJournal 单元测试：续跑时的暂缓与核对、崩溃半行截断、压缩与过期清理、文件名
+ * 数据目录由 surefire 的 autofiller.dataDir 指向 target/test-data
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class ProgressJournalTest {
+
+    private static final CourseEvaluation MATH = course("1", "高等数学", "张三");
+    private static final CourseEvaluation PHYSICS = course("2", "大学物理", "李四");
+    private static final CourseEvaluation ENGLISH = course("3", "大学英语", "王五");
+
+    private static CourseEvaluation course(String index, String name, String teacher) {
+        return new CourseEvaluation(index, "理学院", name, teacher, "4", "1-16", null, "/q?id=" + index);
+    }
+
+    /** 打开一个全新的日志（删除同名的旧文件） */
+    private static ProgressJournal fresh(String sessionName) throws IOException {
+        Files.deleteIfExists(fileOf(sessionName));
+        return ProgressJournal.open(sessionName);
+    }
+
+    private static Path fileOf(String sessionName) {
+        return APP_DATA_DIR.resolve("journal").resolve(ProgressJournal.fileNameOf(sessionName) + ".journal");
+    }
+
+    @Test
+    void submittedCourseIsDeferredUntilListIsReadAgain() throws IOException {
+        try (ProgressJournal journal = fresh("resume-confirmed")) {
+            journal.record(MATH, CourseState.SUBMITTED, "");
+            journal.record(PHYSICS, CourseState.FAILED, "网络错误");
+        }
+
+        // 模拟崩溃后重新运行
+        try (ProgressJournal journal = ProgressJournal.open("resume-confirmed")) {
+            List<CourseEvaluation> firstScan = List.of(MATH, PHYSICS, ENGLISH);
+            journal.reconcile(firstScan);
+            journal.discover(firstScan);
+            assertEquals(List.of(PHYSICS, ENGLISH), journal.selectForEvaluation(firstScan), "已提交的课程不重复提交");
+            assertTrue(journal.hasDeferred());
+
+            // 重新读取列表：已提交的课程已消失
+            List<CourseEvaluation> secondScan = List.of(PHYSICS, ENGLISH);
+            assertEquals(1, journal.reconcile(secondScan));
+            assertFalse(journal.hasDeferred());
+            assertEquals(CourseState.CONFIRMED, journal.stateOf(MATH));
+            assertEquals(List.of(PHYSICS, ENGLISH), journal.selectForEvaluation(secondScan));
+        }
+    }
+
+    @Test
+    void submittedCourseStillListedAfterReReadIsEvaluatedAgain() throws IOException {
+        try (ProgressJournal journal = fresh("resume-resubmit")) {
+            journal.record(MATH, CourseState.SUBMITTED, "");
+        }
+
+        try (ProgressJournal journal = ProgressJournal.open("resume-resubmit")) {
+            List<CourseEvaluation> scan = List.of(MATH, ENGLISH);
+            journal.reconcile(scan);
+            assertEquals(List.of(ENGLISH), journal.selectForEvaluation(scan));
+            assertTrue(journal.hasDeferred());
+
+            journal.reconcile(scan);
+            assertEquals(List.of(MATH, ENGLISH), journal.selectForEvaluation(scan), "重新读取后仍在列表中，提交未生效");
+            assertFalse(journal.hasDeferred());
+        }
+    }
+
+    @Test
+    void coursesGoneFromListAreConfirmed() throws IOException {
+        try (ProgressJournal journal = fresh("reconcile")) {
+            journal.discover(List.of(MATH, PHYSICS));
+            journal.record(MATH, CourseState.FILLED, "");
+
+            assertEquals(1, journal.reconcile(List.of(PHYSICS)));
+            assertEquals(CourseState.CONFIRMED, journal.stateOf(MATH));
+            assertEquals(CourseState.DISCOVERED, journal.stateOf(PHYSICS));
+            assertNull(journal.stateOf(ENGLISH));
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedOnOpen() throws IOException {
+        try (ProgressJournal journal = fresh("torn")) {
+            journal.record(MATH, CourseState.OPENED, "");
+            journal.record(MATH, CourseState.SUBMITTED, "");
+        }
+        // 崩溃时写了一半的记录
+        Files.writeString(fileOf("torn"), System.currentTimeMillis() + "\tCONFIR", StandardOpenOption.APPEND);
+
+        try (ProgressJournal journal = ProgressJournal.open("torn")) {
+            assertEquals(CourseState.SUBMITTED, journal.stateOf(MATH), "半行记录不生效");
+            journal.record(PHYSICS, CourseState.DISCOVERED, "");
+        }
+
+        List<String> lines = Files.readAllLines(fileOf("torn"), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size(), "新记录不能接在半行后面");
+        assertTrue(lines.get(2).contains("\tDISCOVERED\t理学院|大学物理|李四\t"));
+        try (ProgressJournal journal = ProgressJournal.open("torn")) {
+            assertEquals(CourseState.SUBMITTED, journal.stateOf(MATH));
+            assertEquals(CourseState.DISCOVERED, journal.stateOf(PHYSICS));
+        }
+    }
+
+    @Test
+    void largeJournalIsCompactedToLatestStates() throws IOException {
+        Path file = fileOf("compact");
+        Files.createDirectories(file.getParent());
+        long now = System.currentTimeMillis();
+        long expired = now - JOURNAL_RETENTION.plus(Duration.ofDays(1)).toMillis();
+
+        StringBuilder content = new StringBuilder();
+        content.append(expired).append("\tCONFIRMED\t理学院|大学英语|王五\t已从评价列表消失\n");
+        CourseState[] cycle = {CourseState.DISCOVERED, CourseState.OPENED, CourseState.FILLED};
+        for (int i = 0; content.length() <= JOURNAL_COMPACT_BYTES; i++) {
+            content.append(now).append('\t').append(cycle[i % cycle.length]).append("\t理学院|高等数学|张三\t\n");
+            content.append(now).append("\tCONFIRMED\t理学院|大学物理|李四\t\n");
+        }
+        content.append(now).append("\tSUBMITTED\t理学院|高等数学|张三\t\n");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        try (ProgressJournal journal = ProgressJournal.open("compact")) {
+            assertEquals(CourseState.SUBMITTED, journal.stateOf(MATH));
+            assertEquals(CourseState.CONFIRMED, journal.stateOf(PHYSICS), "保留期内的已确认课程保留");
+            assertNull(journal.stateOf(ENGLISH), "过期的已确认课程被丢弃");
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(Files.size(file) < JOURNAL_COMPACT_BYTES);
+    }
+
+    @Test
+    void fileNamesAreSafeAndDistinct() {
+        assertEquals("alice_01-x", ProgressJournal.fileNameOf("alice_01-x"));
+
+        String zhang = ProgressJournal.fileNameOf("张三");
+        String li = ProgressJournal.fileNameOf("李四");
+        assertNotEquals(zhang, li, "只含非 ASCII 字符的会话名不能共用文件");
+        assertTrue(zhang.matches("[A-Za-z0-9_\\-]+"));
+        assertNotEquals(ProgressJournal.fileNameOf("a b"), ProgressJournal.fileNameOf("a_b"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.existed_name.courseevaluationautofiller.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoundedQueue 单元测试：容量校验、先进先出与多圈回绕、满时拒绝、多生产者单消费者不丢不重
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class BoundedQueueTest {
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<String>(1));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<String>(6));
+        assertDoesNotThrow(() -> new BoundedQueue<String>(8));
+    }
+
+    @Test
+    void emptyQueueReturnsNull() {
+        BoundedQueue<String> queue = new BoundedQueue<>(4);
+        assertNull(queue.poll());
+        assertTrue(queue.offer("a"));
+        assertEquals("a", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void rejectsWhenFullAndWrapsAround() {
+        BoundedQueue<Integer> queue = new BoundedQueue<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int lap = 0; lap < 10; lap++) {
+            while (queue.offer(next)) {
+                next++;
+            }
+            assertEquals(4, next - expected, "满时恰好容纳 capacity 个元素");
+            // 取出一部分再继续写入，使读写位置错开并多次回绕
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected++, queue.poll());
+            }
+        }
+        Integer item;
+        while ((item = queue.poll()) != null) {
+            assertEquals(expected++, item);
+        }
+        assertEquals(next, expected);
+    }
+
+    @Test
+    void multipleProducersSingleConsumerLoseNothing() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            int producers = 4;
+            int perProducer = 20_000;
+            BoundedQueue<long[]> queue = new BoundedQueue<>(64);
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perProducer; i++) {
+                        long[] item = {producer, i};
+                        while (!queue.offer(item)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+
+            // 每个生产者的元素按写入顺序到达，且总数不多不少
+            int[] nextExpected = new int[producers];
+            int received = 0;
+            while (received < producers * perProducer) {
+                long[] item = queue.poll();
+                if (item == null) {
+                    Thread.yield();
+                    continue;
+                }
+                int producer = (int) item[0];
+                assertEquals(nextExpected[producer], item[1], "生产者 " + producer + " 的元素乱序或重复");
+                nextExpected[producer]++;
+                received++;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(queue.poll());
+            for (int count : nextExpected) {
+                assertEquals(perProducer, count);
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.existed_name.courseevaluationautofiller.metrics;
+
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics.Histogram;
+import com.github.existed_name.courseevaluationautofiller.metrics.PhaseMetrics.Phase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PhaseMetrics 单元测试：对数分桶的上下界与相对误差、分位数估计、Prometheus 导出格式
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class PhaseMetricsTest {
+
+    /** 桶的下界（含）：上一个桶的上界 */
+    private static long lowerBound(int bucket) {
+        return bucket == 0 ? 0 : Histogram.upperBoundMicros(bucket - 1);
+    }
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 8; value++) {
+            int bucket = Histogram.bucketOf(value);
+            assertEquals(value, bucket);
+            assertEquals(value + 1, Histogram.upperBoundMicros(bucket));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndIncreasing() {
+        for (int bucket = 1; bucket < Histogram.BUCKETS; bucket++) {
+            assertTrue(Histogram.upperBoundMicros(bucket) > Histogram.upperBoundMicros(bucket - 1),
+                    "桶 " + bucket + " 的上界应大于前一个桶");
+            assertEquals(bucket, Histogram.bucketOf(lowerBound(bucket)), "下界落在本桶");
+            assertEquals(bucket, Histogram.bucketOf(Histogram.upperBoundMicros(bucket) - 1), "上界减一仍在本桶");
+        }
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucketWithinOneEighth() {
+        long[] values = {8, 9, 15, 16, 17, 100, 999, 1_000, 12_345, 1_000_000, 60_000_000L, (1L << 40) - 1};
+        for (long value : values) {
+            int bucket = Histogram.bucketOf(value);
+            long upper = Histogram.upperBoundMicros(bucket);
+            assertTrue(lowerBound(bucket) <= value && value < upper, value + " 应落在 [下界, 上界)");
+            assertTrue(upper - lowerBound(bucket) <= lowerBound(bucket) / 8, value + " 所在桶宽不超过下界的 1/8");
+        }
+    }
+
+    @Test
+    void hugeValuesGoToTheLastBucket() {
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucketOf(1L << 45));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        assertEquals(0, new Histogram().percentileMicros(0.5));
+    }
+
+    @Test
+    void percentilesUseBucketUpperBoundCappedAtMax() {
+        Histogram histogram = new Histogram();
+        // 1~100 毫秒各一次
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000L);
+        }
+
+        assertBucketEstimate(50_000, histogram.percentileMicros(0.5));
+        assertBucketEstimate(95_000, histogram.percentileMicros(0.95));
+        assertBucketEstimate(99_000, histogram.percentileMicros(0.99));
+        assertEquals(100_000, histogram.percentileMicros(1.0), "最高分位不超过实际最大值");
+    }
+
+    @Test
+    void singleValueIsReportedExactly() {
+        Histogram histogram = new Histogram();
+        histogram.record(12_345);
+
+        assertEquals(12_345, histogram.percentileMicros(0.5));
+        assertEquals(12_345, histogram.percentileMicros(0.99));
+    }
+
+    @Test
+    void skewedDistributionSeparatesMedianFromTail() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(2_000_000);
+        }
+
+        assertBucketEstimate(1_000, histogram.percentileMicros(0.5));
+        assertBucketEstimate(1_000, histogram.percentileMicros(0.9));
+        assertEquals(2_000_000, histogram.percentileMicros(0.95));
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.percentileMicros(0.5));
+    }
+
+    @Test
+    void prometheusExportListsEveryPhase() {
+        String text = PhaseMetrics.toPrometheus();
+
+        assertTrue(text.startsWith("# HELP autofiller_phase_seconds"));
+        for (Phase phase : Phase.values()) {
+            assertTrue(text.contains("autofiller_phase_seconds{phase=\"" + phase.metricName() + "\",quantile=\"0.95\"} "));
+            assertTrue(text.contains("autofiller_phase_seconds_count{phase=\"" + phase.metricName() + "\"} "));
+        }
+    }
+
+    /** 估计值是真实值所在桶的上界：不小于真实值，且误差不超过 1/8 */
+    private static void assertBucketEstimate(long expectedMicros, long actualMicros) {
+        assertTrue(actualMicros >= expectedMicros && actualMicros <= expectedMicros + expectedMicros / 8,
+                "估计值 " + actualMicros + " 应在 [" + expectedMicros + ", " + (expectedMicros + expectedMicros / 8) + "]");
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.existed_name.courseevaluationautofiller.parser;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.portal.PortalPages;
+import com.github.existed_name.courseevaluationautofiller.portal.StubCourse;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EvaluationListParser 单元测试：以 PortalPages 生成的列表页为样本，离线校验列解析、链接补全与完成提示
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class EvaluationListParserTest {
+
+    private static final String BASE_URI = "http://portal.test" + PortalPages.url(PortalPages.EVENT_LIST);
+
+    private static Document listPage(List<StubCourse> pending) {
+        return Jsoup.parse(PortalPages.list(pending), BASE_URI);
+    }
+
+    @Test
+    void parsesEveryColumnOfPendingRows() {
+        List<StubCourse> stubs = StubCourse.generate(3);
+        List<CourseEvaluation> courses = EvaluationListParser.parsePendingCourses(listPage(stubs));
+
+        assertEquals(3, courses.size());
+        for (int i = 0; i < stubs.size(); i++) {
+            StubCourse stub = stubs.get(i);
+            CourseEvaluation course = courses.get(i);
+            assertEquals(String.valueOf(i + 1), course.index());
+            assertEquals(stub.department(), course.department());
+            assertEquals(stub.courseName(), course.courseName());
+            assertEquals(stub.teacherName(), course.teacherName());
+            assertEquals(stub.credits(), course.credits());
+            assertEquals(stub.weeks(), course.weeks());
+            assertNull(course.evalButton(), "离线解析不带按钮元素");
+            assertTrue(course.needsEvaluation());
+        }
+    }
+
+    @Test
+    void resolvesButtonHrefAgainstBaseUri() {
+        CourseEvaluation course = EvaluationListParser.parsePendingCourses(listPage(StubCourse.generate(1))).get(0);
+
+        assertEquals("http://portal.test" + PortalPages.questionnaireUrl(1), course.directHref());
+    }
+
+    @Test
+    void completedPageYieldsNoCourses() {
+        Document document = listPage(List.of());
+
+        assertTrue(EvaluationListParser.isAllCompleted(document));
+        assertTrue(EvaluationListParser.parsePendingCourses(document).isEmpty());
+    }
+
+    @Test
+    void pendingPageIsNotCompleted() {
+        assertFalse(EvaluationListParser.isAllCompleted(listPage(StubCourse.generate(2))));
+    }
+
+    @Test
+    void rowWithoutButtonIsSkipped() {
+        Document document = listPage(StubCourse.generate(2));
+        document.selectFirst("tbody > tr a").remove();
+
+        List<CourseEvaluation> courses = EvaluationListParser.parsePendingCourses(document);
+
+        assertEquals(1, courses.size());
+        assertEquals("课程2", courses.get(0).courseName());
+    }
+
+    @Test
+    void tableWithoutTbodyFallsBackToRowsAfterHeader() {
+        String html = """
+                <div id="Questionnaire"><table>
+                <tr><th>序号</th><th>任课单位</th><th>课程 - 教师</th><th>学分</th><th>周次</th><th>操作</th></tr>
+                <tr><td>1</td><td>计科</td><td>编译原理 - 张伟</td><td>3.00</td><td>01-16</td>
+                <td><a class="stat info" title="网上评价" href="/q?id=7">网上评价</a></td></tr>
+                </table></div>
+                """;
+        // Jsoup 会补全 tbody，这里移走以模拟裸表格
+        Document document = Jsoup.parse(html, "http://portal.test/");
+        document.selectFirst("tbody").unwrap();
+
+        List<CourseEvaluation> courses = EvaluationListParser.parsePendingCourses(document);
+
+        assertEquals(1, courses.size());
+        assertEquals("编译原理", courses.get(0).courseName());
+        assertEquals("张伟", courses.get(0).teacherName());
+        assertEquals("http://portal.test/q?id=7", courses.get(0).directHref());
+    }
+
+    @Test
+    void missingTableIsReported() {
+        Document document = Jsoup.parse(PortalPages.landing(), "http://portal.test/");
+
+        assertThrows(IllegalStateException.class, () -> EvaluationListParser.parsePendingCourses(document));
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.existed_name.courseevaluationautofiller.parser;
+
+import com.github.existed_name.courseevaluationautofiller.model.QuestionnaireForm;
+import com.github.existed_name.courseevaluationautofiller.portal.PortalPages;
+import com.github.existed_name.courseevaluationautofiller.portal.StubCourse;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QuestionnaireFormParser 单元测试：以 PortalPages 生成的问卷页为样本，离线校验提交地址、隐藏字段、题目字段与评语字段
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class QuestionnaireFormParserTest {
+
+    private static final StubCourse COURSE = StubCourse.generate(1).get(0);
+
+    private static Document questionnairePage(int questionCount) {
+        return Jsoup.parse(PortalPages.questionnaire(COURSE, questionCount, "tok-42"),
+                "http://portal.test" + PortalPages.questionnaireUrl(COURSE.id()));
+    }
+
+    @Test
+    void parsesActionMethodAndHiddenFields() {
+        QuestionnaireForm form = QuestionnaireFormParser.parse(questionnairePage(3));
+
+        assertEquals("http://portal.test" + PortalPages.questionnaireUrl(COURSE.id()), form.actionUrl());
+        assertEquals("POST", form.method());
+        assertEquals("UTF-8", form.charset());
+        assertEquals(List.of(Map.entry("sheetId", "1"), Map.entry("token", "tok-42")),
+                form.fields(), "题目与评语字段不在原有字段中");
+        assertEquals(ID_COMMENT_TEXTAREA, form.commentField());
+    }
+
+    @Test
+    void onlyTheSubmitButtonIsSentAmongButtons() {
+        Document document = questionnairePage(1);
+        document.getElementById(ID_SUBMIT_BUTTON).attr("name", "action").attr("value", "submit");
+        document.getElementById("evaluateForm")
+                .append("<button type=\"button\" name=\"draft\" value=\"1\">暂存</button>")
+                .append("<input type=\"checkbox\" name=\"anonymous\" value=\"on\"/>");
+
+        QuestionnaireForm form = QuestionnaireFormParser.parse(document);
+
+        assertEquals(List.of(Map.entry("sheetId", "1"), Map.entry("token", "tok-42"), Map.entry("action", "submit")),
+                form.fields(), "禁用的 #postTrigger 仍随表单提交；其他按钮与未勾选的复选框不提交");
+    }
+
+    @Test
+    void mapsEachQuestionToItsHiddenField() {
+        QuestionnaireForm form = QuestionnaireFormParser.parse(questionnairePage(4));
+
+        assertEquals(4, form.questions().size());
+        for (int q = 0; q < 4; q++) {
+            QuestionnaireForm.Question question = form.questions().get(q);
+            assertEquals("q" + (q + 1), question.fieldName());
+            assertEquals(List.of("1", "2", "3", "4", "5"), question.options());
+        }
+        assertTrue(form.isSubmittable());
+    }
+
+    @Test
+    void questionFieldFallsBackToCellAttribute() {
+        Document document = questionnairePage(2);
+        document.select("td.quota input[type=hidden]").remove();
+        document.select("td.quota").get(1).attr(QUESTION_FIELD_ATTRIBUTES[0], "item2");
+
+        QuestionnaireForm form = QuestionnaireFormParser.parse(document);
+
+        assertNull(form.questions().get(0).fieldName());
+        assertEquals("item2", form.questions().get(1).fieldName());
+        assertFalse(form.isSubmittable(), "有题目无法映射字段时不能直接提交");
+    }
+
+    @Test
+    void formWithoutMethodDefaultsToGet() {
+        Document document = questionnairePage(1);
+        document.getElementById("evaluateForm").removeAttr("method");
+
+        assertEquals("GET", QuestionnaireFormParser.parse(document).method());
+    }
+
+    @Test
+    void pageWithoutFormIsReported() {
+        Document document = Jsoup.parse(PortalPages.landing(), "http://portal.test/");
+
+        assertThrows(IllegalStateException.class, () -> QuestionnaireFormParser.parse(document));
+    }
+}
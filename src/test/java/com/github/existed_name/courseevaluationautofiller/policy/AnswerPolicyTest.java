@@ -0,0 +1,144 @@
+package com.github.existed_name.courseevaluationautofiller.policy;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AnswerPolicy 单元测试：比例轮换序列、逐题指定、块对默认规则的继承与匹配顺序、评语轮换、带行号的格式错误
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class AnswerPolicyTest {
+
+    private static AnswerPolicy compile(String... lines) {
+        return AnswerPolicy.compile(List.of(lines), "测试");
+    }
+
+    private static CourseEvaluation course(String department, String name, String teacher) {
+        return new CourseEvaluation("1", department, name, teacher, "2.00", "1-16", null, "/q?id=1");
+    }
+
+    private static List<String> options(CourseAnswers answers, int count) {
+        List<String> options = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            options.add(answers.option(i));
+        }
+        return options;
+    }
+
+    @Test
+    void builtInSelectsDefaultOptionAndComment() {
+        CourseAnswers answers = AnswerPolicy.builtIn().defaults();
+
+        assertEquals(List.of(OPTION_VERY_SATISFIED, OPTION_VERY_SATISFIED, OPTION_VERY_SATISFIED), options(answers, 3));
+        assertEquals(DEFAULT_COMMENT, answers.comment());
+    }
+
+    @Test
+    void distributionIsReducedAndSmoothlyInterleaved() {
+        CourseAnswers answers = compile("distribution 1:8 2:2").defaults();
+
+        assertEquals(List.of("1", "1", "2", "1", "1"), answers.cycleOptions(), "8:2 约分为 4:1，选项 2 放在中间");
+        assertEquals(List.of("1", "1", "2", "1", "1", "1", "1", "2", "1", "1"), options(answers, 10));
+    }
+
+    @Test
+    void equalWeightsRotateInDeclarationOrder() {
+        assertEquals(List.of("1", "2", "3"), compile("distribution 1:1 2:1 3:1").defaults().cycleOptions());
+    }
+
+    @Test
+    void explicitQuestionsOverrideAndGapsFollowTheCycle() {
+        CourseAnswers answers = compile("distribution 1:1 2:1", "option 3=5 5=4").defaults();
+
+        assertEquals(List.of("1", "2", "5", "2", "4", "2", "1"), options(answers, 7));
+        assertEquals(List.of("1", "2", "5", "2", "4"), answers.explicitOptions(), "空位在编译时用轮换序列补齐");
+    }
+
+    @Test
+    void plainOptionClearsEarlierPerQuestionOptions() {
+        CourseAnswers answers = compile("option 2=3", "option 4").defaults();
+
+        assertEquals(List.of("4", "4", "4"), options(answers, 3));
+        assertTrue(answers.explicitOptions().isEmpty());
+    }
+
+    @Test
+    void blockInheritsDefaultsAndOverridesOnlyItsOwnDirectives() {
+        AnswerPolicy policy = compile(
+                "distribution 1:3 2:1",
+                "option 1=5",
+                "comment 默认评语",
+                "",
+                "[teacher 张三]",
+                "comment 张老师评语");
+
+        CourseAnswers zhang = policy.forCourse(course("计科", "编译原理", "张三"));
+        assertEquals(List.of("5", "1", "2", "1", "1", "1"), options(zhang, 6), "继承默认的逐题指定与比例轮换");
+        assertEquals("张老师评语", zhang.comment());
+
+        CourseAnswers other = policy.forCourse(course("计科", "操作系统", "李四"));
+        assertEquals(List.of("5", "1", "2", "1"), options(other, 4));
+        assertEquals("默认评语", other.comment());
+    }
+
+    @Test
+    void blockDoesNotInheritDirectivesWrittenAfterIt() {
+        AnswerPolicy policy = compile("[course 体育]", "option 3");
+
+        assertEquals("3", policy.forCourse(course("体育", "体育", "王五")).option(0));
+        assertEquals(OPTION_VERY_SATISFIED, policy.defaults().option(0), "块内指令不影响默认规则");
+    }
+
+    @Test
+    void firstMatchingBlockWins() {
+        AnswerPolicy policy = compile(
+                "[department 计科]", "option 2",
+                "[teacher 张]", "option 3");
+
+        assertEquals("2", policy.forCourse(course("计科", "编译原理", "张三")).option(0));
+        assertEquals("3", policy.forCourse(course("数理", "高等数学", "张伟")).option(0));
+        assertEquals(OPTION_VERY_SATISFIED, policy.forCourse(course("外语", "英语", "李娜")).option(0));
+    }
+
+    @Test
+    void commentTemplatesRotatePerCourse() {
+        AnswerPolicy policy = compile("comment 甲 | 乙 |  | 丙");
+
+        assertEquals(List.of("甲", "乙", "丙", "甲"), List.of(
+                policy.defaults().comment(), policy.defaults().comment(),
+                policy.defaults().comment(), policy.defaults().comment()));
+    }
+
+    @Test
+    void commentsAndBlankLinesAreIgnored() {
+        AnswerPolicy policy = compile("# 注释", "   ", "  option 2  ");
+
+        assertEquals("2", policy.defaults().option(0));
+    }
+
+    @Test
+    void errorsReportTheOneBasedLineNumber() {
+        assertLineError(3, "option 1", "# 注释", "distribution 1-8");
+        assertLineError(1, "option 0=2");
+        assertLineError(1, "option x=2");
+        assertLineError(2, "", "distribution 1:0");
+        assertLineError(1, "option 'x'");
+        assertLineError(1, "comment | ");
+        assertLineError(1, "answer 1");
+        assertLineError(1, "option");
+        assertLineError(2, "option 1", "[student 张三]");
+    }
+
+    private static void assertLineError(int line, String... lines) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> compile(lines));
+        assertTrue(error.getMessage().startsWith("作答策略第 " + line + " 行格式错误"), error.getMessage());
+    }
+}
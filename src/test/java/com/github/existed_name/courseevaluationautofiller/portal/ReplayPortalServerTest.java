@@ -0,0 +1,180 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import com.github.existed_name.courseevaluationautofiller.model.CourseEvaluation;
+import com.github.existed_name.courseevaluationautofiller.parser.EvaluationListParser;
+import com.github.existed_name.courseevaluationautofiller.portal.PageCapture.Kind;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReplayPortalServer 单元测试：用 PortalPages 生成一份录制目录，离线校验列表裁剪、提交校验、完成页切换与站点源替换
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class ReplayPortalServerTest {
+
+    private static final String ORIGIN = "https://jw.example.edu.cn";
+    private static final String SCRIPT_KEY = "/js/app.js";
+    private static final List<StubCourse> COURSES = StubCourse.generate(3);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final List<ReplayPortalServer> servers = new ArrayList<>();
+
+    @TempDir
+    Path captureDir;
+
+    private final List<String> manifest = new ArrayList<>();
+
+    /**
+     * 录制：首页、3 门课程的列表、前 2 份问卷（第 3 份未录制）、第 1 份问卷的提交内容、完成页、一个脚本
+     */
+    @BeforeEach
+    void record() throws IOException {
+        manifest.add(PageCapture.ORIGIN_PREFIX.strip() + "\t" + ORIGIN);
+        write(Kind.LANDING, PortalPages.url(PortalPages.EVENT_LANDING), PortalPages.landing(), "text/html");
+        write(Kind.LIST, PortalPages.url(PortalPages.EVENT_LIST), PortalPages.list(COURSES), "text/html; charset=GBK");
+        for (StubCourse course : COURSES.subList(0, 2)) {
+            write(Kind.QUESTIONNAIRE, PortalPages.questionnaireUrl(course.id()),
+                    PortalPages.questionnaire(course, 2, "token-" + course.id()), "text/html");
+        }
+        write(Kind.SUBMIT, PortalPages.questionnaireUrl(1), "sheetId=1&token=token-1&q1=1&q2=1&CourseComment=ok&draft=",
+                ORIGIN + PortalPages.questionnaireUrl(1));
+        write(Kind.COMPLETED, PortalPages.url(PortalPages.EVENT_LIST), PortalPages.list(List.of()), "text/html");
+        write(Kind.RESOURCE, SCRIPT_KEY, "var api = '" + ORIGIN + "/api';", "application/javascript");
+    }
+
+    private void write(Kind kind, String key, String body, String detail) throws IOException {
+        String file = String.format("%03d-%s.html", manifest.size(), kind.name().toLowerCase());
+        Files.writeString(captureDir.resolve(file), body, StandardCharsets.UTF_8);
+        manifest.add(String.join("\t", kind.name(), kind == Kind.SUBMIT ? "POST" : "GET", key, file, detail));
+        Files.writeString(captureDir.resolve(PageCapture.MANIFEST), String.join("\n", manifest) + "\n", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(ReplayPortalServer::stop);
+    }
+
+    private ReplayPortalServer start() throws IOException {
+        ReplayPortalServer replay = new ReplayPortalServer(captureDir, 0);
+        replay.start();
+        servers.add(replay);
+        return replay;
+    }
+
+    private HttpResponse<String> get(ReplayPortalServer replay, String key) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(replay.baseUrl() + key)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private int submit(ReplayPortalServer replay, int id, String body, boolean withReferer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(replay.baseUrl() + PortalPages.questionnaireUrl(id)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (withReferer) {
+            request.header("Referer", ORIGIN + PortalPages.questionnaireUrl(id));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private List<CourseEvaluation> pendingCourses(ReplayPortalServer replay) throws Exception {
+        Document list = Jsoup.parse(get(replay, PortalPages.url(PortalPages.EVENT_LIST)).body(), replay.baseUrl() + "/");
+        return EvaluationListParser.parsePendingCourses(list);
+    }
+
+    @Test
+    void listOnlyContainsCoursesWithRecordedQuestionnaires() throws Exception {
+        ReplayPortalServer replay = start();
+
+        List<CourseEvaluation> courses = pendingCourses(replay);
+
+        assertEquals(2, replay.questionnaireCount());
+        assertEquals(List.of("课程1", "课程2"), courses.stream().map(CourseEvaluation::courseName).toList());
+        assertFalse(get(replay, PortalPages.url(PortalPages.EVENT_LIST)).body().contains("data-replay-key"),
+                "内部标记不应返回给浏览器");
+    }
+
+    @Test
+    void submissionsAreCheckedAgainstTheRecordingAndRemovedFromTheList() throws Exception {
+        ReplayPortalServer replay = start();
+
+        assertEquals(400, submit(replay, 1, "sheetId=1&token=x&q1=1&CourseComment=ok", true), "录制时有值的 q2 缺失");
+        assertEquals(302, submit(replay, 1, "sheetId=1&token=x&q1=2&q2=3&CourseComment=ok", true), "录制时为空的字段不要求");
+        assertEquals(List.of("课程2"), pendingCourses(replay).stream().map(CourseEvaluation::courseName).toList());
+
+        // 第 2 份问卷没有录制提交内容：不校验；没有 Referer 时按提交地址识别问卷
+        assertEquals(302, submit(replay, 2, "anything=1", false));
+        Document list = Jsoup.parse(get(replay, PortalPages.url(PortalPages.EVENT_LIST)).body());
+        assertTrue(EvaluationListParser.isAllCompleted(list), "全部提交后返回录制的完成页");
+    }
+
+    @Test
+    void submissionForUnrecordedQuestionnaireIsNotFound() throws Exception {
+        assertEquals(404, submit(start(), 3, "q1=1", true));
+    }
+
+    @Test
+    void everyStartReplaysFromTheBeginning() throws Exception {
+        ReplayPortalServer first = start();
+        submit(first, 1, "sheetId=1&token=x&q1=1&q2=1&CourseComment=ok", true);
+
+        assertEquals(1, pendingCourses(first).size());
+        assertEquals(2, pendingCourses(start()).size());
+    }
+
+    @Test
+    void servesRecordedPagesWithOriginRewrittenAndUtf8Charset() throws Exception {
+        ReplayPortalServer replay = start();
+
+        HttpResponse<String> script = get(replay, SCRIPT_KEY);
+        assertEquals(200, script.statusCode());
+        assertEquals("var api = '" + replay.baseUrl() + "/api';", script.body());
+        assertEquals("application/javascript; charset=UTF-8", script.headers().firstValue("Content-Type").orElseThrow());
+
+        assertEquals("text/html; charset=UTF-8",
+                get(replay, PortalPages.url(PortalPages.EVENT_LIST)).headers().firstValue("Content-Type").orElseThrow(),
+                "录制内容按 UTF-8 保存，原字符集被替换");
+        assertTrue(get(replay, PortalPages.questionnaireUrl(2)).body().contains("token-2"));
+        assertEquals(replay.baseUrl() + PortalPages.url(PortalPages.EVENT_LANDING), replay.targetUrl());
+    }
+
+    @Test
+    void unrecordedResourceIsNotFound() throws Exception {
+        assertEquals(404, get(start(), "/img/logo.png").statusCode());
+    }
+
+    @Test
+    void recordingWithoutListIsRejected() throws IOException {
+        List<String> withoutList = Files.readAllLines(captureDir.resolve(PageCapture.MANIFEST)).stream()
+                .filter(line -> !line.startsWith(Kind.LIST.name()))
+                .toList();
+        Files.write(captureDir.resolve(PageCapture.MANIFEST), withoutList);
+
+        assertThrows(IllegalArgumentException.class, () -> new ReplayPortalServer(captureDir, 0));
+    }
+
+    @Test
+    void manifestWithoutOriginIsRejected() throws IOException {
+        Files.writeString(captureDir.resolve(PageCapture.MANIFEST), "LANDING\tGET\t/\t001-landing.html\ttext/html\n");
+
+        assertThrows(IllegalArgumentException.class, () -> new ReplayPortalServer(captureDir, 0));
+    }
+}
@@ -0,0 +1,231 @@
+package com.github.existed_name.courseevaluationautofiller.portal;
+
+import com.github.existed_name.courseevaluationautofiller.http.DirectHttpEvaluator;
+import com.github.existed_name.courseevaluationautofiller.model.EvaluationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.existed_name.courseevaluationautofiller.config.SystemConfig.ID_COMMENT_TEXTAREA;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StubPortalServer 单元测试：提交校验、故障注入的确定性与各注入项的效果、直连模式在注入 503 下能否多轮完成
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class StubPortalServerTest {
+
+    private static final int QUESTIONS = 3;
+
+    private final List<StubPortalServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(StubPortalServer::stop);
+    }
+
+    private StubPortalServer start(int courses, FaultProfile faults) throws IOException {
+        StubPortalServer stub = new StubPortalServer(0, StubCourse.generate(courses), QUESTIONS, faults);
+        stub.start();
+        servers.add(stub);
+        return stub;
+    }
+
+    private static FaultProfile errorRate(double rate, long seed) {
+        return new FaultProfile(0, 0, rate, 0, 0, seed);
+    }
+
+    /** 带会话 Cookie 的客户端（先访问首页） */
+    private static HttpClient login(StubPortalServer stub) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+                .build();
+        assertEquals(200, get(client, stub.targetUrl()).statusCode());
+        return client;
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String questionnaireUrl(StubPortalServer stub, int id) {
+        return stub.baseUrl() + PortalPages.questionnaireUrl(id);
+    }
+
+    private static String tokenOf(String page) {
+        int start = page.indexOf("name=\"token\" value=\"") + "name=\"token\" value=\"".length();
+        return page.substring(start, page.indexOf('"', start));
+    }
+
+    private static String completeForm(String token) {
+        StringBuilder form = new StringBuilder("token=").append(token);
+        for (int q = 1; q <= QUESTIONS; q++) {
+            form.append("&q").append(q).append("=1");
+        }
+        return form.append('&').append(ID_COMMENT_TEXTAREA).append("=ok").toString();
+    }
+
+    @Test
+    void acceptsCompleteSubmissionOnceAndCountsDuplicates() throws Exception {
+        StubPortalServer stub = start(2, FaultProfile.NONE);
+        HttpClient client = login(stub);
+        String token = tokenOf(get(client, questionnaireUrl(stub, 1)).body());
+
+        assertEquals(400, post(client, questionnaireUrl(stub, 1), "token=" + token).statusCode());
+        assertEquals(302, post(client, questionnaireUrl(stub, 1), completeForm(token)).statusCode());
+        assertEquals(302, post(client, questionnaireUrl(stub, 1), completeForm(token)).statusCode());
+
+        assertEquals(1, stub.rejectedCount());
+        assertEquals(1, stub.submissionCount());
+        assertEquals(1, stub.duplicateCount());
+        assertEquals(1, stub.pendingCount());
+        assertFalse(get(client, stub.listUrl()).body().contains(PortalPages.questionnaireUrl(1)));
+    }
+
+    @Test
+    void requestWithoutSessionGetsLoginPage() throws Exception {
+        StubPortalServer stub = start(1, FaultProfile.NONE);
+
+        String page = get(HttpClient.newHttpClient(), stub.listUrl()).body();
+
+        assertTrue(page.contains("统一身份认证"));
+    }
+
+    @Test
+    void fullErrorRateFailsEverythingButTheLandingPage() throws Exception {
+        StubPortalServer stub = start(1, errorRate(1.0, 42));
+        HttpClient client = login(stub);
+
+        assertEquals(503, get(client, stub.listUrl()).statusCode());
+        assertEquals(503, get(client, questionnaireUrl(stub, 1)).statusCode());
+        assertEquals(200, get(client, stub.targetUrl()).statusCode());
+        assertEquals(2, stub.injectedErrorCount());
+    }
+
+    @Test
+    void zeroErrorRateInjectsNothing() throws Exception {
+        StubPortalServer stub = start(1, FaultProfile.NONE);
+        HttpClient client = login(stub);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, get(client, stub.listUrl()).statusCode());
+        }
+        assertEquals(0, stub.injectedErrorCount());
+    }
+
+    @Test
+    void sameSeedInjectsSameFaultsRegardlessOfRequestOrder() throws Exception {
+        StubPortalServer first = start(2, errorRate(0.5, 7));
+        StubPortalServer second = start(2, errorRate(0.5, 7));
+        HttpClient firstClient = login(first);
+        HttpClient secondClient = login(second);
+
+        // 第一个服务器按课程依次请求，第二个交替请求
+        List<Integer> firstStatuses = new ArrayList<>();
+        for (int id = 1; id <= 2; id++) {
+            for (int attempt = 0; attempt < 10; attempt++) {
+                firstStatuses.add(get(firstClient, questionnaireUrl(first, id)).statusCode());
+            }
+        }
+        Integer[] secondStatuses = new Integer[20];
+        for (int attempt = 0; attempt < 10; attempt++) {
+            for (int id = 1; id <= 2; id++) {
+                secondStatuses[(id - 1) * 10 + attempt] = get(secondClient, questionnaireUrl(second, id)).statusCode();
+            }
+        }
+
+        assertEquals(firstStatuses, List.of(secondStatuses), "注入结果只取决于哪门课程的第几次请求");
+        assertTrue(firstStatuses.contains(503) && firstStatuses.contains(200), "0.5 的概率下两种结果都应出现");
+        assertEquals(first.injectedErrorCount(), second.injectedErrorCount());
+    }
+
+    @Test
+    void disabledSubmitRateLocksTheSubmitButton() throws Exception {
+        StubPortalServer locked = start(1, new FaultProfile(0, 0, 0, 0, 1.0, 42));
+        StubPortalServer normal = start(1, FaultProfile.NONE);
+
+        assertTrue(get(login(locked), questionnaireUrl(locked, 1)).body().contains("data-locked=\"true\""));
+        assertFalse(get(login(normal), questionnaireUrl(normal, 1)).body().contains("data-locked=\"true\""));
+    }
+
+    @Test
+    void slowXhrIsEmbeddedInQuestionnairePage() throws Exception {
+        StubPortalServer stub = start(1, new FaultProfile(0, 0, 0, 250, 0, 42));
+
+        String page = get(login(stub), questionnaireUrl(stub, 1)).body();
+
+        assertTrue(page.contains(PortalPages.url(PortalPages.EVENT_PING) + "&delay=250"));
+    }
+
+    @Test
+    void latencyDelaysEveryResponse() throws Exception {
+        StubPortalServer stub = start(1, new FaultProfile(100, 0, 0, 0, 0, 42));
+        HttpClient client = login(stub);
+
+        long start = System.nanoTime();
+        get(client, stub.listUrl());
+
+        assertTrue(System.nanoTime() - start >= 100_000_000L);
+    }
+
+    @Test
+    void directHttpModeCompletesAllCoursesDespiteInjectedErrors() throws Exception {
+        StubPortalServer stub = start(10, errorRate(0.2, 42));
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient.newBuilder().cookieHandler(cookies).build().send(
+                HttpRequest.newBuilder(URI.create(stub.targetUrl())).build(), HttpResponse.BodyHandlers.discarding());
+
+        DirectHttpEvaluator evaluator = new DirectHttpEvaluator(
+                URI.create(stub.listUrl()), cookies, "StubPortalServerTest", 4);
+
+        // 提交不重试，被 503 打回的课程留给下一轮（与 LoadDriver 相同）
+        long succeeded = 0;
+        for (int pass = 0; pass < 10 && stub.pendingCount() > 0; pass++) {
+            succeeded += evaluator.evaluateAll().stream().filter(EvaluationResult::success).count();
+        }
+
+        assertEquals(10, succeeded);
+        assertEquals(10, stub.submissionCount());
+        assertEquals(0, stub.duplicateCount());
+        assertEquals(0, stub.pendingCount());
+        assertTrue(stub.injectedErrorCount() > 0, "应实际注入过 503");
+    }
+
+    @Test
+    void rejectsInvalidProfiles() {
+        assertThrows(IllegalArgumentException.class, () -> new FaultProfile(-1, 0, 0, 0, 0, 42));
+        assertThrows(IllegalArgumentException.class, () -> new FaultProfile(0, 0, 1.5, 0, 0, 42));
+    }
+
+    @Test
+    void parsesFaultArguments() {
+        String[] args = {"--courses", "5", "--error-rate", "0.25", "--seed", "9"};
+
+        assertNull(FaultProfile.NONE.parseArgument(args, 0), "非故障参数交给调用方");
+        FaultProfile parsed = FaultProfile.NONE.parseArgument(args, 2).parseArgument(args, 4);
+
+        assertEquals(0.25, parsed.errorRate());
+        assertEquals(9, parsed.seed());
+        assertTrue(parsed.isActive());
+        assertFalse(FaultProfile.NONE.isActive());
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.existed_name.courseevaluationautofiller.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SessionScope 单元测试：失败传播、shutdown 与 fork 竞争、close 等待所有子任务线程结束
+ * 所有用例都带超时（取消遗漏时子任务会一直阻塞，close 随之挂起）
+ *
+ * @author <a href="https://github.com/existed-name"> existed-name </a>
+ * @CreateTime 2026/10/18
+ */
+class SessionScopeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /** 阻塞到被中断为止的子任务 */
+    private static String blockUntilCancelled() throws InterruptedException {
+        Thread.sleep(Long.MAX_VALUE);
+        return "unreachable";
+    }
+
+    @Test
+    void allSubtasksSucceed() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (SessionScope<Integer> scope = new SessionScope<>("test-")) {
+                List<SessionScope.Subtask<Integer>> subtasks = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    int value = i;
+                    subtasks.add(scope.fork(() -> value * value, null));
+                }
+                scope.join();
+                scope.throwIfFailed();
+
+                assertFalse(scope.isShutdown());
+                for (int i = 0; i < subtasks.size(); i++) {
+                    assertEquals(SessionScope.Subtask.State.SUCCESS, subtasks.get(i).state());
+                    assertEquals(i * i, subtasks.get(i).get());
+                }
+            }
+        });
+    }
+
+    @Test
+    void firstFailurePropagatesAndCancelsSiblings() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            AtomicInteger cancelCallbacks = new AtomicInteger();
+            IllegalStateException boom = new IllegalStateException("boom");
+            SessionScope.Subtask<String> failing;
+            SessionScope.Subtask<String> sibling;
+
+            try (SessionScope<String> scope = new SessionScope<>("test-")) {
+                sibling = scope.fork(SessionScopeTest::blockUntilCancelled, cancelCallbacks::incrementAndGet);
+                failing = scope.fork(() -> {
+                    throw boom;
+                }, null);
+                scope.join();
+
+                assertTrue(scope.isShutdown());
+                ExecutionException thrown = assertThrows(ExecutionException.class, scope::throwIfFailed);
+                assertSame(boom, thrown.getCause());
+            }
+
+            assertEquals(SessionScope.Subtask.State.FAILED, failing.state());
+            assertSame(boom, failing.exception());
+            assertEquals(SessionScope.Subtask.State.CANCELLED, sibling.state());
+            assertEquals(1, cancelCallbacks.get(), "取消回调只执行一次");
+            assertThrows(IllegalStateException.class, sibling::get);
+        });
+    }
+
+    @Test
+    void shutdownFromAnotherThreadReleasesJoin() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (SessionScope<String> scope = new SessionScope<>("test-")) {
+                SessionScope.Subtask<String> subtask = scope.fork(SessionScopeTest::blockUntilCancelled, null);
+                Thread.ofVirtual().start(scope::shutdown);
+                scope.join();
+
+                assertTrue(scope.isShutdown());
+                assertDoesNotThrow(scope::throwIfFailed, "取消引起的异常不算失败");
+                scope.close();
+                assertEquals(SessionScope.Subtask.State.CANCELLED, subtask.state());
+            }
+        });
+    }
+
+    @Test
+    void shutdownRacingForkNeverLeavesSubtaskRunning() {
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            for (int round = 0; round < 300; round++) {
+                AtomicInteger started = new AtomicInteger();
+                AtomicInteger finished = new AtomicInteger();
+                List<SessionScope.Subtask<String>> subtasks = new ArrayList<>();
+
+                try (SessionScope<String> scope = new SessionScope<>("race-")) {
+                    CountDownLatch go = new CountDownLatch(1);
+                    int delayNanos = ThreadLocalRandom.current().nextInt(50_000);
+                    Thread.ofPlatform().start(() -> {
+                        try {
+                            go.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        long until = System.nanoTime() + delayNanos;
+                        while (System.nanoTime() < until) {
+                            Thread.onSpinWait();
+                        }
+                        scope.shutdown();
+                    });
+                    go.countDown();
+                    for (int i = 0; i < 50; i++) {
+                        subtasks.add(scope.fork(() -> {
+                            started.incrementAndGet();
+                            try {
+                                return blockUntilCancelled();
+                            } finally {
+                                finished.incrementAndGet();
+                            }
+                        }, null));
+                    }
+                    scope.join();
+                }
+
+                assertEquals(started.get(), finished.get(), "close() 返回时所有已启动的子任务都已结束");
+                for (SessionScope.Subtask<String> subtask : subtasks) {
+                    assertEquals(SessionScope.Subtask.State.CANCELLED, subtask.state());
+                }
+            }
+        });
+    }
+
+    @Test
+    void forkAfterShutdownDoesNotRun() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            AtomicInteger runs = new AtomicInteger();
+            try (SessionScope<Integer> scope = new SessionScope<>("test-")) {
+                scope.shutdown();
+                SessionScope.Subtask<Integer> subtask = scope.fork(runs::incrementAndGet, null);
+                scope.join();
+                assertEquals(SessionScope.Subtask.State.CANCELLED, subtask.state());
+            }
+            assertEquals(0, runs.get());
+        });
+    }
+
+    @Test
+    void closeWaitsForSubtasksThatIgnoreInterrupts() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            int count = 4;
+            AtomicInteger finished = new AtomicInteger();
+            CountDownLatch allStarted = new CountDownLatch(count);
+
+            try (SessionScope<Void> scope = new SessionScope<>("test-")) {
+                for (int i = 0; i < count; i++) {
+                    scope.fork(() -> {
+                        allStarted.countDown();
+                        // 忽略中断，继续运行 200 ms
+                        long until = System.nanoTime() + Duration.ofMillis(200).toNanos();
+                        while (System.nanoTime() < until) {
+                            Thread.onSpinWait();
+                        }
+                        finished.incrementAndGet();
+                        return null;
+                    }, null);
+                }
+                allStarted.await();
+            }
+
+            assertEquals(count, finished.get(), "close() 返回前所有子任务线程都已结束");
+        });
+    }
+
+    @Test
+    void onlyOwnerMayFork() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            try (SessionScope<String> scope = new SessionScope<>("test-")) {
+                AtomicInteger rejected = new AtomicInteger();
+                Thread other = Thread.ofVirtual().start(() -> {
+                    try {
+                        scope.fork(() -> "x", null);
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    }
+                });
+                other.join();
+                assertEquals(1, rejected.get());
+            }
+        });
+    }
+}